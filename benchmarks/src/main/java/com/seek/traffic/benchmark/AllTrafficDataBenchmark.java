@@ -0,0 +1,61 @@
+package com.seek.traffic.benchmark;
+
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.model.TrafficData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TrafficDataProcessor#getAllTrafficData()} on out-of-order records:
+ * sorting the columns, then materialising a {@link TrafficData} per record.
+ *
+ * Sizes stop at 10M rows because the materialised list alone needs about
+ * 100 bytes per record; compare with {@code ProcessorBenchmark.sortedTrafficColumns},
+ * which sorts the same records without materialising them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class AllTrafficDataBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private int[] minutes;
+    private int[] counts;
+    private TrafficDataProcessor processor;
+
+    @Setup
+    public void setUp() {
+        minutes = TrafficDatasets.epochMinutes(rows);
+        counts = TrafficDatasets.carsCounts(rows);
+        TrafficDatasets.shuffle(minutes, counts);
+    }
+
+    @Setup(Level.Invocation)
+    public void loadProcessor() {
+        processor = new TrafficDataProcessor();
+        processor.mergeAggregate(TrafficDatasets.aggregate(minutes, counts));
+    }
+
+    @Benchmark
+    public List<TrafficData> allTrafficData() {
+        return processor.getAllTrafficData();
+    }
+}
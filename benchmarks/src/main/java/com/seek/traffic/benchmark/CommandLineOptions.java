@@ -0,0 +1,51 @@
+package com.seek.traffic.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code --name=value} arguments of the command-line tools in this module.
+ */
+final class CommandLineOptions {
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * Collects the values of the {@code known} options; every other argument
+     * is added to {@code rest} in order.
+     */
+    static Map<String, String> parse(String[] args, List<String> known, List<String> rest) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (arg.startsWith("--") && equals > 2 && known.contains(arg.substring(2, equals))) {
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            } else {
+                rest.add(arg);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Parses a size such as {@code 512MB} or {@code 2GB}; a bare number is bytes.
+     */
+    static long parseBytes(String size) {
+        String value = size.trim().toUpperCase(Locale.ROOT);
+        long unit = 1;
+        if (value.endsWith("KB")) {
+            unit = 1L << 10;
+        } else if (value.endsWith("MB")) {
+            unit = 1L << 20;
+        } else if (value.endsWith("GB")) {
+            unit = 1L << 30;
+        }
+        if (unit > 1) {
+            value = value.substring(0, value.length() - 2).trim();
+        }
+        return Math.round(Double.parseDouble(value) * unit);
+    }
+}
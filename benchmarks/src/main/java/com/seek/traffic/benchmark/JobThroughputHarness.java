@@ -0,0 +1,265 @@
+package com.seek.traffic.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seek.traffic.TrafficApplication;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the whole {@code trafficDataAnalysisJob}, Spring context included,
+ * on each input and ingestion mode, and appends one JSON line per run to a
+ * results file so runs can be compared over time:
+ *
+ * <pre>
+ * {"timestamp":"...","input":"traffic-2g.csv","inputBytes":2147483648,"mode":"chunk","status":"COMPLETED",
+ *  "rows":97612345,"wallMillis":...,"jobMillis":...,"rowsPerSecond":...,"megabytesPerSecond":...,
+ *  "peakHeapBytes":...,"maxHeapBytes":...,"gcCount":...,"gcPauseMillis":...,"maxGcPauseMillis":..., ...}
+ * </pre>
+ *
+ * Peak heap is the largest heap occupancy seen before any collection or at
+ * the end of the run. Runs share one JVM, so start the harness with the
+ * heap settings under test and run one input per invocation for the
+ * cleanest peak heap figures.
+ *
+ * <pre>
+ * --results=target/job-results.jsonl  file the results are appended to
+ * --modes=chunk,streaming              values of traffic.ingestion.mode to run
+ * --repeat=1                           runs per input and mode
+ * FILE...                              CSV inputs
+ * --traffic.*=...                      passed to every run, e.g. --traffic.reader.mode=bytes
+ * </pre>
+ */
+public class JobThroughputHarness {
+
+    private static final String JOB_NAME = "trafficDataAnalysisJob";
+
+    public static void main(String[] args) throws Exception {
+        List<String> rest = new ArrayList<>();
+        Map<String, String> options = CommandLineOptions.parse(args, List.of("results", "modes", "repeat"), rest);
+        Path results = Path.of(options.getOrDefault("results", "target/job-results.jsonl"));
+        List<String> modes = List.of(options.getOrDefault("modes", "chunk,streaming").split(","));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+
+        List<Path> inputs = new ArrayList<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : rest) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else {
+                inputs.add(Path.of(arg));
+            }
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input files given");
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        if (results.getParent() != null) {
+            Files.createDirectories(results.getParent());
+        }
+        for (Path input : inputs) {
+            for (String mode : modes) {
+                for (int run = 0; run < repeat; run++) {
+                    JobRunResult result = run(input, mode.trim(), applicationArgs);
+                    try (Writer writer = Files.newBufferedWriter(results,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                        writer.write(objectMapper.writeValueAsString(result));
+                        writer.write('\n');
+                    }
+                    System.out.printf(Locale.ROOT, "%s %s: %s, %,d rows in %,d ms (%,.0f rows/s), "
+                                    + "peak heap %,d MB, %d GC pauses totalling %,d ms%n",
+                            input.getFileName(), mode, result.status(), result.rows(), result.jobMillis(),
+                            result.rowsPerSecond(), result.peakHeapBytes() >> 20, result.gcCount(),
+                            result.gcPauseMillis());
+                }
+            }
+        }
+        System.out.println("Results appended to " + results.toAbsolutePath());
+    }
+
+    static JobRunResult run(Path input, String mode, List<String> applicationArgs) throws IOException {
+        List<String> args = new ArrayList<>(applicationArgs);
+        args.add("--traffic.input=file:" + input.toAbsolutePath());
+        args.add("--traffic.ingestion.mode=" + mode);
+        args.add("--traffic.repository.url=");
+
+        System.gc();
+        try (GcRecorder gc = new GcRecorder()) {
+            long started = System.nanoTime();
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TrafficApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .logStartupInfo(false)
+                    .run(args.toArray(String[]::new))) {
+                long wallMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+                gc.sampleHeap();
+
+                JobExecution execution = lastExecution(context);
+                long jobMillis = Duration.between(execution.getStartTime(), execution.getEndTime()).toMillis();
+                long rows = context.getBean(TrafficDataProcessor.class).getDataVersion().records();
+                long inputBytes = Files.size(input);
+                double seconds = Math.max(jobMillis, 1) / 1000.0;
+                Runtime runtime = Runtime.getRuntime();
+
+                return new JobRunResult(
+                        Instant.now().toString(),
+                        input.toString(),
+                        inputBytes,
+                        mode,
+                        execution.getStatus().toString(),
+                        rows,
+                        wallMillis,
+                        jobMillis,
+                        rows / seconds,
+                        inputBytes / seconds / (1 << 20),
+                        gc.peakHeapBytes(),
+                        runtime.maxMemory(),
+                        gc.count(),
+                        gc.pauseMillis(),
+                        gc.maxPauseMillis(),
+                        System.getProperty("java.version"),
+                        runtime.availableProcessors(),
+                        String.join(" ", applicationArgs));
+            }
+        }
+    }
+
+    private static JobExecution lastExecution(ConfigurableApplicationContext context) {
+        JobRepository jobRepository = context.getBean(JobRepository.class);
+        String jobName = context.getBean(JOB_NAME, Job.class).getName();
+        return jobRepository.findJobInstancesByName(jobName, 0, 1).stream()
+                .flatMap(instance -> jobRepository.findJobExecutions(instance).stream())
+                .max(Comparator.comparing(JobExecution::getId))
+                .orElseThrow(() -> new IllegalStateException("The job did not run"));
+    }
+
+    /**
+     * One line of the results file.
+     */
+    record JobRunResult(
+            String timestamp,
+            String input,
+            long inputBytes,
+            String mode,
+            String status,
+            long rows,
+            long wallMillis,
+            long jobMillis,
+            double rowsPerSecond,
+            double megabytesPerSecond,
+            long peakHeapBytes,
+            long maxHeapBytes,
+            long gcCount,
+            long gcPauseMillis,
+            long maxGcPauseMillis,
+            String javaVersion,
+            int availableProcessors,
+            String arguments) {
+    }
+
+    /**
+     * Collects stop-the-world collections and the heap occupancy before each
+     * while open.
+     */
+    private static class GcRecorder implements NotificationListener, AutoCloseable {
+
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        private long count;
+        private long pauseMillis;
+        private long maxPauseMillis;
+        private long peakHeapBytes;
+
+        GcRecorder() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+            sampleHeap();
+        }
+
+        @Override
+        public synchronized void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long before = info.getGcInfo().getMemoryUsageBeforeGc().entrySet().stream()
+                    .filter(pool -> heapPools.contains(pool.getKey()))
+                    .mapToLong(pool -> pool.getValue().getUsed())
+                    .sum();
+            peakHeapBytes = Math.max(peakHeapBytes, before);
+            // Concurrent cycles run alongside the application and are not pauses
+            if (!info.getGcAction().contains("concurrent") && !info.getGcName().contains("Concurrent")) {
+                count++;
+                pauseMillis += info.getGcInfo().getDuration();
+                maxPauseMillis = Math.max(maxPauseMillis, info.getGcInfo().getDuration());
+            }
+        }
+
+        synchronized void sampleHeap() {
+            peakHeapBytes = Math.max(peakHeapBytes, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long pauseMillis() {
+            return pauseMillis;
+        }
+
+        synchronized long maxPauseMillis() {
+            return maxPauseMillis;
+        }
+
+        synchronized long peakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        @Override
+        public void close() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (Exception e) {
+                    // already removed
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.seek.traffic.benchmark;
+
+import com.seek.traffic.batch.TrafficDataReader;
+import com.seek.traffic.model.TrafficData;
+import com.seek.traffic.parser.TrafficCsvParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a whole CSV file into records: the {@code FlatFileItemReader}
+ * behind {@link TrafficDataReader} (line tokenizer and field set mapper,
+ * a {@link TrafficData} per row) against the byte-level {@link TrafficCsvParser}.
+ *
+ * Sizes stop at 10M rows; the flat reader takes minutes per invocation
+ * beyond that. Larger runs can be asked for with {@code -p rows=50000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LineMappingBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Path csv;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = TrafficDatasets.writeCsv(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long flatFileReader() throws Exception {
+        TrafficDataReader reader = new TrafficDataReader();
+        reader.setResource(new FileSystemResource(csv));
+        reader.open(new ExecutionContext());
+        try {
+            long totalCars = 0;
+            TrafficData data;
+            while ((data = reader.read()) != null) {
+                totalCars += data.getCarsCount();
+            }
+            return totalCars;
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public long byteParser(Blackhole blackhole) throws IOException {
+        try (TrafficCsvParser parser = new TrafficCsvParser(Files.newInputStream(csv))) {
+            parser.skipLines(1);
+            long totalCars = 0;
+            while (parser.next()) {
+                blackhole.consume(parser.epochSecond());
+                totalCars += parser.carsCount();
+            }
+            return totalCars;
+        }
+    }
+}
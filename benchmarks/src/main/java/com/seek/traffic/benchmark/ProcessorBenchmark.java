@@ -0,0 +1,167 @@
+package com.seek.traffic.benchmark;
+
+import com.seek.traffic.aggregate.LeastTrafficWindow;
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.aggregate.TrafficColumns;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.batch.TrafficDataWriter;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.model.LeastTrafficPeriod;
+import com.seek.traffic.model.TrafficData;
+import com.seek.traffic.writer.ReportSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The processor's hot paths over {@code rows} records: folding records into
+ * the aggregates, ordering out-of-order records, the least-traffic window
+ * scan and writing the report.
+ *
+ * {@link #process} builds each {@link TrafficData} inside the loop, as the
+ * reader hands them over, since holding 50M of them up front would not fit
+ * the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ProcessorBenchmark {
+
+    @Param({"10000", "1000000", "50000000"})
+    public int rows;
+
+    /**
+     * The records in timestamp order as primitive columns.
+     */
+    @State(Scope.Benchmark)
+    public static class Records {
+
+        int[] minutes;
+        int[] counts;
+
+        @Setup
+        public void setUp(ProcessorBenchmark benchmark) {
+            minutes = TrafficDatasets.epochMinutes(benchmark.rows);
+            counts = TrafficDatasets.carsCounts(benchmark.rows);
+        }
+    }
+
+    /**
+     * A processor holding the records in timestamp order, with a report
+     * writer over it.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadedProcessor {
+
+        TrafficDataProcessor processor;
+        TrafficDataWriter writer;
+        TrafficColumns sorted;
+
+        @Setup
+        public void setUp(ProcessorBenchmark benchmark) {
+            processor = new TrafficDataProcessor();
+            processor.mergeAggregate(TrafficDatasets.aggregate(
+                    TrafficDatasets.epochMinutes(benchmark.rows), TrafficDatasets.carsCounts(benchmark.rows)));
+            writer = new TrafficDataWriter(processor, new DiscardingReportSink(), new TrafficProperties());
+            sorted = processor.getSortedTrafficColumns();
+        }
+    }
+
+    /**
+     * The records out of timestamp order, folded into one aggregate.
+     */
+    @State(Scope.Benchmark)
+    public static class ShuffledRecords {
+
+        TrafficAggregate aggregate;
+
+        @Setup
+        public void setUp(ProcessorBenchmark benchmark) {
+            int[] minutes = TrafficDatasets.epochMinutes(benchmark.rows);
+            int[] counts = TrafficDatasets.carsCounts(benchmark.rows);
+            TrafficDatasets.shuffle(minutes, counts);
+            aggregate = TrafficDatasets.aggregate(minutes, counts);
+        }
+    }
+
+    /**
+     * A processor holding the shuffled records, rebuilt before every call so
+     * no sorted view is cached from the previous one.
+     */
+    @State(Scope.Thread)
+    public static class ShuffledProcessor {
+
+        TrafficDataProcessor processor;
+
+        @Setup(Level.Invocation)
+        public void setUp(ShuffledRecords records) {
+            processor = null; // let the previous one be collected while building the next
+            processor = new TrafficDataProcessor();
+            processor.mergeAggregate(records.aggregate);
+        }
+    }
+
+    @Benchmark
+    public TrafficDataProcessor process(Records records) throws Exception {
+        TrafficDataProcessor processor = new TrafficDataProcessor();
+        for (int i = 0; i < rows; i++) {
+            processor.process(TrafficData.builder()
+                    .timestamp(LocalDateTime.ofEpochSecond(records.minutes[i] * 60L, 0, ZoneOffset.UTC))
+                    .carsCount(records.counts[i])
+                    .build());
+        }
+        return processor;
+    }
+
+    @Benchmark
+    public TrafficColumns sortedTrafficColumns(ShuffledProcessor state) {
+        return state.processor.getSortedTrafficColumns();
+    }
+
+    @Benchmark
+    public Optional<LeastTrafficPeriod> leastTrafficWindowScan(LoadedProcessor state) {
+        return LeastTrafficWindow.scan(state.sorted, LeastTrafficWindow.DEFAULT_WINDOW_SIZE).result();
+    }
+
+    @Benchmark
+    public Optional<LeastTrafficPeriod> leastTrafficPeriodUnordered(ShuffledProcessor state) {
+        return state.processor.getLeastTrafficPeriod();
+    }
+
+    @Benchmark
+    public void writeReport(LoadedProcessor state) {
+        state.writer.writeReport();
+    }
+
+    /**
+     * Formats every report line but prints none.
+     */
+    private static class DiscardingReportSink implements ReportSink {
+
+        @Override
+        public void writeLine(String line) {
+            // the report is formatted but not printed
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
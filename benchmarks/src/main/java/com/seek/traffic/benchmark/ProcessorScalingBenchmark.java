@@ -0,0 +1,93 @@
+package com.seek.traffic.benchmark;
+
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.model.TrafficData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-count scaling of the processor as driven by the parallel chunk step:
+ * {@code threads} workers claim chunks of items from a shared cursor and
+ * process them into their own partial aggregates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ProcessorScalingBenchmark {
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Param({"2000000"})
+    public int rows;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<TrafficData> items;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        int[] minutes = TrafficDatasets.epochMinutes(rows);
+        int[] counts = TrafficDatasets.carsCounts(rows);
+        items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add(TrafficData.builder()
+                    .timestamp(LocalDateTime.ofEpochSecond(minutes[i] * 60L, 0, ZoneOffset.UTC))
+                    .carsCount(counts[i])
+                    .build());
+        }
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public TrafficDataProcessor process() throws Exception {
+        TrafficDataProcessor processor = new TrafficDataProcessor();
+        AtomicInteger cursor = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                int from;
+                while ((from = cursor.getAndAdd(CHUNK_SIZE)) < items.size()) {
+                    int to = Math.min(from + CHUNK_SIZE, items.size());
+                    for (int i = from; i < to; i++) {
+                        processor.process(items.get(i));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return processor;
+    }
+}
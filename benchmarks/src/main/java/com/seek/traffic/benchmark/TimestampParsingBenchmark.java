@@ -0,0 +1,74 @@
+package com.seek.traffic.benchmark;
+
+import com.seek.traffic.parser.FastTimestampParser;
+import com.seek.traffic.parser.TimestampFormats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one timestamp column into a time, for the layouts the
+ * readers accept: the fixed-position {@link FastTimestampParser} on text and
+ * on raw bytes, against trying each {@link TimestampFormats} formatter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampParsingBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"yyyy-MM-dd'T'HH:mm:ss", "MM/dd/yyyy HH:mm"})
+    public String pattern;
+
+    private String[] texts;
+    private byte[][] bytes;
+    private FastTimestampParser parser;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        texts = new String[SAMPLES];
+        bytes = new byte[SAMPLES][];
+        LocalDateTime timestamp = TrafficDatasets.START;
+        for (int i = 0; i < SAMPLES; i++) {
+            texts[i] = formatter.format(timestamp);
+            bytes[i] = texts[i].getBytes(StandardCharsets.US_ASCII);
+            timestamp = timestamp.plusMinutes(30);
+        }
+        parser = new FastTimestampParser();
+    }
+
+    @Benchmark
+    public LocalDateTime fastParser() {
+        return parser.parse(texts[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public long fastParserBytes() {
+        byte[] timestamp = bytes[next++ & (SAMPLES - 1)];
+        return parser.parseEpochSecond(timestamp, 0, timestamp.length);
+    }
+
+    @Benchmark
+    public LocalDateTime formatters() {
+        return TimestampFormats.parse(texts[next++ & (SAMPLES - 1)]);
+    }
+}
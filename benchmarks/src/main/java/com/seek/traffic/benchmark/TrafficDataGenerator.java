@@ -0,0 +1,342 @@
+package com.seek.traffic.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic traffic CSVs of any size in the application's input layout.
+ *
+ * Counts follow a daily curve with morning and evening rush hours, lower on
+ * weekends, with noise. Whole hours go missing now and then (sensor
+ * outages), some rows arrive late and out of timestamp order, a few lines
+ * are malformed, and timestamps can be spread over all five supported
+ * layouts. The same options and seed always produce the same file.
+ *
+ * <pre>
+ * --output=PATH            file to write (required)
+ * --size=2GB | --rows=N    stop after this many bytes (KB, MB, GB suffixes) or rows; default 1GB
+ * --start=2021-12-01T00:00 first timestamp
+ * --interval=PT1M          time between records; counts scale with it. Keep the
+ *                          file's time span within the epoch-minute range (about
+ *                          year 6000): a 2GB file at PT30M would overrun it
+ * --formats=iso|all        only yyyy-MM-dd'T'HH:mm:ss, or every supported layout mixed per row; default all
+ * --gap-rate=0.02          chance per day of an outage of 1 to 6 hours
+ * --out-of-order-rate=0.001 chance per row of arriving up to 10 rows late
+ * --malformed=5            malformed lines spread over the file; more than the
+ *                          job's skip limit (10) fails the job
+ * --sensors=0              rows per timestamp, one per sensor S0001, S0002, ... in a
+ *                          third column; 0 writes the two-column layout
+ * --seed=1
+ * </pre>
+ */
+public class TrafficDataGenerator {
+
+    private static final byte[] HEADER = "timestamp,cars_count\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SENSOR_HEADER =
+            "timestamp,cars_count,sensor_id\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] MALFORMED = {
+            "2021-12-01T05:00:00\n".getBytes(StandardCharsets.US_ASCII),
+            "2021-12-01T05:00:00,many\n".getBytes(StandardCharsets.US_ASCII),
+            "2021-13-45T25:61:00,12\n".getBytes(StandardCharsets.US_ASCII),
+            "not a timestamp,7\n".getBytes(StandardCharsets.US_ASCII),
+    };
+    private static final Layout[] LAYOUTS = Layout.values();
+    private static final int MAX_DELAY_ROWS = 10;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Options options;
+    private final SplittableRandom random;
+    private final Stats stats = new Stats();
+
+    private final byte[][] sensorIds;
+    private final byte[] line = new byte[80];
+    private long formattedDay = Long.MIN_VALUE;
+    private final byte[][] formattedDates = new byte[LAYOUTS.length][];
+
+    private long outageStart = Long.MIN_VALUE;
+    private long outageEnd = Long.MIN_VALUE;
+    private byte[] delayedLine;
+    private int delayedFor;
+
+    TrafficDataGenerator(Options options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.seed);
+        this.sensorIds = new byte[options.sensors][];
+        for (int i = 0; i < options.sensors; i++) {
+            sensorIds[i] = String.format(Locale.ROOT, ",S%04d", i + 1).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        long started = System.nanoTime();
+        Stats stats;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(options.output), BUFFER_SIZE)) {
+            stats = new TrafficDataGenerator(options).generate(out);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        System.out.printf(Locale.ROOT, "Wrote %,d rows (%,d bytes) to %s in %.1f s: %,d outage rows left out, "
+                        + "%,d rows out of order, %,d malformed lines%n",
+                stats.rows, stats.bytes, options.output, elapsed.toMillis() / 1000.0,
+                stats.missingRows, stats.delayedRows, stats.malformedLines);
+    }
+
+    Stats generate(OutputStream out) throws IOException {
+        byte[] header = options.sensors > 0 ? SENSOR_HEADER : HEADER;
+        write(out, header, header.length);
+        long second = options.start.toEpochSecond(ZoneOffset.UTC);
+        long step = options.interval.toSeconds();
+        int malformedWritten = 0;
+
+        while (!done()) {
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+            second += step;
+            if (inOutage(timestamp)) {
+                stats.missingRows++;
+                continue;
+            }
+
+            for (int sensor = 0; sensor < Math.max(1, options.sensors) && !done(); sensor++) {
+                if (malformedWritten < options.malformed
+                        && progress() * (options.malformed + 1) >= malformedWritten + 1) {
+                    byte[] malformed = MALFORMED[malformedWritten % MALFORMED.length];
+                    write(out, malformed, malformed.length);
+                    malformedWritten++;
+                    stats.malformedLines++;
+                }
+
+                int length = format(timestamp, carsCount(timestamp), options.sensors > 0 ? sensorIds[sensor] : null);
+                if (delayedLine == null && random.nextDouble() < options.outOfOrderRate) {
+                    delayedLine = Arrays.copyOf(line, length);
+                    delayedFor = 1 + random.nextInt(MAX_DELAY_ROWS);
+                    stats.delayedRows++;
+                } else {
+                    write(out, line, length);
+                }
+                stats.rows++;
+
+                if (delayedLine != null && --delayedFor < 0) {
+                    write(out, delayedLine, delayedLine.length);
+                    delayedLine = null;
+                }
+            }
+        }
+        if (delayedLine != null) {
+            write(out, delayedLine, delayedLine.length);
+        }
+        return stats;
+    }
+
+    private boolean done() {
+        return options.rows > 0 ? stats.rows >= options.rows : stats.bytes >= options.size;
+    }
+
+    private double progress() {
+        return options.rows > 0 ? (double) stats.rows / options.rows : (double) stats.bytes / options.size;
+    }
+
+    private void write(OutputStream out, byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        stats.bytes += length;
+    }
+
+    /**
+     * Starts an outage on some days, at a random time of day.
+     */
+    private boolean inOutage(LocalDateTime timestamp) {
+        long second = timestamp.toEpochSecond(ZoneOffset.UTC);
+        if (timestamp.toLocalTime().toSecondOfDay() < options.interval.toSeconds()
+                && random.nextDouble() < options.gapRate) {
+            outageStart = second + random.nextLong(86_400);
+            outageEnd = outageStart + 3_600L * (1 + random.nextInt(6));
+        }
+        return second >= outageStart && second < outageEnd;
+    }
+
+    /**
+     * Cars in one interval: quiet nights, rush hours around 08:00 and 17:30,
+     * flatter and lower at weekends.
+     */
+    private int carsCount(LocalDateTime timestamp) {
+        double hour = timestamp.getHour() + timestamp.getMinute() / 60.0;
+        boolean weekend = timestamp.getDayOfWeek() == DayOfWeek.SATURDAY
+                || timestamp.getDayOfWeek() == DayOfWeek.SUNDAY;
+        double perHalfHour = 3
+                + 12 * bump(hour, 13, 4)
+                + (weekend ? 8 : 45) * bump(hour, 8, 1)
+                + (weekend ? 10 : 40) * bump(hour, 17.5, 1.5);
+        double mean = perHalfHour * options.interval.toSeconds() / 1800.0;
+        long cars = Math.round(mean + Math.sqrt(mean) * random.nextGaussian());
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, cars));
+    }
+
+    private static double bump(double hour, double peak, double width) {
+        double distance = (hour - peak) / width;
+        return Math.exp(-distance * distance / 2);
+    }
+
+    /**
+     * Formats one row into {@link #line}, in the file's layout or a random one.
+     *
+     * @param sensorId the sensor column including its leading comma, or {@code null}
+     * @return the length of the row including its newline
+     */
+    private int format(LocalDateTime timestamp, int carsCount, byte[] sensorId) {
+        Layout layout = options.allFormats ? LAYOUTS[random.nextInt(LAYOUTS.length)] : Layout.ISO_T_SECONDS;
+        long day = timestamp.toLocalDate().toEpochDay();
+        if (day != formattedDay) {
+            for (Layout each : LAYOUTS) {
+                formattedDates[each.ordinal()] = each.formatDate(timestamp.toLocalDate());
+            }
+            formattedDay = day;
+        }
+
+        byte[] date = formattedDates[layout.ordinal()];
+        System.arraycopy(date, 0, line, 0, date.length);
+        int pos = date.length;
+        line[pos++] = layout.dateTimeSeparator;
+        pos = twoDigits(timestamp.getHour(), pos);
+        line[pos++] = ':';
+        pos = twoDigits(timestamp.getMinute(), pos);
+        if (layout.withSeconds) {
+            line[pos++] = ':';
+            pos = twoDigits(timestamp.getSecond(), pos);
+        }
+        line[pos++] = ',';
+        byte[] count = Integer.toString(carsCount).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(count, 0, line, pos, count.length);
+        pos += count.length;
+        if (sensorId != null) {
+            System.arraycopy(sensorId, 0, line, pos, sensorId.length);
+            pos += sensorId.length;
+        }
+        line[pos++] = '\n';
+        return pos;
+    }
+
+    private int twoDigits(int value, int pos) {
+        line[pos] = (byte) ('0' + value / 10);
+        line[pos + 1] = (byte) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    /**
+     * The timestamp layouts the readers accept.
+     */
+    enum Layout {
+        ISO_T_SECONDS("yyyy-MM-dd", 'T', true),
+        ISO_SECONDS("yyyy-MM-dd", ' ', true),
+        ISO_MINUTES("yyyy-MM-dd", ' ', false),
+        US_SECONDS("MM/dd/yyyy", ' ', true),
+        US_MINUTES("MM/dd/yyyy", ' ', false);
+
+        private final DateTimeFormatter dateFormatter;
+        private final byte dateTimeSeparator;
+        private final boolean withSeconds;
+
+        Layout(String datePattern, char dateTimeSeparator, boolean withSeconds) {
+            this.dateFormatter = DateTimeFormatter.ofPattern(datePattern);
+            this.dateTimeSeparator = (byte) dateTimeSeparator;
+            this.withSeconds = withSeconds;
+        }
+
+        byte[] formatDate(LocalDate date) {
+            return dateFormatter.format(date).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    static class Stats {
+        long rows;
+        long bytes;
+        long missingRows;
+        long delayedRows;
+        long malformedLines;
+    }
+
+    static class Options {
+        Path output;
+        long size = 1L << 30;
+        long rows;
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        Duration interval = Duration.ofMinutes(1);
+        boolean allFormats = true;
+        double gapRate = 0.02;
+        double outOfOrderRate = 0.001;
+        int malformed = 5;
+        int sensors;
+        long seed = 1;
+
+        static Options parse(String[] args) {
+            List<String> unknown = new ArrayList<>();
+            Map<String, String> values = CommandLineOptions.parse(args, List.of(
+                    "output", "size", "rows", "start", "interval", "formats",
+                    "gap-rate", "out-of-order-rate", "malformed", "sensors", "seed"), unknown);
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException("Unknown arguments: " + unknown);
+            }
+            Options options = new Options();
+            String output = values.get("output");
+            if (output == null) {
+                throw new IllegalArgumentException("--output=PATH is required");
+            }
+            options.output = Path.of(output);
+            if (values.containsKey("size")) {
+                options.size = CommandLineOptions.parseBytes(values.get("size"));
+            }
+            if (values.containsKey("rows")) {
+                options.rows = Long.parseLong(values.get("rows"));
+            }
+            if (values.containsKey("start")) {
+                options.start = LocalDateTime.parse(values.get("start"));
+            }
+            if (values.containsKey("interval")) {
+                options.interval = Duration.parse(values.get("interval"));
+            }
+            if (values.containsKey("formats")) {
+                String formats = values.get("formats");
+                if (!formats.equals("all") && !formats.equals("iso")) {
+                    throw new IllegalArgumentException("--formats must be iso or all: " + formats);
+                }
+                options.allFormats = formats.equals("all");
+            }
+            if (values.containsKey("gap-rate")) {
+                options.gapRate = Double.parseDouble(values.get("gap-rate"));
+            }
+            if (values.containsKey("out-of-order-rate")) {
+                options.outOfOrderRate = Double.parseDouble(values.get("out-of-order-rate"));
+            }
+            if (values.containsKey("malformed")) {
+                options.malformed = Integer.parseInt(values.get("malformed"));
+            }
+            if (values.containsKey("sensors")) {
+                options.sensors = Integer.parseInt(values.get("sensors"));
+                if (options.sensors < 0 || options.sensors > 9999) {
+                    throw new IllegalArgumentException("--sensors must be between 0 and 9999: " + options.sensors);
+                }
+            }
+            if (values.containsKey("seed")) {
+                options.seed = Long.parseLong(values.get("seed"));
+            }
+            if (options.interval.isNegative() || options.interval.toSeconds() == 0) {
+                throw new IllegalArgumentException("--interval must be at least one second: " + options.interval);
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.seek.traffic.benchmark;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic traffic for the benchmarks: one record per half
+ * hour from {@link #START} with pseudo-random car counts, so every run of a
+ * benchmark sees the same data.
+ */
+final class TrafficDatasets {
+
+    static final LocalDateTime START = LocalDateTime.of(2021, 12, 1, 0, 0);
+
+    private static final long SEED = 20211201L;
+    private static final int MINUTES_PER_RECORD = 30;
+    private static final int MAX_CARS = 100;
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private TrafficDatasets() {
+    }
+
+    static int[] epochMinutes(int rows) {
+        int start = (int) (START.toEpochSecond(ZoneOffset.UTC) / 60);
+        int[] minutes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            minutes[i] = start + i * MINUTES_PER_RECORD;
+        }
+        return minutes;
+    }
+
+    static int[] carsCounts(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] counts = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            counts[i] = random.nextInt(MAX_CARS);
+        }
+        return counts;
+    }
+
+    /**
+     * Shuffles both columns the same way, so records arrive out of timestamp order.
+     */
+    static void shuffle(int[] minutes, int[] counts) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        for (int i = minutes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            swap(minutes, i, j);
+            swap(counts, i, j);
+        }
+    }
+
+    static TrafficAggregate aggregate(int[] minutes, int[] counts) {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        aggregate.getTimeline().reserve(minutes.length);
+        aggregate.acceptAll(minutes, counts, minutes.length);
+        return aggregate;
+    }
+
+    /**
+     * Writes {@code rows} records in the application's CSV layout to a temporary file.
+     */
+    static Path writeCsv(int rows) throws IOException {
+        Path csv = Files.createTempFile("traffic-benchmark-", ".csv");
+        int[] counts = carsCounts(rows);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("timestamp,cars_count\n");
+            LocalDateTime timestamp = START;
+            for (int i = 0; i < rows; i++) {
+                writer.write(CSV_TIMESTAMP.format(timestamp));
+                writer.write(',');
+                writer.write(Integer.toString(counts[i]));
+                writer.write('\n');
+                timestamp = timestamp.plusMinutes(MINUTES_PER_RECORD);
+            }
+        }
+        return csv;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
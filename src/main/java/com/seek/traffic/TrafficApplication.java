@@ -5,12 +5,20 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.boot.CommandLineRunner;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.watch.TrafficDirectoryWatcher;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Comparator;
+
 /**
  * Main Spring Boot application class for Traffic Data Analysis System.
  * 
@@ -26,25 +34,69 @@ public class TrafficApplication implements CommandLineRunner {
     @Autowired
     private JobLauncher jobLauncher;
     
+    @Autowired
+    private JobRepository jobRepository;
+    
     @Autowired
     private Job trafficDataAnalysisJob;  // This should match your job bean name from BatchConfig
     
+    @Autowired
+    private TrafficProperties trafficProperties;
+    
+    @Autowired
+    private ObjectProvider<TrafficDirectoryWatcher> trafficDirectoryWatcher;  // Only created when traffic.watch.enabled is set
+    
     public static void main(String[] args) {
         SpringApplication.run(TrafficApplication.class, args);
     }
     
     @Override
     public void run(String... args) throws Exception {
+        if (trafficProperties.getWatch().isEnabled()) {
+            System.out.println("Watching " + trafficProperties.getWatch().getDirectory() + " for traffic data...");
+            trafficDirectoryWatcher.getObject().run();
+            return;
+        }
+        
         System.out.println("Starting traffic data analysis...");
         
-        JobExecution execution = jobLauncher.run(
-            trafficDataAnalysisJob, 
-            new JobParametersBuilder()
-                .addLong("timestamp", System.currentTimeMillis())
-                .toJobParameters()
-        );
+        JobExecution execution = jobLauncher.run(trafficDataAnalysisJob, jobParameters());
         
         System.out.println("Job Status: " + execution.getStatus());
         System.out.println("Job completed successfully!");
     }
-}
\ No newline at end of file
+    
+    /**
+     * Parameters of the last execution if it failed on the same input, so the
+     * launcher restarts it from its last checkpoint; new parameters otherwise.
+     */
+    private JobParameters jobParameters() {
+        String input = inputDescription();
+        
+        if (trafficProperties.getRepository().isRestartFailed() && trafficDataAnalysisJob.isRestartable()) {
+            JobExecution lastExecution = jobRepository.findJobInstancesByName(trafficDataAnalysisJob.getName(), 0, 1).stream()
+                .flatMap(instance -> jobRepository.findJobExecutions(instance).stream())
+                .max(Comparator.comparing(JobExecution::getId))
+                .orElse(null);
+            if (lastExecution != null
+                    && (lastExecution.getStatus() == BatchStatus.FAILED || lastExecution.getStatus() == BatchStatus.STOPPED)
+                    && input.equals(lastExecution.getJobParameters().getString("input"))) {
+                System.out.println("Restarting failed job execution " + lastExecution.getId() + " for " + input);
+                return lastExecution.getJobParameters();
+            }
+        }
+        
+        return new JobParametersBuilder()
+            .addString("input", input)
+            .addLong("timestamp", System.currentTimeMillis())
+            .toJobParameters();
+    }
+    
+    private String inputDescription() {
+        TrafficProperties.IngestionMode mode = trafficProperties.getIngestion().getMode();
+        if (mode == TrafficProperties.IngestionMode.PARTITIONED || mode == TrafficProperties.IngestionMode.MULTI_FILE) {
+            return trafficProperties.getIngestion().getFiles();
+        }
+        return trafficProperties.getInput().getDescription();
+    }
+}
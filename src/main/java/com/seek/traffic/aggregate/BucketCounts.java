@@ -0,0 +1,190 @@
+package com.seek.traffic.aggregate;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Totals per bucket number (an epoch day, a half-hour slot, ...) in
+ * fixed-size segments of {@value #SEGMENT_SIZE} consecutive buckets, each a
+ * primitive {@code long} array. Only segments holding a bucket with a total
+ * exist, so memory follows the buckets seen rather than the span between the
+ * first and the last: a single outlier years away costs one more segment.
+ * A bit per bucket records whether anything was added to it, so empty
+ * buckets can be told apart from buckets totalling 0.
+ *
+ * Segments are kept sorted by segment number in a primitive {@code long}
+ * array with a parallel array of the segments, so looking one up is a binary
+ * search that boxes nothing. Consecutive adds usually fall in the same
+ * segment, which is remembered so they skip the lookup altogether.
+ *
+ * Not thread-safe.
+ */
+class BucketCounts {
+
+    private static final int SEGMENT_BITS = 8;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private static final int INITIAL_SEGMENTS = 4;
+
+    private long[] segmentNumbers = new long[INITIAL_SEGMENTS];
+    private Segment[] segments = new Segment[INITIAL_SEGMENTS];
+    private int segmentCount;
+    private long lastSegmentNumber;
+    private Segment lastSegment;
+    private int size;
+
+    /**
+     * Receives one bucket and its total.
+     */
+    @FunctionalInterface
+    interface BucketConsumer {
+        void accept(long bucket, long total);
+    }
+
+    private static final class Segment {
+        final long[] counts = new long[SEGMENT_SIZE];
+        final long[] present = new long[SEGMENT_SIZE / Long.SIZE];
+
+        boolean isPresent(int index) {
+            return (present[index >>> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * @return whether the bucket was empty before
+         */
+        boolean markPresent(int index) {
+            long word = present[index >>> 6];
+            long bit = 1L << index;
+            present[index >>> 6] = word | bit;
+            return (word & bit) == 0;
+        }
+
+        /**
+         * Index of the first bucket with a total at or after {@code from}, or -1.
+         */
+        int next(int from) {
+            int w = from >>> 6;
+            if (w >= present.length) {
+                return -1;
+            }
+            long bits = present[w] & (-1L << from);
+            while (bits == 0) {
+                if (++w == present.length) {
+                    return -1;
+                }
+                bits = present[w];
+            }
+            return w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        }
+    }
+
+    void add(long bucket, long amount) {
+        Segment segment = segmentFor(bucket >> SEGMENT_BITS);
+        int index = (int) (bucket & SEGMENT_MASK);
+        segment.counts[index] += amount;
+        if (segment.markPresent(index)) {
+            size++;
+        }
+    }
+
+    void addAll(BucketCounts other) {
+        for (int s = 0; s < other.segmentCount; s++) {
+            Segment from = other.segments[s];
+            Segment to = segmentFor(other.segmentNumbers[s]);
+            for (int i = from.next(0); i >= 0; i = from.next(i + 1)) {
+                to.counts[i] += from.counts[i];
+                if (to.markPresent(i)) {
+                    size++;
+                }
+            }
+        }
+    }
+
+    long get(long bucket) {
+        Segment segment = findSegment(bucket >> SEGMENT_BITS);
+        return segment == null ? 0 : segment.counts[(int) (bucket & SEGMENT_MASK)];
+    }
+
+    boolean contains(long bucket) {
+        Segment segment = findSegment(bucket >> SEGMENT_BITS);
+        return segment != null && segment.isPresent((int) (bucket & SEGMENT_MASK));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every bucket with a total, lowest first.
+     */
+    void forEach(BucketConsumer consumer) {
+        for (int s = 0; s < segmentCount; s++) {
+            long firstBucket = segmentNumbers[s] << SEGMENT_BITS;
+            Segment segment = segments[s];
+            for (int i = segment.next(0); i >= 0; i = segment.next(i + 1)) {
+                consumer.accept(firstBucket + i, segment.counts[i]);
+            }
+        }
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int s = 0; s < segmentCount; s++) {
+            long firstBucket = segmentNumbers[s] << SEGMENT_BITS;
+            Segment segment = segments[s];
+            for (int i = segment.next(0); i >= 0; i = segment.next(i + 1)) {
+                out.writeLong(firstBucket + i);
+                out.writeLong(segment.counts[i]);
+            }
+        }
+    }
+
+    void readFrom(DataInput in) throws IOException {
+        int buckets = in.readInt();
+        for (int i = 0; i < buckets; i++) {
+            add(in.readLong(), in.readLong());
+        }
+    }
+
+    void clear() {
+        Arrays.fill(segments, 0, segmentCount, null);
+        segmentCount = 0;
+        lastSegment = null;
+        size = 0;
+    }
+
+    private Segment segmentFor(long segmentNumber) {
+        if (lastSegment == null || segmentNumber != lastSegmentNumber) {
+            int position = Arrays.binarySearch(segmentNumbers, 0, segmentCount, segmentNumber);
+            lastSegment = position >= 0 ? segments[position] : insertSegment(-position - 1, segmentNumber);
+            lastSegmentNumber = segmentNumber;
+        }
+        return lastSegment;
+    }
+
+    private Segment findSegment(long segmentNumber) {
+        int position = Arrays.binarySearch(segmentNumbers, 0, segmentCount, segmentNumber);
+        return position >= 0 ? segments[position] : null;
+    }
+
+    private Segment insertSegment(int position, long segmentNumber) {
+        if (segmentCount == segmentNumbers.length) {
+            segmentNumbers = Arrays.copyOf(segmentNumbers, segmentCount * 2);
+            segments = Arrays.copyOf(segments, segmentCount * 2);
+        }
+        System.arraycopy(segmentNumbers, position, segmentNumbers, position + 1, segmentCount - position);
+        System.arraycopy(segments, position, segments, position + 1, segmentCount - position);
+        Segment segment = new Segment();
+        segmentNumbers[position] = segmentNumber;
+        segments[position] = segment;
+        segmentCount++;
+        return segment;
+    }
+}
@@ -0,0 +1,125 @@
+package com.seek.traffic.aggregate;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Cars per day, held in primitive {@code long} arrays indexed by epoch day.
+ * Adding a record is usually an array update, with no hashing or boxing, and
+ * only stretches of days with records take memory. Days are visited in date
+ * order without sorting.
+ *
+ * Not thread-safe; each writer thread keeps its own instance and instances
+ * are combined with {@link #addAll(DailyCarsCounts)}.
+ */
+public class DailyCarsCounts {
+
+    private final BucketCounts counts = new BucketCounts();
+
+    /**
+     * Receives one day and its total.
+     */
+    @FunctionalInterface
+    public interface DayTotalConsumer {
+        void accept(LocalDate date, long totalCars);
+    }
+
+    public void add(long epochDay, long cars) {
+        counts.add(epochDay, cars);
+    }
+
+    public void add(LocalDate date, long cars) {
+        add(date.toEpochDay(), cars);
+    }
+
+    public void addAll(DailyCarsCounts other) {
+        counts.addAll(other.counts);
+    }
+
+    /**
+     * Total for {@code date}, or 0 if no record fell on it.
+     */
+    public long get(LocalDate date) {
+        return counts.get(date.toEpochDay());
+    }
+
+    public boolean contains(LocalDate date) {
+        return counts.contains(date.toEpochDay());
+    }
+
+    /**
+     * Number of days with at least one record.
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    /**
+     * Visits every day with at least one record, earliest first.
+     */
+    public void forEach(DayTotalConsumer consumer) {
+        counts.forEach((epochDay, totalCars) -> consumer.accept(LocalDate.ofEpochDay(epochDay), totalCars));
+    }
+
+    /**
+     * Writes the days with records as (epoch day, total) pairs.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        counts.writeTo(out);
+    }
+
+    public static DailyCarsCounts readFrom(DataInput in) throws IOException {
+        DailyCarsCounts dailyCarsCounts = new DailyCarsCounts();
+        dailyCarsCounts.counts.readFrom(in);
+        return dailyCarsCounts;
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DailyCarsCounts other) || size() != other.size()) {
+            return false;
+        }
+        boolean[] equal = {true};
+        counts.forEach((epochDay, totalCars) -> {
+            if (!other.counts.contains(epochDay) || other.counts.get(epochDay) != totalCars) {
+                equal[0] = false;
+            }
+        });
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {1};
+        counts.forEach((epochDay, totalCars) -> {
+            hash[0] = 31 * hash[0] + Long.hashCode(epochDay);
+            hash[0] = 31 * hash[0] + Long.hashCode(totalCars);
+        });
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        forEach((date, totalCars) -> {
+            if (text.length() > 1) {
+                text.append(", ");
+            }
+            text.append(date).append('=').append(totalCars);
+        });
+        return text.append('}').toString();
+    }
+}
@@ -0,0 +1,267 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+import com.seek.traffic.model.TopHalfHour;
+import com.seek.traffic.model.TrafficWindow;
+import com.seek.traffic.model.WindowExtremes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cars per half-hour slot, filled in during ingestion, with prefix sums over
+ * the slots built on the first query after a change. A record falls in the
+ * slot its timestamp starts, so {@code 07:00} and {@code 07:10} share the
+ * {@code 07:00} slot.
+ *
+ * The prefix sums only cover slots with records, so they are sized by the
+ * number of recorded half-hours, not by the span from the first to the last;
+ * an outlier timestamp years away adds one entry. The total between any two
+ * times is two binary searches, and the quietest and busiest windows of
+ * several lengths come out of one linear scan; no raw records are revisited
+ * or sorted. Windows only count where every slot they span has at least one
+ * record, so gaps in the data never look quiet.
+ *
+ * Not thread-safe: queries build the prefix sums, so they must not overlap
+ * with each other or with writes. Each writer thread keeps its own index and
+ * indexes are combined with {@link #addAll(HalfHourSlotIndex)}. A
+ * {@link #readOnlyCopy()} has its prefix sums built up front and can be
+ * queried from any number of threads once safely published.
+ */
+public class HalfHourSlotIndex {
+
+    public static final int SLOT_MINUTES = 30;
+
+    private final BucketCounts slots = new BucketCounts();
+    private PrefixSums prefixSums;
+    private boolean readOnly;
+
+    /**
+     * The slots with records in ascending order, and the cumulative cars of
+     * the first {@code i} of them at index {@code i}.
+     */
+    private record PrefixSums(long[] slots, long[] cars) {
+
+        int length() {
+            return slots.length;
+        }
+
+        /**
+         * Index of the first recorded slot at or after {@code slot}.
+         */
+        int indexOf(long slot) {
+            int index = Arrays.binarySearch(slots, slot);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    public void add(int epochMinute, long cars) {
+        checkWritable();
+        slots.add(Math.floorDiv(epochMinute, SLOT_MINUTES), cars);
+        prefixSums = null;
+    }
+
+    public void addAll(HalfHourSlotIndex other) {
+        checkWritable();
+        slots.addAll(other.slots);
+        prefixSums = null;
+    }
+
+    public HalfHourSlotIndex copy() {
+        HalfHourSlotIndex copy = new HalfHourSlotIndex();
+        copy.addAll(this);
+        return copy;
+    }
+
+    /**
+     * A copy with its prefix sums already built, which rejects writes, so
+     * queries only read it.
+     */
+    public HalfHourSlotIndex readOnlyCopy() {
+        HalfHourSlotIndex copy = copy();
+        copy.prefixSums();
+        copy.readOnly = true;
+        return copy;
+    }
+
+    /**
+     * Number of slots with at least one record.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    /**
+     * Cars in the slots starting at or after {@code from} and before {@code to}.
+     */
+    public long totalBetween(LocalDateTime from, LocalDateTime to) {
+        PrefixSums sums = prefixSums();
+        if (sums == null) {
+            return 0;
+        }
+        int start = sums.indexOf(slotAtOrAfter(from));
+        int end = sums.indexOf(slotAtOrAfter(to));
+        return end <= start ? 0 : sums.cars()[end] - sums.cars()[start];
+    }
+
+    /**
+     * The {@code count} slots with the most cars, most first; the earliest
+     * wins ties. Totals beyond {@code Integer.MAX_VALUE} are capped.
+     */
+    public List<TopHalfHour> busiestSlots(int count) {
+        TopKHalfHours busiest = new TopKHalfHours(count);
+        slots.forEach((slot, total) -> busiest.offer(
+                Math.toIntExact(slot * SLOT_MINUTES), (int) Math.min(Integer.MAX_VALUE, total)));
+        return busiest.toList();
+    }
+
+    /**
+     * The window of {@code slotCount} consecutive, fully recorded slots with
+     * the fewest cars, reported by its first slot; the earliest wins ties.
+     */
+    public Optional<LeastTrafficPeriod> quietestWindow(int slotCount) {
+        TrafficWindow quietest = windowExtremes(slotCount).get(0).getQuietest();
+        return Optional.ofNullable(quietest).map(window -> LeastTrafficPeriod.builder()
+                .startTimestamp(window.getStartTimestamp())
+                .totalCars((int) window.getTotalCars())
+                .build());
+    }
+
+    /**
+     * The quietest and busiest fully recorded window of each of the given
+     * lengths, in the order given, found together in one pass over the
+     * slots; the earliest window wins ties.
+     */
+    public List<WindowExtremes> windowExtremes(int... slotCounts) {
+        for (int slotCount : slotCounts) {
+            if (slotCount <= 0) {
+                throw new IllegalArgumentException("Window must span at least one slot: " + slotCount);
+            }
+        }
+
+        int windows = slotCounts.length;
+        long[] leastCars = new long[windows];
+        long[] mostCars = new long[windows];
+        int[] leastStart = new int[windows];
+        int[] mostStart = new int[windows];
+        Arrays.fill(leastCars, Long.MAX_VALUE);
+        Arrays.fill(mostCars, Long.MIN_VALUE);
+        Arrays.fill(leastStart, -1);
+        Arrays.fill(mostStart, -1);
+
+        PrefixSums sums = prefixSums();
+        if (sums != null) {
+            long[] slots = sums.slots();
+            long[] cars = sums.cars();
+            for (int end = 1; end <= sums.length(); end++) {
+                for (int w = 0; w < windows; w++) {
+                    int start = end - slotCounts[w];
+                    // Consecutive recorded slots are a window without gaps
+                    if (start < 0 || slots[end - 1] - slots[start] != slotCounts[w] - 1) {
+                        continue;
+                    }
+                    long windowCars = cars[end] - cars[start];
+                    if (windowCars < leastCars[w]) {
+                        leastCars[w] = windowCars;
+                        leastStart[w] = start;
+                    }
+                    if (windowCars > mostCars[w]) {
+                        mostCars[w] = windowCars;
+                        mostStart[w] = start;
+                    }
+                }
+            }
+        }
+
+        List<WindowExtremes> extremes = new ArrayList<>(windows);
+        for (int w = 0; w < windows; w++) {
+            extremes.add(WindowExtremes.builder()
+                    .length(Duration.ofMinutes((long) slotCounts[w] * SLOT_MINUTES))
+                    .quietest(window(sums, leastStart[w], leastCars[w]))
+                    .busiest(window(sums, mostStart[w], mostCars[w]))
+                    .build());
+        }
+        return extremes;
+    }
+
+    /**
+     * Number of slots spanned by a window of {@code length}.
+     *
+     * @throws IllegalArgumentException unless the length is a positive number of whole slots
+     */
+    public static int slotsIn(Duration length) {
+        if (length.isNegative() || length.isZero() || length.toSeconds() % (SLOT_MINUTES * 60) != 0) {
+            throw new IllegalArgumentException("Window length must be a positive multiple of "
+                    + SLOT_MINUTES + " minutes: " + length);
+        }
+        return Math.toIntExact(length.toMinutes() / SLOT_MINUTES);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        slots.writeTo(out);
+    }
+
+    public static HalfHourSlotIndex readFrom(DataInput in) throws IOException {
+        HalfHourSlotIndex index = new HalfHourSlotIndex();
+        index.slots.readFrom(in);
+        return index;
+    }
+
+    public void clear() {
+        checkWritable();
+        slots.clear();
+        prefixSums = null;
+    }
+
+    static long slotAtOrAfter(LocalDateTime time) {
+        long epochMinute = Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+        return Math.floorDiv(epochMinute + SLOT_MINUTES - 1, SLOT_MINUTES);
+    }
+
+    static LocalDateTime slotStart(long slot) {
+        return LocalDateTime.ofEpochSecond(slot * SLOT_MINUTES * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static TrafficWindow window(PrefixSums sums, int start, long totalCars) {
+        if (start < 0) {
+            return null;
+        }
+        return TrafficWindow.builder()
+                .startTimestamp(slotStart(sums.slots()[start]))
+                .totalCars(totalCars)
+                .build();
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Read-only slot index");
+        }
+    }
+
+    private PrefixSums prefixSums() {
+        if (prefixSums == null && !slots.isEmpty()) {
+            long[] present = new long[slots.size()];
+            long[] cars = new long[present.length + 1];
+            int[] next = new int[1];
+            slots.forEach((slot, total) -> {
+                int i = next[0]++;
+                present[i] = slot;
+                cars[i + 1] = cars[i] + total;
+            });
+            prefixSums = new PrefixSums(present, cars);
+        }
+        return prefixSums;
+    }
+}
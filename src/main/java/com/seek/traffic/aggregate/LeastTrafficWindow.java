@@ -0,0 +1,276 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Single-pass sliding window over consecutive records that finds the window
+ * with the fewest cars. A running sum is kept over a ring of the last
+ * {@code windowSize} records, so each record costs O(1) and nothing is
+ * allocated per window.
+ *
+ * The result is only meaningful if records were offered in timestamp order;
+ * {@link #isOrdered()} reports whether that held, and callers fall back to
+ * {@link #scan(TrafficColumns, int)} over sorted columns otherwise. Ties keep
+ * the earliest window, and a window is reported by its middle record.
+ *
+ * Windows built over consecutive slices of the input can be combined with
+ * {@link #merge(LeastTrafficWindow)}: the first {@code windowSize - 1}
+ * records of each slice are retained so the windows spanning the boundary
+ * can be evaluated.
+ */
+public class LeastTrafficWindow implements TrafficRecordSink {
+
+    public static final int DEFAULT_WINDOW_SIZE = 3;
+
+    private final int windowSize;
+
+    private final int[] headMinutes;
+    private final int[] headCounts;
+    private int headSize;
+
+    private final int[] ringMinutes;
+    private final int[] ringCounts;
+    private long records;
+    private long windowSum;
+
+    private boolean ordered = true;
+    private int firstMinute;
+    private int lastMinute;
+
+    private long leastSum = Long.MAX_VALUE;
+    private int leastMinute;
+
+    public LeastTrafficWindow() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public LeastTrafficWindow(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.headMinutes = new int[windowSize - 1];
+        this.headCounts = new int[windowSize - 1];
+        this.ringMinutes = new int[windowSize];
+        this.ringCounts = new int[windowSize];
+    }
+
+    /**
+     * Evaluates every window of {@code windowSize} consecutive rows of
+     * already sorted columns.
+     */
+    public static LeastTrafficWindow scan(TrafficColumns columns, int windowSize) {
+        LeastTrafficWindow window = new LeastTrafficWindow(windowSize);
+        for (int i = 0; i < columns.size(); i++) {
+            window.offer(columns.epochMinute(i), columns.carsCount(i));
+        }
+        return window;
+    }
+
+    /**
+     * The quietest run of {@code windowSize} consecutive, fully recorded
+     * half-hour slots, reported by its middle slot like a window of records:
+     * the fallback for out-of-order records when no raw timeline is kept.
+     */
+    public static Optional<LeastTrafficPeriod> fromSlots(HalfHourSlotIndex slotIndex, int windowSize) {
+        return slotIndex.quietestWindow(windowSize)
+                .map(period -> LeastTrafficPeriod.builder()
+                        .startTimestamp(period.getStartTimestamp()
+                                .plusMinutes((long) HalfHourSlotIndex.SLOT_MINUTES * (windowSize / 2)))
+                        .totalCars(period.getTotalCars())
+                        .build());
+    }
+
+    @Override
+    public void accept(long epochSecond, int carsCount) {
+        offer(TrafficColumnStore.toEpochMinute(epochSecond), carsCount);
+    }
+
+    public synchronized void offer(int epochMinute, int carsCount) {
+        offerLocked(epochMinute, carsCount);
+    }
+
+    /**
+     * Offers the first {@code length} rows of the given columns under a single
+     * lock acquisition.
+     */
+    public synchronized void offerAll(int[] epochMinutes, int[] carsCounts, int length) {
+        for (int i = 0; i < length; i++) {
+            offerLocked(epochMinutes[i], carsCounts[i]);
+        }
+    }
+
+    private void offerLocked(int epochMinute, int carsCount) {
+        if (records == 0) {
+            firstMinute = epochMinute;
+        } else if (epochMinute < lastMinute) {
+            ordered = false;
+        }
+        lastMinute = epochMinute;
+
+        if (headSize < headCounts.length) {
+            headMinutes[headSize] = epochMinute;
+            headCounts[headSize] = carsCount;
+            headSize++;
+        }
+
+        int slot = (int) (records % windowSize);
+        if (records >= windowSize) {
+            windowSum -= ringCounts[slot];
+        }
+        windowSum += carsCount;
+        ringMinutes[slot] = epochMinute;
+        ringCounts[slot] = carsCount;
+        records++;
+
+        if (records >= windowSize && windowSum < leastSum) {
+            leastSum = windowSum;
+            leastMinute = ringMinutes[(int) ((records + windowSize / 2) % windowSize)];
+        }
+    }
+
+    /**
+     * Appends {@code other}, which must cover the records that follow this
+     * window's, as if its records had been offered here directly.
+     */
+    public void merge(LeastTrafficWindow other) {
+        if (other.windowSize != windowSize) {
+            throw new IllegalArgumentException("Cannot merge window of size " + other.windowSize
+                    + " into window of size " + windowSize);
+        }
+        synchronized (this) {
+            synchronized (other) {
+                mergeLocked(other);
+            }
+        }
+    }
+
+    private void mergeLocked(LeastTrafficWindow other) {
+        if (other.records == 0) {
+            return;
+        }
+        boolean orderedAcross = records == 0 || lastMinute <= other.firstMinute;
+
+        // Windows that end inside other's head span the boundary
+        for (int i = 0; i < other.headSize; i++) {
+            offerLocked(other.headMinutes[i], other.headCounts[i]);
+        }
+        long replayed = other.headSize;
+
+        if (other.leastSum < leastSum) {
+            leastSum = other.leastSum;
+            leastMinute = other.leastMinute;
+        }
+
+        if (other.records > replayed) {
+            // Continue from other's last full window
+            long base = records - replayed;
+            for (long k = other.records - windowSize; k < other.records; k++) {
+                int from = (int) (k % windowSize);
+                int to = (int) ((base + k) % windowSize);
+                ringMinutes[to] = other.ringMinutes[from];
+                ringCounts[to] = other.ringCounts[from];
+            }
+            records = base + other.records;
+            windowSum = other.windowSum;
+            lastMinute = other.lastMinute;
+        }
+
+        ordered = ordered && other.ordered && orderedAcross;
+    }
+
+    /**
+     * Whether every record so far arrived in timestamp order.
+     */
+    public synchronized boolean isOrdered() {
+        return ordered;
+    }
+
+    public synchronized long size() {
+        return records;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * The least busy window, or empty until {@code windowSize} records were seen.
+     */
+    public synchronized Optional<LeastTrafficPeriod> result() {
+        if (records < windowSize) {
+            return Optional.empty();
+        }
+        return Optional.of(LeastTrafficPeriod.builder()
+                .startTimestamp(LocalDateTime.ofEpochSecond(leastMinute * 60L, 0, ZoneOffset.UTC))
+                .totalCars((int) leastSum)
+                .build());
+    }
+
+    /**
+     * Writes the state needed to resume: the head, the last full window and
+     * the least window so far.
+     */
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(windowSize);
+        out.writeLong(records);
+        out.writeBoolean(ordered);
+        out.writeInt(firstMinute);
+        out.writeInt(lastMinute);
+        out.writeLong(leastSum);
+        out.writeInt(leastMinute);
+
+        out.writeInt(headSize);
+        for (int i = 0; i < headSize; i++) {
+            out.writeInt(headMinutes[i]);
+            out.writeInt(headCounts[i]);
+        }
+
+        long retained = Math.min(records, windowSize);
+        for (long k = records - retained; k < records; k++) {
+            int slot = (int) (k % windowSize);
+            out.writeInt(ringMinutes[slot]);
+            out.writeInt(ringCounts[slot]);
+        }
+    }
+
+    public static LeastTrafficWindow readFrom(DataInput in) throws IOException {
+        LeastTrafficWindow window = new LeastTrafficWindow(in.readInt());
+        window.records = in.readLong();
+        window.ordered = in.readBoolean();
+        window.firstMinute = in.readInt();
+        window.lastMinute = in.readInt();
+        window.leastSum = in.readLong();
+        window.leastMinute = in.readInt();
+
+        window.headSize = in.readInt();
+        for (int i = 0; i < window.headSize; i++) {
+            window.headMinutes[i] = in.readInt();
+            window.headCounts[i] = in.readInt();
+        }
+
+        long retained = Math.min(window.records, window.windowSize);
+        for (long k = window.records - retained; k < window.records; k++) {
+            int slot = (int) (k % window.windowSize);
+            window.ringMinutes[slot] = in.readInt();
+            window.ringCounts[slot] = in.readInt();
+            window.windowSum += window.ringCounts[slot];
+        }
+        return window;
+    }
+
+    public synchronized void clear() {
+        headSize = 0;
+        records = 0;
+        windowSum = 0;
+        ordered = true;
+        leastSum = Long.MAX_VALUE;
+    }
+}
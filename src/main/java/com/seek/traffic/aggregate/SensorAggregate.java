@@ -0,0 +1,113 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+import com.seek.traffic.model.TopHalfHour;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Single-writer aggregate of the rows counted by one sensor: daily totals,
+ * half-hour slot totals, the busiest half-hours and the least busy window.
+ * Unlike {@link TrafficAggregate} it keeps no raw timeline, so a sensor row
+ * costs a few counter updates and no storage beyond the network timeline.
+ *
+ * The least busy window is tracked over the sensor's rows as they arrive.
+ * Without a timeline it cannot be rescanned in timestamp order, so if the
+ * sensor's rows arrived out of order the quietest run of
+ * {@value LeastTrafficWindow#DEFAULT_WINDOW_SIZE} fully recorded half-hours
+ * of the slot index is reported instead, by its middle half-hour.
+ */
+public class SensorAggregate implements TrafficRecordSink {
+
+    private final DailyCarsCounts dailyCarsCounts = new DailyCarsCounts();
+    private final HalfHourSlotIndex slotIndex = new HalfHourSlotIndex();
+    private final TopKHalfHours topHalfHours;
+    private LeastTrafficWindow leastTrafficWindow = new LeastTrafficWindow();
+    private long records;
+    private long totalCars;
+
+    /**
+     * @param topPeriods number of busiest half-hours to retain
+     */
+    public SensorAggregate(int topPeriods) {
+        this.topHalfHours = new TopKHalfHours(topPeriods);
+    }
+
+    @Override
+    public void accept(long epochSecond, int carsCount) {
+        offer(TrafficColumnStore.toEpochMinute(epochSecond), carsCount);
+    }
+
+    public void offer(int epochMinute, int carsCount) {
+        dailyCarsCounts.add(Math.floorDiv(epochMinute, TrafficAggregate.MINUTES_PER_DAY), carsCount);
+        slotIndex.add(epochMinute, carsCount);
+        topHalfHours.offer(epochMinute, carsCount);
+        leastTrafficWindow.offer(epochMinute, carsCount);
+        records++;
+        totalCars += carsCount;
+    }
+
+    /**
+     * Folds in {@code other}, which should cover the sensor's rows that
+     * followed this aggregate's for the least busy window to stay ordered.
+     */
+    public void merge(SensorAggregate other) {
+        dailyCarsCounts.addAll(other.dailyCarsCounts);
+        slotIndex.addAll(other.slotIndex);
+        topHalfHours.merge(other.topHalfHours);
+        leastTrafficWindow.merge(other.leastTrafficWindow);
+        records += other.records;
+        totalCars += other.totalCars;
+    }
+
+    public DailyCarsCounts getDailyCarsCounts() {
+        return dailyCarsCounts;
+    }
+
+    public HalfHourSlotIndex getSlotIndex() {
+        return slotIndex;
+    }
+
+    public List<TopHalfHour> getTopHalfHours() {
+        return topHalfHours.toList();
+    }
+
+    public Optional<LeastTrafficPeriod> getLeastTrafficPeriod() {
+        if (leastTrafficWindow.isOrdered()) {
+            return leastTrafficWindow.result();
+        }
+        return LeastTrafficWindow.fromSlots(slotIndex, leastTrafficWindow.getWindowSize());
+    }
+
+    public long size() {
+        return records;
+    }
+
+    public long totalCars() {
+        return totalCars;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(records);
+        out.writeLong(totalCars);
+        dailyCarsCounts.writeTo(out);
+        slotIndex.writeTo(out);
+        topHalfHours.writeTo(out);
+        leastTrafficWindow.writeTo(out);
+    }
+
+    public static SensorAggregate readFrom(DataInput in, int topPeriods) throws IOException {
+        SensorAggregate aggregate = new SensorAggregate(topPeriods);
+        aggregate.records = in.readLong();
+        aggregate.totalCars = in.readLong();
+        aggregate.dailyCarsCounts.addAll(DailyCarsCounts.readFrom(in));
+        aggregate.slotIndex.addAll(HalfHourSlotIndex.readFrom(in));
+        aggregate.topHalfHours.merge(TopKHalfHours.readFrom(in, topPeriods));
+        aggregate.leastTrafficWindow = LeastTrafficWindow.readFrom(in);
+        return aggregate;
+    }
+}
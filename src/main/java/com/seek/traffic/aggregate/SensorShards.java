@@ -0,0 +1,168 @@
+package com.seek.traffic.aggregate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aggregates the rows of named sensors on worker threads, each owning the
+ * {@link SensorAggregate}s of the sensors whose id hashes to it, so a single
+ * reading thread is not left to update every sensor as well as the network.
+ * Rows are handed over in batches of {@value #BATCH_SIZE} through bounded
+ * queues, so memory stays fixed however large the input is, and a sensor's
+ * rows reach its worker in the order they were accepted.
+ *
+ * Accept rows from one thread, then {@link #finish()} to collect the
+ * aggregates. A worker failure is rethrown by {@code finish()}; closing stops
+ * the workers if the reader gives up first.
+ */
+public class SensorShards implements AutoCloseable {
+
+    static final int BATCH_SIZE = 4096;
+    private static final int BATCHES_PER_SHARD = 4;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final Shard[] shards;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param shardCount number of worker threads
+     * @param topPeriods number of busiest half-hours each sensor retains
+     */
+    public SensorShards(int shardCount, int topPeriods) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Number of shards must be positive: " + shardCount);
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(topPeriods);
+        }
+    }
+
+    /**
+     * Queues a row for the worker owning {@code sensorId}, waiting if that
+     * worker is behind by a full queue of batches.
+     */
+    public void accept(int epochMinute, int carsCount, String sensorId) throws InterruptedException {
+        Shard shard = shards[(sensorId.hashCode() & Integer.MAX_VALUE) % shards.length];
+        Batch batch = shard.current;
+        if (batch == null) {
+            if (failure != null) {
+                throw failure;
+            }
+            batch = shard.free.take();
+            shard.current = batch;
+        }
+        batch.add(epochMinute, carsCount, sensorId);
+        if (batch.length == BATCH_SIZE) {
+            shard.filled.put(batch);
+            shard.current = null;
+        }
+    }
+
+    /**
+     * Hands over the remaining rows and waits for the workers to aggregate them.
+     *
+     * @return the aggregate of every sensor seen, by sensor id
+     */
+    public Map<String, SensorAggregate> finish() throws InterruptedException {
+        for (Shard shard : shards) {
+            if (shard.current != null) {
+                shard.filled.put(shard.current);
+                shard.current = null;
+            }
+            shard.filled.put(Batch.END);
+        }
+        Map<String, SensorAggregate> sensors = new HashMap<>();
+        for (Shard shard : shards) {
+            shard.worker.join();
+            sensors.putAll(shard.sensors);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return sensors;
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.worker.interrupt();
+        }
+    }
+
+    private final class Shard {
+        final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(BATCHES_PER_SHARD);
+        // One more slot than batches, so the end marker never waits for the worker
+        final BlockingQueue<Batch> filled = new ArrayBlockingQueue<>(BATCHES_PER_SHARD + 1);
+        final Map<String, SensorAggregate> sensors = new HashMap<>();
+        final int topPeriods;
+        final Thread worker;
+        Batch current;
+
+        Shard(int topPeriods) {
+            this.topPeriods = topPeriods;
+            for (int i = 0; i < BATCHES_PER_SHARD; i++) {
+                free.add(new Batch(BATCH_SIZE));
+            }
+            worker = new Thread(this::aggregate, "traffic-sensor-shard-" + THREAD_COUNT.incrementAndGet());
+            // A reader that stops early must not leave the JVM waiting for the workers
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        private void aggregate() {
+            String lastSensorId = null;
+            SensorAggregate lastSensor = null;
+            try {
+                for (Batch batch = filled.take(); batch != Batch.END; batch = filled.take()) {
+                    // After a failure keep returning batches, so the reader is not left waiting
+                    if (failure == null) {
+                        try {
+                            for (int i = 0; i < batch.length; i++) {
+                                // Rows of one sensor usually come together
+                                if (!batch.sensorIds[i].equals(lastSensorId)) {
+                                    lastSensorId = batch.sensorIds[i];
+                                    lastSensor = sensors.computeIfAbsent(lastSensorId,
+                                            id -> new SensorAggregate(topPeriods));
+                                }
+                                lastSensor.offer(batch.epochMinutes[i], batch.carsCounts[i]);
+                            }
+                        } catch (RuntimeException e) {
+                            failure = e;
+                        }
+                    }
+                    batch.length = 0;
+                    free.put(batch);
+                }
+            } catch (InterruptedException e) {
+                // Closed by the reader
+            }
+        }
+    }
+
+    private static final class Batch {
+        static final Batch END = new Batch(0);
+
+        final int[] epochMinutes;
+        final int[] carsCounts;
+        final String[] sensorIds;
+        int length;
+
+        Batch(int capacity) {
+            epochMinutes = new int[capacity];
+            carsCounts = new int[capacity];
+            sensorIds = new String[capacity];
+        }
+
+        void add(int epochMinute, int carsCount, String sensorId) {
+            epochMinutes[length] = epochMinute;
+            carsCounts[length] = carsCount;
+            sensorIds[length] = sensorId;
+            length++;
+        }
+    }
+}
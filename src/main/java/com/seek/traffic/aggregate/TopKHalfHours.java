@@ -0,0 +1,172 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.TopHalfHour;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded top-K of the busiest half-hours, kept as a size-K min-heap of
+ * packed primitive keys so each offer costs at most O(log K) and allocates
+ * nothing.
+ *
+ * Ranking is by car count descending, then by timestamp ascending, so ties
+ * resolve the same way regardless of arrival order or how partial heaps are
+ * merged. Each instance is meant to be written by one thread; the monitor
+ * only guards against concurrent merges and reads, so it is uncontended on
+ * the ingestion path.
+ */
+public class TopKHalfHours {
+
+    private final int capacity;
+    private final long[] heap;
+    private int size;
+
+    public TopKHalfHours(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Top-K capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.heap = new long[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void offer(int epochMinute, int carsCount) {
+        offerKey(pack(epochMinute, carsCount));
+    }
+
+    /**
+     * Offers the first {@code length} rows of the given columns under a single
+     * lock acquisition.
+     */
+    public synchronized void offerAll(int[] epochMinutes, int[] carsCounts, int length) {
+        for (int i = 0; i < length; i++) {
+            offerKey(pack(epochMinutes[i], carsCounts[i]));
+        }
+    }
+
+    /**
+     * Offers every entry of {@code other}; the result is the top-K of the union.
+     */
+    public void merge(TopKHalfHours other) {
+        long[] keys;
+        synchronized (other) {
+            keys = Arrays.copyOf(other.heap, other.size);
+        }
+        synchronized (this) {
+            for (long key : keys) {
+                offerKey(key);
+            }
+        }
+    }
+
+    /**
+     * Retained half-hours, busiest first.
+     */
+    public synchronized List<TopHalfHour> toList() {
+        long[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted);
+
+        List<TopHalfHour> result = new ArrayList<>(size);
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            result.add(TopHalfHour.builder()
+                    .timestamp(LocalDateTime.ofEpochSecond(epochMinute(sorted[i]) * 60L, 0, ZoneOffset.UTC))
+                    .carsCount(carsCount(sorted[i]))
+                    .build());
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+    }
+
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(heap[i]);
+        }
+    }
+
+    public static TopKHalfHours readFrom(DataInput in, int capacity) throws IOException {
+        TopKHalfHours topK = new TopKHalfHours(capacity);
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            topK.offerKey(in.readLong());
+        }
+        return topK;
+    }
+
+    /**
+     * Packs a half-hour into a key whose natural order is its rank: the count
+     * in the high word, and the timestamp inverted in the low word so that an
+     * earlier timestamp ranks higher.
+     */
+    static long pack(int epochMinute, int carsCount) {
+        long unsignedMinute = (epochMinute ^ Integer.MIN_VALUE) & 0xFFFF_FFFFL;
+        return ((long) carsCount << 32) | (0xFFFF_FFFFL - unsignedMinute);
+    }
+
+    static int carsCount(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int epochMinute(long key) {
+        long unsignedMinute = 0xFFFF_FFFFL - (key & 0xFFFF_FFFFL);
+        return (int) unsignedMinute ^ Integer.MIN_VALUE;
+    }
+
+    private void offerKey(long key) {
+        if (size < capacity) {
+            heap[size] = key;
+            siftUp(size++);
+        } else if (key > heap[0]) {
+            heap[0] = key;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private void siftDown(int index) {
+        long key = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right] < heap[child]) {
+                child = right;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
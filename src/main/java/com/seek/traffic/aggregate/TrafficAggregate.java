@@ -0,0 +1,305 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+import com.seek.traffic.model.TopHalfHour;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Single-writer partial aggregate over a slice of the input: daily totals,
+ * the busiest half-hours, the least busy window and the raw timeline in
+ * arrival order. Partials built on different threads are combined with
+ * {@link #merge(TrafficAggregate)}.
+ *
+ * Rows from named sensors are also counted in a {@link SensorAggregate} per
+ * sensor, so the same partial answers for the whole network and for each
+ * sensor. Sensors keep no timeline of their own; the network timeline holds
+ * every row once. Network-wide results are always over the individual rows,
+ * whether or not they name sensors. Merging partials merges their sensors
+ * one by one.
+ */
+public class TrafficAggregate implements TrafficRecordSink {
+
+    public static final int DEFAULT_TOP_PERIODS = 3;
+    private static final int SECONDS_PER_DAY = 86_400;
+    static final int MINUTES_PER_DAY = 1_440;
+    private static final int SNAPSHOT_VERSION = 4;
+
+    private DailyCarsCounts dailyCarsCounts = new DailyCarsCounts();
+    private HalfHourSlotIndex slotIndex = new HalfHourSlotIndex();
+    private TopKHalfHours topHalfHours;
+    private final TrafficColumnStore timeline = new TrafficColumnStore();
+    private LeastTrafficWindow leastTrafficWindow = new LeastTrafficWindow();
+    private long records;
+    private long totalCars;
+    private final int topPeriods;
+    private final boolean retainTimeline;
+    private final Map<String, SensorAggregate> sensors = new HashMap<>();
+    private String lastSensorId;
+    private SensorAggregate lastSensor;
+
+    public TrafficAggregate() {
+        this(DEFAULT_TOP_PERIODS);
+    }
+
+    /**
+     * @param topPeriods number of busiest half-hours to retain
+     */
+    public TrafficAggregate(int topPeriods) {
+        this(topPeriods, true);
+    }
+
+    /**
+     * @param topPeriods     number of busiest half-hours to retain
+     * @param retainTimeline whether to keep the raw records; without them, the
+     *                       least busy period of records that arrived out of
+     *                       order comes from the half-hour slots instead
+     */
+    public TrafficAggregate(int topPeriods, boolean retainTimeline) {
+        this.topPeriods = topPeriods;
+        this.retainTimeline = retainTimeline;
+        this.topHalfHours = new TopKHalfHours(topPeriods);
+    }
+
+    @Override
+    public void accept(long epochSecond, int carsCount) {
+        dailyCarsCounts.add(Math.floorDiv(epochSecond, SECONDS_PER_DAY), carsCount);
+
+        int epochMinute = TrafficColumnStore.toEpochMinute(epochSecond);
+        slotIndex.add(epochMinute, carsCount);
+        topHalfHours.offer(epochMinute, carsCount);
+        if (retainTimeline) {
+            timeline.append(epochMinute, carsCount);
+        }
+        leastTrafficWindow.offer(epochMinute, carsCount);
+        records++;
+        totalCars += carsCount;
+    }
+
+    /**
+     * Counts the row for the whole network and, if it names a sensor, for that sensor.
+     */
+    @Override
+    public void accept(long epochSecond, int carsCount, String sensorId) {
+        accept(epochSecond, carsCount);
+        if (!sensorId.isEmpty()) {
+            sensor(sensorId).accept(epochSecond, carsCount);
+        }
+    }
+
+    /**
+     * Accepts the first {@code length} rows of the given columns, as if each
+     * had been passed to {@link #accept(long, int)} in turn.
+     */
+    public void acceptAll(int[] epochMinutes, int[] carsCounts, int length) {
+        for (int i = 0; i < length; i++) {
+            dailyCarsCounts.add(Math.floorDiv(epochMinutes[i], MINUTES_PER_DAY), carsCounts[i]);
+            slotIndex.add(epochMinutes[i], carsCounts[i]);
+            totalCars += carsCounts[i];
+        }
+        topHalfHours.offerAll(epochMinutes, carsCounts, length);
+        leastTrafficWindow.offerAll(epochMinutes, carsCounts, length);
+        if (retainTimeline) {
+            timeline.appendAll(epochMinutes, carsCounts, length);
+        }
+        records += length;
+    }
+
+    /**
+     * Folds {@code other} into this aggregate. Its timeline is appended after
+     * this one's, so merging partials in input order preserves arrival order.
+     */
+    public void merge(TrafficAggregate other) {
+        dailyCarsCounts.addAll(other.dailyCarsCounts);
+        slotIndex.addAll(other.slotIndex);
+
+        topHalfHours.merge(other.topHalfHours);
+
+        if (retainTimeline) {
+            timeline.appendAll(other.timeline);
+        }
+        leastTrafficWindow.merge(other.leastTrafficWindow);
+        records += other.records;
+        totalCars += other.totalCars;
+
+        mergeSensors(other.sensors);
+    }
+
+    /**
+     * Folds in sensor aggregates built apart from this aggregate's rows, e.g.
+     * on the threads that own each sensor, whose rows this aggregate counted
+     * for the network only.
+     */
+    public void mergeSensors(Map<String, SensorAggregate> others) {
+        others.forEach((sensorId, aggregate) -> sensor(sensorId).merge(aggregate));
+    }
+
+    /**
+     * Aggregate of the rows counted by each named sensor, by sensor id.
+     */
+    public Map<String, SensorAggregate> getSensors() {
+        return Collections.unmodifiableMap(sensors);
+    }
+
+    public boolean hasSensors() {
+        return !sensors.isEmpty();
+    }
+
+    public DailyCarsCounts getDailyCarsCounts() {
+        return dailyCarsCounts;
+    }
+
+    /**
+     * Cars per half-hour slot, for range totals and windows of any length.
+     */
+    public HalfHourSlotIndex getSlotIndex() {
+        return slotIndex;
+    }
+
+    /**
+     * Busiest half-hours retained so far, most cars first.
+     */
+    public List<TopHalfHour> getTopHalfHours() {
+        return topHalfHours.toList();
+    }
+
+    public TopKHalfHours getTopKHalfHours() {
+        return topHalfHours;
+    }
+
+    /**
+     * Least busy window over the records in arrival order.
+     */
+    public LeastTrafficWindow getLeastTrafficWindow() {
+        return leastTrafficWindow;
+    }
+
+    /**
+     * The least busy run of consecutive records by timestamp: tracked as
+     * records stream in, or found by scanning the sorted timeline if they
+     * arrived out of order. Without a timeline, the quietest run of fully
+     * recorded half-hours is reported instead.
+     */
+    public Optional<LeastTrafficPeriod> getLeastTrafficPeriod() {
+        if (leastTrafficWindow.isOrdered()) {
+            return leastTrafficWindow.result();
+        }
+        if (!retainTimeline) {
+            return LeastTrafficWindow.fromSlots(slotIndex, LeastTrafficWindow.DEFAULT_WINDOW_SIZE);
+        }
+        return LeastTrafficWindow.scan(timeline.sortedView(), LeastTrafficWindow.DEFAULT_WINDOW_SIZE).result();
+    }
+
+    /**
+     * Number of records aggregated, including those restored from a snapshot.
+     */
+    public long size() {
+        return records;
+    }
+
+    public long totalCars() {
+        return totalCars;
+    }
+
+    /**
+     * Raw records in arrival order, empty if the timeline is not retained.
+     * Records restored from a snapshot are not part of the timeline.
+     */
+    public TrafficColumnStore getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Replays the timeline in arrival order.
+     */
+    public void forEachRecord(TrafficRecordSink sink) {
+        timeline.arrivalView().forEach(sink);
+    }
+
+    public void clear() {
+        dailyCarsCounts.clear();
+        slotIndex.clear();
+        topHalfHours.clear();
+        timeline.clear();
+        leastTrafficWindow.clear();
+        records = 0;
+        totalCars = 0;
+        sensors.clear();
+        lastSensorId = null;
+        lastSensor = null;
+    }
+
+    /**
+     * Compact binary snapshot of everything but the timeline: daily and
+     * half-hour slot totals, the top-K heap and the least-traffic window
+     * state, then the same for each sensor. Its size depends on the time
+     * span covered, K and the number of sensors, not on the number of records.
+     */
+    public byte[] toSnapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(records);
+            out.writeLong(totalCars);
+            dailyCarsCounts.writeTo(out);
+            slotIndex.writeTo(out);
+            topHalfHours.writeTo(out);
+            leastTrafficWindow.writeTo(out);
+            out.writeInt(sensors.size());
+            for (Map.Entry<String, SensorAggregate> sensor : sensors.entrySet()) {
+                out.writeUTF(sensor.getKey());
+                sensor.getValue().writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write aggregate snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Rebuilds an aggregate from {@link #toSnapshot()}; records accepted
+     * afterwards continue the restored state as if nothing had happened.
+     */
+    public static TrafficAggregate fromSnapshot(byte[] snapshot, int topPeriods) {
+        TrafficAggregate aggregate = new TrafficAggregate(topPeriods);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("Unsupported aggregate snapshot version: " + version);
+            }
+            aggregate.records = in.readLong();
+            aggregate.totalCars = in.readLong();
+            aggregate.dailyCarsCounts = DailyCarsCounts.readFrom(in);
+            aggregate.slotIndex = HalfHourSlotIndex.readFrom(in);
+            aggregate.topHalfHours = TopKHalfHours.readFrom(in, topPeriods);
+            aggregate.leastTrafficWindow = LeastTrafficWindow.readFrom(in);
+            int sensorCount = in.readInt();
+            for (int i = 0; i < sensorCount; i++) {
+                String sensorId = in.readUTF();
+                aggregate.sensors.put(sensorId, SensorAggregate.readFrom(in, topPeriods));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read aggregate snapshot", e);
+        }
+        return aggregate;
+    }
+
+    private SensorAggregate sensor(String sensorId) {
+        // Rows of one sensor usually come together
+        if (!sensorId.equals(lastSensorId)) {
+            lastSensor = sensors.computeIfAbsent(sensorId, id -> new SensorAggregate(topPeriods));
+            lastSensorId = sensorId;
+        }
+        return lastSensor;
+    }
+}
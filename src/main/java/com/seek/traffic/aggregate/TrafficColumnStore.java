@@ -0,0 +1,175 @@
+package com.seek.traffic.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Growable store of traffic records as two primitive columns: the timestamp
+ * as minutes since the epoch (as if UTC) and the car count, 8 bytes per row.
+ * Sub-minute precision is dropped since every report is minute-resolution;
+ * timestamps must lie between years 1 and 6053 to fit an {@code int}.
+ *
+ * Appends may come from several threads. {@link #sortedView()} returns a
+ * timestamp-ordered snapshot, stable for equal timestamps, that is cached
+ * until the next append.
+ */
+public class TrafficColumnStore implements TrafficRecordSink {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private int[] epochMinutes = new int[INITIAL_CAPACITY];
+    private int[] carsCounts = new int[INITIAL_CAPACITY];
+    private int size;
+    private boolean ordered = true;
+    private TrafficColumns sortedView;
+
+    @Override
+    public void accept(long epochSecond, int carsCount) {
+        append(toEpochMinute(epochSecond), carsCount);
+    }
+
+    public synchronized void append(int epochMinute, int carsCount) {
+        ensureCapacity(size + 1);
+        if (size > 0 && epochMinute < epochMinutes[size - 1]) {
+            ordered = false;
+        }
+        epochMinutes[size] = epochMinute;
+        carsCounts[size] = carsCount;
+        size++;
+        sortedView = null;
+    }
+
+    /**
+     * Appends every row of {@code other} after the rows already held.
+     */
+    public void appendAll(TrafficColumnStore other) {
+        int[] otherMinutes;
+        int[] otherCounts;
+        int otherSize;
+        boolean otherOrdered;
+        synchronized (other) {
+            otherMinutes = other.epochMinutes;
+            otherCounts = other.carsCounts;
+            otherSize = other.size;
+            otherOrdered = other.ordered;
+        }
+        if (otherSize == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            ensureCapacity(size + otherSize);
+            if (!otherOrdered || size > 0 && otherMinutes[0] < epochMinutes[size - 1]) {
+                ordered = false;
+            }
+            System.arraycopy(otherMinutes, 0, epochMinutes, size, otherSize);
+            System.arraycopy(otherCounts, 0, carsCounts, size, otherSize);
+            size += otherSize;
+            sortedView = null;
+        }
+    }
+
+    /**
+     * Appends the first {@code length} rows of the given columns.
+     */
+    public synchronized void appendAll(int[] minutes, int[] counts, int length) {
+        if (length == 0) {
+            return;
+        }
+        ensureCapacity(size + length);
+        int previous = size > 0 ? epochMinutes[size - 1] : Integer.MIN_VALUE;
+        for (int i = 0; i < length && ordered; i++) {
+            if (minutes[i] < previous) {
+                ordered = false;
+            }
+            previous = minutes[i];
+        }
+        System.arraycopy(minutes, 0, epochMinutes, size, length);
+        System.arraycopy(counts, 0, carsCounts, size, length);
+        size += length;
+        sortedView = null;
+    }
+
+    /**
+     * Grows the columns to hold {@code capacity} rows without further copying.
+     */
+    public synchronized void reserve(int capacity) {
+        if (capacity > epochMinutes.length) {
+            epochMinutes = Arrays.copyOf(epochMinutes, capacity);
+            carsCounts = Arrays.copyOf(carsCounts, capacity);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Rows ordered by timestamp; rows with equal timestamps keep arrival order.
+     */
+    public synchronized TrafficColumns sortedView() {
+        if (sortedView == null) {
+            sortedView = ordered ? copyView() : sortedCopy();
+        }
+        return sortedView;
+    }
+
+    /**
+     * Rows in arrival order.
+     */
+    public synchronized TrafficColumns arrivalView() {
+        return copyView();
+    }
+
+    public synchronized void clear() {
+        epochMinutes = new int[INITIAL_CAPACITY];
+        carsCounts = new int[INITIAL_CAPACITY];
+        size = 0;
+        ordered = true;
+        sortedView = null;
+    }
+
+    /**
+     * Approximate heap retained by the column arrays, for diagnostics.
+     */
+    public synchronized long retainedBytes() {
+        return 2L * epochMinutes.length * Integer.BYTES;
+    }
+
+    public static int toEpochMinute(long epochSecond) {
+        return Math.toIntExact(Math.floorDiv(epochSecond, SECONDS_PER_MINUTE));
+    }
+
+    private TrafficColumns copyView() {
+        return new TrafficColumns(Arrays.copyOf(epochMinutes, size), Arrays.copyOf(carsCounts, size), size);
+    }
+
+    /**
+     * Sorts on a packed (minute, arrival index) key so the primitive sort is
+     * deterministic and equivalent to a stable sort by minute.
+     */
+    private TrafficColumns sortedCopy() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) epochMinutes[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] sortedMinutes = new int[size];
+        int[] sortedCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            int index = (int) keys[i];
+            sortedMinutes[i] = epochMinutes[index];
+            sortedCounts[i] = carsCounts[index];
+        }
+        return new TrafficColumns(sortedMinutes, sortedCounts, size);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > epochMinutes.length) {
+            int capacity = Math.max(required, epochMinutes.length + (epochMinutes.length >> 1));
+            epochMinutes = Arrays.copyOf(epochMinutes, capacity);
+            carsCounts = Arrays.copyOf(carsCounts, capacity);
+        }
+    }
+}
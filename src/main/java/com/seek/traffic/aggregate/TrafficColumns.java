@@ -0,0 +1,69 @@
+package com.seek.traffic.aggregate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Read-only view over traffic records held as parallel primitive columns:
+ * epoch minutes of the local timestamp and car counts.
+ */
+public final class TrafficColumns {
+
+    private static final TrafficColumns EMPTY = new TrafficColumns(new int[0], new int[0], 0);
+
+    private final int[] epochMinutes;
+    private final int[] carsCounts;
+    private final int size;
+
+    TrafficColumns(int[] epochMinutes, int[] carsCounts, int size) {
+        this.epochMinutes = epochMinutes;
+        this.carsCounts = carsCounts;
+        this.size = size;
+    }
+
+    public static TrafficColumns empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int epochMinute(int index) {
+        checkIndex(index);
+        return epochMinutes[index];
+    }
+
+    public int carsCount(int index) {
+        checkIndex(index);
+        return carsCounts[index];
+    }
+
+    public LocalDateTime timestamp(int index) {
+        return LocalDateTime.ofEpochSecond(epochMinute(index) * 60L, 0, ZoneOffset.UTC);
+    }
+
+    public long totalCars() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += carsCounts[i];
+        }
+        return total;
+    }
+
+    public void forEach(TrafficRecordSink sink) {
+        for (int i = 0; i < size; i++) {
+            sink.accept(epochMinutes[i] * 60L, carsCounts[i]);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
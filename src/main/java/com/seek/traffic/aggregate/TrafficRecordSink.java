@@ -0,0 +1,24 @@
+package com.seek.traffic.aggregate;
+
+/**
+ * Receives decoded traffic rows as primitives.
+ */
+@FunctionalInterface
+public interface TrafficRecordSink {
+
+    /**
+     * @param epochSecond local date-time of the row as seconds since the epoch (UTC offset)
+     * @param carsCount   non-negative number of cars seen in the half hour
+     */
+    void accept(long epochSecond, int carsCount);
+
+    /**
+     * Receives a row counted by a named sensor. Sinks that do not track
+     * sensors take it as a row of the whole network.
+     *
+     * @param sensorId sensor that counted the row, or an empty string if the input names none
+     */
+    default void accept(long epochSecond, int carsCount, String sensorId) {
+        accept(epochSecond, carsCount);
+    }
+}
@@ -0,0 +1,140 @@
+package com.seek.traffic.api;
+
+import com.seek.traffic.aggregate.HalfHourSlotIndex;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.model.TopHalfHour;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-only HTTP queries over the aggregates held by {@link TrafficDataProcessor},
+ * each answered from one immutable {@link TrafficDataProcessor.QuerySnapshot}
+ * so they are safe while watch mode merges new data. Bodies come
+ * pre-serialised from {@link TrafficResponseCache} and carry the snapshot's
+ * data version as entity tag, so a poll with {@code If-None-Match} is
+ * answered with 304 until new data is ingested. While a chunk step is
+ * processing items every query is answered with 503.
+ */
+@RestController
+@RequestMapping("/api/traffic")
+@RequiredArgsConstructor
+public class TrafficQueryController {
+
+    private final TrafficDataProcessor processor;
+    private final TrafficResponseCache cache;
+
+    public record TotalCars(long totalCars) {
+    }
+
+    public record DailyTotal(LocalDate date, long totalCars) {
+    }
+
+    public record HalfHourTotal(LocalDateTime timestamp, int carsCount) {
+    }
+
+    public record WindowTotal(LocalDateTime startTimestamp, int totalCars) {
+    }
+
+    public record RangeTotal(LocalDateTime from, LocalDateTime to, long totalCars) {
+    }
+
+    @GetMapping("/total")
+    public ResponseEntity<byte[]> total() {
+        return respond("total", snapshot -> new TotalCars(snapshot.totalCars()));
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<byte[]> daily() {
+        return respond("daily", snapshot -> {
+            List<DailyTotal> days = new ArrayList<>();
+            snapshot.dailyCarsCounts().forEach((date, totalCars) -> days.add(new DailyTotal(date, totalCars)));
+            return days;
+        });
+    }
+
+    /**
+     * Busiest half-hours, most cars first. At most {@code traffic.report.top-periods}
+     * are tracked, so larger limits return that many.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<byte[]> top(@RequestParam(required = false) Integer limit) {
+        int tracked = processor.getTopPeriods();
+        int count = limit == null ? tracked : Math.min(limit, tracked);
+        if (count <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return respond("top:" + count, snapshot -> snapshot.topHalfHours().stream()
+                .limit(count)
+                .map(TrafficQueryController::toHalfHourTotal)
+                .toList());
+    }
+
+    @GetMapping("/least-window")
+    public ResponseEntity<byte[]> leastWindow() {
+        return respond("least-window", snapshot -> snapshot.leastTrafficPeriod()
+                .map(period -> new WindowTotal(period.getStartTimestamp(), period.getTotalCars()))
+                .orElse(null));
+    }
+
+    /**
+     * Cars in the half-hour slots starting in {@code [from, to)}, e.g.
+     * {@code ?from=2021-12-05T07:00&to=2021-12-05T09:30}.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<byte[]> range(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        return respond("range:" + from + "/" + to,
+                snapshot -> new RangeTotal(from, to, snapshot.slotIndex().totalBetween(from, to)));
+    }
+
+    /**
+     * Quietest window of {@code minutes} (a multiple of 30) over fully
+     * recorded half-hour slots, reported by its start.
+     */
+    @GetMapping("/quietest")
+    public ResponseEntity<byte[]> quietest(@RequestParam int minutes) {
+        if (minutes <= 0 || minutes % HalfHourSlotIndex.SLOT_MINUTES != 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "minutes must be a positive multiple of " + HalfHourSlotIndex.SLOT_MINUTES);
+        }
+        return respond("quietest:" + minutes, snapshot -> snapshot.slotIndex()
+                .quietestWindow(minutes / HalfHourSlotIndex.SLOT_MINUTES)
+                .map(period -> new WindowTotal(period.getStartTimestamp(), period.getTotalCars()))
+                .orElse(null));
+    }
+
+    private ResponseEntity<byte[]> respond(String key, Function<TrafficDataProcessor.QuerySnapshot, ?> body) {
+        TrafficResponseCache.CachedResponse response = cache.get(key, body)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Traffic data is being ingested"));
+        if (response.body() == null) {
+            return ResponseEntity.notFound().eTag(response.eTag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(response.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
+    }
+
+    private static HalfHourTotal toHalfHourTotal(TopHalfHour halfHour) {
+        return new HalfHourTotal(halfHour.getTimestamp(), halfHour.getCarsCount());
+    }
+}
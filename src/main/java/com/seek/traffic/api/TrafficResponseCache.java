@@ -0,0 +1,90 @@
+package com.seek.traffic.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Serialised query responses, valid for one {@link TrafficDataProcessor.DataVersion}.
+ * A request only compares the current data version with the cached one; the
+ * aggregates are read and serialised once per endpoint and version, and the
+ * whole cache is dropped as soon as new data is ingested.
+ *
+ * Bodies are computed from one {@link TrafficDataProcessor.QuerySnapshot}
+ * and tagged with that snapshot's version, so a response never mixes data
+ * versions or carries the tag of a version its body does not show. While a
+ * chunk step is processing items there is no snapshot, and no response.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrafficResponseCache {
+
+    // Bounds the entries kept for parameterised queries such as time ranges
+    private static final int MAX_ENTRIES = 1024;
+
+    private final TrafficDataProcessor processor;
+    private final ObjectMapper objectMapper;
+
+    private volatile Entries entries = new Entries(null);
+
+    /**
+     * Response body and entity tag of a cached query; the body is {@code null}
+     * when the query has no result for this data version.
+     */
+    public record CachedResponse(byte[] body, String eTag) {
+    }
+
+    private record Entries(TrafficDataProcessor.DataVersion version, Map<String, CachedResponse> responses) {
+        Entries(TrafficDataProcessor.DataVersion version) {
+            this(version, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the cached response for {@code key}, computing and serialising
+     * {@code body} from the current snapshot if the data changed since it was cached.
+     *
+     * @return empty while a chunk step is processing items
+     */
+    public Optional<CachedResponse> get(String key, Function<TrafficDataProcessor.QuerySnapshot, ?> body) {
+        return processor.getQuerySnapshot().map(snapshot -> get(key, body, snapshot));
+    }
+
+    private CachedResponse get(String key, Function<TrafficDataProcessor.QuerySnapshot, ?> body,
+                               TrafficDataProcessor.QuerySnapshot snapshot) {
+        TrafficDataProcessor.DataVersion version = snapshot.version();
+        Entries current = entries;
+        if (!version.equals(current.version())) {
+            log.debug("Traffic data changed to version {}, dropping {} cached responses", version,
+                    current.responses().size());
+            current = new Entries(version);
+            entries = current;
+        }
+        CachedResponse cached = current.responses().get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (current.responses().size() >= MAX_ENTRIES) {
+            return serialise(body.apply(snapshot), version);
+        }
+        return current.responses().computeIfAbsent(key, k -> serialise(body.apply(snapshot), version));
+    }
+
+    private CachedResponse serialise(Object body, TrafficDataProcessor.DataVersion version) {
+        try {
+            byte[] bytes = body == null ? null : objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(bytes, "\"" + version + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise traffic query response", e);
+        }
+    }
+}
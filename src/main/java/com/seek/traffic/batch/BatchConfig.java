@@ -1,55 +1,318 @@
 package com.seek.traffic.batch;
 
+import com.seek.traffic.config.TrafficProperties;
 import com.seek.traffic.model.TrafficData;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.MultiResourcePartitioner;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(TrafficProperties.class)
 @RequiredArgsConstructor
 public class BatchConfig {
 
     private static final String JOB_NAME = "trafficDataAnalysisJob";
     private static final String STEP_NAME = "trafficDataProcessingStep";
+    private static final String PARALLEL_CHUNK_STEP_NAME = "parallelChunkIngestionStep";
+    private static final String STREAMING_INGESTION_STEP_NAME = "streamingIngestionStep";
+    private static final String MAPPED_INGESTION_STEP_NAME = "mappedIngestionStep";
+    private static final String COLUMNAR_INGESTION_STEP_NAME = "columnarIngestionStep";
+    private static final String MULTI_FILE_INGESTION_STEP_NAME = "multiFileIngestionStep";
+    private static final String PARTITIONED_INGESTION_STEP_NAME = "partitionedIngestionStep";
+    private static final String PARTITION_WORKER_STEP_NAME = "partitionWorkerStep";
+    private static final String PARTITION_MERGE_STEP_NAME = "partitionMergeStep";
+    private static final String REPORT_STEP_NAME = "trafficReportStep";
     private static final int CHUNK_SIZE = 100;
+    static final int SKIP_LIMIT = 10;
 
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
+    private final TrafficProperties trafficProperties;
     private final TrafficDataReader trafficDataReader;
+    private final FastTrafficDataReader fastTrafficDataReader;
+    private final ColumnarTrafficDataReader columnarTrafficDataReader;
     private final TrafficDataProcessor trafficDataProcessor;
-    private final TrafficDataWriter trafficDataWriter;
+    private final StreamingIngestionTasklet streamingIngestionTasklet;
+    private final MappedIngestionTasklet mappedIngestionTasklet;
+    private final ColumnarIngestionTasklet columnarIngestionTasklet;
+    private final MultiFileIngestionTasklet multiFileIngestionTasklet;
+    private final PartitionIngestionTasklet partitionIngestionTasklet;
+    private final PartitionAggregateMerger partitionAggregateMerger;
+    private final TrafficReportTasklet trafficReportTasklet;
+    private final TrafficMetricsListener trafficMetricsListener;
+    private final ResourcePatternResolver resourcePatternResolver;
 
 
     @Bean
     public Job trafficDataAnalysisJob() {
-        log.info("Configuring traffic data analysis job: {}", JOB_NAME);
+        TrafficProperties.IngestionMode mode = trafficProperties.getIngestion().getMode();
+        log.info("Configuring traffic data analysis job: {} ({} ingestion)", JOB_NAME, mode);
 
-        return new JobBuilder(JOB_NAME, jobRepository)
-                .start(trafficDataProcessingStep())
-                .build();
+        // Every mode ingests into aggregates and reports once they are complete.
+        // Only the chunk step checkpoints its aggregates; the other modes keep
+        // them in memory between steps, so a restart would report partial data.
+        return switch (mode) {
+            case CHUNK -> new JobBuilder(JOB_NAME, jobRepository)
+                    .start(trafficDataProcessingStep())
+                    .next(trafficReportStep())
+                    .build();
+            case STREAMING -> new JobBuilder(JOB_NAME, jobRepository)
+                    .preventRestart()
+                    .start(streamingIngestionStep())
+                    .next(trafficReportStep())
+                    .build();
+            case MAPPED -> new JobBuilder(JOB_NAME, jobRepository)
+                    .preventRestart()
+                    .start(mappedIngestionStep())
+                    .next(trafficReportStep())
+                    .build();
+            case PARALLEL_CHUNK -> new JobBuilder(JOB_NAME, jobRepository)
+                    .preventRestart()
+                    .start(parallelChunkIngestionStep())
+                    .next(trafficReportStep())
+                    .build();
+            case PARTITIONED -> new JobBuilder(JOB_NAME, jobRepository)
+                    .preventRestart()
+                    .start(partitionedIngestionStep())
+                    .next(partitionMergeStep())
+                    .next(trafficReportStep())
+                    .build();
+            case COLUMNAR -> new JobBuilder(JOB_NAME, jobRepository)
+                    .preventRestart()
+                    .start(columnarIngestionStep())
+                    .next(trafficReportStep())
+                    .build();
+            case MULTI_FILE -> new JobBuilder(JOB_NAME, jobRepository)
+                    .preventRestart()
+                    .start(multiFileIngestionStep())
+                    .next(trafficReportStep())
+                    .build();
+        };
     }
 
 
+    /**
+     * Chunk step whose output is the processor's aggregates; nothing is
+     * written per chunk. Restarting the job after a failed report runs the
+     * step again, since the aggregates of a completed step are not kept
+     * beyond the process that built them.
+     */
     @Bean
     public Step trafficDataProcessingStep() {
         log.info("Configuring traffic data processing step: {}", STEP_NAME);
 
         return new StepBuilder(STEP_NAME, jobRepository)
                 .<TrafficData, Object>chunk(CHUNK_SIZE, transactionManager)
-                .reader(trafficDataReader)
+                .reader(selectReader())
+                .processor(trafficDataProcessor)
+                .writer(chunk -> { })
+                .allowStartIfComplete(true)
+                .faultTolerant()
+                .skipLimit(SKIP_LIMIT)
+                .skip(Exception.class)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    /**
+     * Chunk step run by {@code traffic.ingestion.threads} threads. Reads are
+     * serialised through a synchronized reader; processing aggregates into
+     * per-thread state, and the report is written by a separate step once all
+     * threads are done. Concurrency is bounded by the ingestion executor's
+     * pool, with one worker per pool thread.
+     */
+    @Bean
+    public Step parallelChunkIngestionStep() {
+        int threads = trafficProperties.getIngestion().resolveThreads();
+        log.info("Configuring parallel chunk ingestion step: {} ({} threads)", PARALLEL_CHUNK_STEP_NAME, threads);
+
+        SynchronizedItemStreamReader<TrafficData> reader = new SynchronizedItemStreamReader<>();
+        reader.setDelegate(selectReader());
+
+        return new StepBuilder(PARALLEL_CHUNK_STEP_NAME, jobRepository)
+                .<TrafficData, Object>chunk(CHUNK_SIZE, transactionManager)
+                .reader(reader)
                 .processor(trafficDataProcessor)
-                .writer(trafficDataWriter)
+                .writer(chunk -> { })
                 .faultTolerant()
-                .skipLimit(10)
+                .skipLimit(SKIP_LIMIT)
                 .skip(Exception.class)
+                .stepOperations(new TaskExecutorStepOperations(ingestionTaskExecutor(), threads))
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public Step streamingIngestionStep() {
+        log.info("Configuring streaming ingestion step: {}", STREAMING_INGESTION_STEP_NAME);
+
+        return new StepBuilder(STREAMING_INGESTION_STEP_NAME, jobRepository)
+                .tasklet(streamingIngestionTasklet, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public Step mappedIngestionStep() {
+        log.info("Configuring mapped ingestion step: {}", MAPPED_INGESTION_STEP_NAME);
+
+        return new StepBuilder(MAPPED_INGESTION_STEP_NAME, jobRepository)
+                .tasklet(mappedIngestionTasklet, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public Step columnarIngestionStep() {
+        log.info("Configuring columnar ingestion step: {}", COLUMNAR_INGESTION_STEP_NAME);
+
+        return new StepBuilder(COLUMNAR_INGESTION_STEP_NAME, jobRepository)
+                .tasklet(columnarIngestionTasklet, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public Step multiFileIngestionStep() {
+        log.info("Configuring multi-file ingestion step: {} ({} executor)",
+                MULTI_FILE_INGESTION_STEP_NAME, trafficProperties.getIngestion().getExecutor());
+
+        return new StepBuilder(MULTI_FILE_INGESTION_STEP_NAME, jobRepository)
+                .tasklet(multiFileIngestionTasklet, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public Step partitionedIngestionStep() {
+        int threads = trafficProperties.getIngestion().resolveThreads();
+        log.info("Configuring partitioned ingestion step: {} ({} threads)", PARTITIONED_INGESTION_STEP_NAME, threads);
+
+        // No metrics listener here: the manager's counts are the sum of its workers', which record their own
+        return new StepBuilder(PARTITIONED_INGESTION_STEP_NAME, jobRepository)
+                .partitioner(PARTITION_WORKER_STEP_NAME, trafficFilePartitioner())
+                .step(partitionWorkerStep())
+                .taskExecutor(ingestionTaskExecutor())
+                .gridSize(threads)
+                .build();
+    }
+
+
+    @Bean
+    public Step partitionWorkerStep() {
+        return new StepBuilder(PARTITION_WORKER_STEP_NAME, jobRepository)
+                .tasklet(partitionIngestionTasklet, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public Step partitionMergeStep() {
+        return new StepBuilder(PARTITION_MERGE_STEP_NAME, jobRepository)
+                .tasklet(partitionAggregateMerger, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
+                .build();
+    }
+
+
+    @Bean
+    public TaskExecutor ingestionTaskExecutor() {
+        int threads = trafficProperties.getIngestion().resolveThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("traffic-ingest-");
+        // Steps wait for their worker threads, so idle pool threads must not keep the JVM alive
+        executor.setDaemon(true);
+        return executor;
+    }
+
+
+    @Bean
+    public Step trafficReportStep() {
+        log.info("Configuring traffic report step: {}", REPORT_STEP_NAME);
+
+        return new StepBuilder(REPORT_STEP_NAME, jobRepository)
+                .tasklet(trafficReportTasklet, transactionManager)
+                .listener((StepExecutionListener) trafficMetricsListener)
                 .build();
     }
-}
\ No newline at end of file
+
+
+    private ItemStreamReader<TrafficData> selectReader() {
+        TrafficProperties.ReaderMode mode = trafficProperties.getReader().getMode();
+        log.info("Using {} reader mode", mode);
+
+        return switch (mode) {
+            case BYTES -> {
+                fastTrafficDataReader.setResource(trafficProperties.getInput());
+                yield fastTrafficDataReader;
+            }
+            case FLAT -> {
+                trafficDataReader.setResource(trafficProperties.getInput());
+                yield trafficDataReader;
+            }
+            case COLUMNAR -> {
+                columnarTrafficDataReader.setResource(trafficProperties.getInput());
+                columnarTrafficDataReader.setColumnFile(Path.of(trafficProperties.getColumnar().getFile()));
+                yield columnarTrafficDataReader;
+            }
+        };
+    }
+
+
+    /**
+     * One partition per file matching {@code traffic.ingestion.files}, resolved
+     * when the step starts and ordered by file name.
+     */
+    private Partitioner trafficFilePartitioner() {
+        return gridSize -> {
+            String pattern = trafficProperties.getIngestion().getFiles();
+            Resource[] files;
+            try {
+                files = resourcePatternResolver.getResources(pattern);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to resolve input files: " + pattern, e);
+            }
+            Arrays.sort(files, Comparator.comparing(Resource::getDescription));
+            log.info("Partitioning {} files matching {}", files.length, pattern);
+
+            MultiResourcePartitioner partitioner = new MultiResourcePartitioner();
+            partitioner.setKeyName(PartitionIngestionTasklet.FILE_NAME_KEY);
+            partitioner.setResources(files);
+            return partitioner.partition(gridSize);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.ingest.TrafficColumnFile;
+import com.seek.traffic.ingest.TrafficColumnFileConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Bulk-loads the binary column file into aggregates, converting the CSV
+ * input first when the column file is missing or out of date, and folds the
+ * result into {@link TrafficDataProcessor}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ColumnarIngestionTasklet implements Tasklet {
+
+    private final TrafficProperties trafficProperties;
+    private final TrafficDataProcessor processor;
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext)
+            throws Exception {
+        Path columnFile = Path.of(trafficProperties.getColumnar().getFile());
+        TrafficColumnFile file = new TrafficColumnFileConverter(BatchConfig.SKIP_LIMIT)
+                .openConverted(trafficProperties.getInput(), columnFile);
+
+        long start = System.nanoTime();
+        TrafficAggregate aggregate = file.load(trafficProperties.getIngestion().resolveThreads(),
+                trafficProperties.getReport().getTopPeriods());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        processor.mergeAggregate(aggregate);
+        chunkContext.getStepContext().getStepExecution().setReadCount(aggregate.size());
+
+        log.info("Loaded {} records from {} in {} ms", aggregate.size(), columnFile, elapsedMillis);
+        return RepeatStatus.FINISHED;
+    }
+}
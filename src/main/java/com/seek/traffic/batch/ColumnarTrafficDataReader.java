@@ -0,0 +1,81 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.ingest.TrafficColumnFile;
+import com.seek.traffic.ingest.TrafficColumnFileConverter;
+import com.seek.traffic.model.TrafficData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads items from a memory-mapped {@link TrafficColumnFile}, converting the
+ * CSV input into it first when the column file is missing or out of date.
+ * Rows are addressed by index, so a restarted step jumps straight to the
+ * saved item count.
+ */
+@Slf4j
+@Component
+public class ColumnarTrafficDataReader extends AbstractItemCountingItemStreamItemReader<TrafficData> {
+
+    private static final String CSV_FILE_PATH = "traffic_data.csv";
+    private static final String COLUMN_FILE_PATH = "traffic_data.tcol";
+
+    private Resource resource = new ClassPathResource(CSV_FILE_PATH);
+    private Path columnFile = Path.of(COLUMN_FILE_PATH);
+    private TrafficColumnFile file;
+    private int row;
+
+    public ColumnarTrafficDataReader() {
+        super();
+        setName("columnarTrafficDataReader");
+    }
+
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    public void setColumnFile(Path columnFile) {
+        this.columnFile = columnFile;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        file = new TrafficColumnFileConverter(BatchConfig.SKIP_LIMIT).openConverted(resource, columnFile);
+        row = 0;
+        log.info("Reading {} rows from {}", file.size(), columnFile);
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) {
+        row = itemIndex;
+    }
+
+    @Override
+    protected TrafficData doRead() {
+        if (file == null) {
+            throw new ItemStreamException("Reader must be open before it can be read");
+        }
+        if (row >= file.size()) {
+            return null;
+        }
+
+        TrafficData item = TrafficData.builder()
+                .timestamp(LocalDateTime.ofEpochSecond(file.epochMinute(row) * 60L, 0, ZoneOffset.UTC))
+                .carsCount(file.carsCount(row))
+                .build();
+        row++;
+        return item;
+    }
+
+    @Override
+    protected void doClose() {
+        file = null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.ingest.MappedTrafficFileIngester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ingests the whole input file in one go with {@link MappedTrafficFileIngester}
+ * and folds the merged result into {@link TrafficDataProcessor}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MappedIngestionTasklet implements Tasklet {
+
+    private final TrafficProperties trafficProperties;
+    private final TrafficDataProcessor processor;
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext)
+            throws Exception {
+        Resource input = trafficProperties.getInput();
+        int threads = trafficProperties.getIngestion().resolveThreads();
+
+        MappedTrafficFileIngester ingester = new MappedTrafficFileIngester(
+                threads, BatchConfig.SKIP_LIMIT, trafficProperties.getReport().getTopPeriods());
+        long start = System.nanoTime();
+        TrafficAggregate aggregate = ingester.ingest(input);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        processor.mergeAggregate(aggregate);
+        chunkContext.getStepContext().getStepExecution().setReadCount(aggregate.size());
+
+        log.info("Ingested {} records from {} in {} ms", aggregate.size(), input.getDescription(), elapsedMillis);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,119 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.ingest.MappedTrafficFileIngester;
+import com.seek.traffic.ingest.MultiFileTrafficIngester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Ingests every file matching {@code traffic.ingestion.files} in one step with
+ * {@link MultiFileTrafficIngester}, on the executor chosen by
+ * {@code traffic.ingestion.executor}, and folds the merged result into
+ * {@link TrafficDataProcessor}.
+ *
+ * A file that fails is logged and left out of the report; the step only
+ * fails when no file could be ingested.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MultiFileIngestionTasklet implements Tasklet {
+
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    private final TrafficProperties trafficProperties;
+    private final TrafficDataProcessor processor;
+    private final ResourcePatternResolver resourcePatternResolver;
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext)
+            throws Exception {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        String pattern = trafficProperties.getIngestion().getFiles();
+        List<Resource> files = List.of(resourcePatternResolver.getResources(pattern));
+
+        MultiFileTrafficIngester.Result result;
+        long start = System.nanoTime();
+        ExecutorService executor = newExecutor(trafficProperties.getIngestion());
+        try {
+            MultiFileTrafficIngester ingester = new MultiFileTrafficIngester(
+                    executor, BatchConfig.SKIP_LIMIT, trafficProperties.getReport().getTopPeriods());
+            result = ingester.ingest(files);
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (result.files() > 0 && result.failures().size() == result.files()) {
+            throw new MappedTrafficFileIngester.TrafficIngestionException(
+                    "None of the " + result.files() + " files matching " + pattern + " could be ingested",
+                    result.failures().get(0).cause());
+        }
+        processor.mergeAggregate(result.aggregate());
+        stepExecution.setReadCount(result.aggregate().size());
+        if (!result.failures().isEmpty()) {
+            contribution.setExitStatus(ExitStatus.COMPLETED.addExitDescription("Files left out: "
+                    + result.failures().stream()
+                    .map(MultiFileTrafficIngester.FileFailure::file)
+                    .collect(Collectors.joining(", "))));
+        }
+
+        log.info("Ingested {} records from {} of {} files matching {} in {} ms",
+                result.aggregate().size(), result.files() - result.failures().size(), result.files(),
+                pattern, elapsedMillis);
+        return RepeatStatus.FINISHED;
+    }
+
+    /**
+     * Virtual threads are requested reflectively since the application is
+     * built for Java 17; on older runtimes the bounded platform pool is used.
+     */
+    static ExecutorService newExecutor(TrafficProperties.Ingestion ingestion) {
+        if (ingestion.getExecutor() == TrafficProperties.ExecutorType.VIRTUAL) {
+            if (Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE) {
+                try {
+                    return (ExecutorService) MethodHandles.publicLookup()
+                            .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                                    MethodType.methodType(ExecutorService.class))
+                            .invoke();
+                } catch (Throwable e) {
+                    log.warn("Virtual threads are unavailable, using platform threads", e);
+                }
+            } else {
+                log.warn("Virtual threads need Java {}, running on {}; using platform threads",
+                        VIRTUAL_THREADS_FEATURE, Runtime.version().feature());
+            }
+        }
+        return Executors.newFixedThreadPool(ingestion.resolveThreads(), platformThreadFactory());
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "traffic-file-" + count.incrementAndGet());
+            // The step waits for every file, so idle pool threads must not keep the JVM alive
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
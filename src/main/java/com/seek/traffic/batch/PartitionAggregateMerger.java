@@ -0,0 +1,51 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Collects the per-file aggregates produced by partition workers and, once
+ * the partitioned step has finished, folds them into
+ * {@link TrafficDataProcessor} in file name order so the report sees the same
+ * state whatever order the workers completed in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionAggregateMerger implements Tasklet {
+
+    private final TrafficDataProcessor processor;
+    private final NavigableMap<String, TrafficAggregate> aggregates = new ConcurrentSkipListMap<>();
+
+    public void register(String fileName, TrafficAggregate aggregate) {
+        if (aggregates.putIfAbsent(fileName, aggregate) != null) {
+            throw new IllegalStateException("Partition for " + fileName + " was already ingested");
+        }
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext) {
+        int partitions = 0;
+        long records = 0;
+        Map.Entry<String, TrafficAggregate> entry;
+        while ((entry = aggregates.pollFirstEntry()) != null) {
+            processor.mergeAggregate(entry.getValue());
+            partitions++;
+            records += entry.getValue().size();
+        }
+
+        log.info("Merged {} records from {} partitions", records, partitions);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,55 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.ingest.MappedTrafficFileIngester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker side of partitioned ingestion: aggregates the single file named in
+ * its step execution context into a private {@link TrafficAggregate} and hands
+ * it to {@link PartitionAggregateMerger}. Workers share no mutable state, so
+ * any number can run at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionIngestionTasklet implements Tasklet {
+
+    static final String FILE_NAME_KEY = "fileName";
+
+    private final TrafficProperties trafficProperties;
+    private final ResourceLoader resourceLoader;
+    private final PartitionAggregateMerger aggregateMerger;
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext)
+            throws Exception {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        String fileName = stepExecution.getExecutionContext().getString(FILE_NAME_KEY);
+        Resource input = resourceLoader.getResource(fileName);
+
+        MappedTrafficFileIngester ingester = new MappedTrafficFileIngester(
+                1, BatchConfig.SKIP_LIMIT, trafficProperties.getReport().getTopPeriods());
+        long start = System.nanoTime();
+        TrafficAggregate aggregate = ingester.ingest(input);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        aggregateMerger.register(fileName, aggregate);
+        stepExecution.setReadCount(aggregate.size());
+
+        log.info("Partition {} ingested {} records from {} in {} ms",
+                stepExecution.getStepName(), aggregate.size(), input.getDescription(), elapsedMillis);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,114 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.aggregate.SensorShards;
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.aggregate.TrafficColumnStore;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.ingest.GzipResource;
+import com.seek.traffic.ingest.TrafficCsvRowReader;
+import com.seek.traffic.parser.TrafficCsvParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobInterruptedException;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Streams the input through {@link TrafficCsvParser} straight into a
+ * {@link TrafficAggregate} in a single pass on one reading thread, then folds it into
+ * {@link TrafficDataProcessor}. Unlike the chunk step there is no
+ * {@code TrafficData} per row, no chunk list and no per-chunk transaction
+ * or listener callbacks.
+ *
+ * With more than one ingestion thread, rows naming a sensor are also handed
+ * to {@link SensorShards}, whose workers aggregate the sensors while this
+ * thread parses and aggregates the network.
+ *
+ * Every {@value #PROGRESS_INTERVAL} rows the read and skip counts are copied
+ * to the step execution and saved to the job repository, which also picks
+ * up a stop request for the job; the step then stops. Malformed lines are
+ * skipped up to the chunk step's skip limit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingIngestionTasklet implements Tasklet {
+
+    static final int PROGRESS_INTERVAL = 1 << 16;
+    private static final int LINES_TO_SKIP = 1; // Skip header row
+
+    private final TrafficProperties trafficProperties;
+    private final TrafficDataProcessor processor;
+    private final JobRepository jobRepository;
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext)
+            throws Exception {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        Resource input = GzipResource.decompressIfGzip(trafficProperties.getInput());
+
+        int topPeriods = trafficProperties.getReport().getTopPeriods();
+        int sensorThreads = trafficProperties.getIngestion().resolveThreads() - 1;
+        TrafficAggregate aggregate = new TrafficAggregate(topPeriods);
+        SensorShards shards = null;
+        long rows = 0;
+        TrafficCsvRowReader reader;
+        long start = System.nanoTime();
+        try (InputStream stream = input.getInputStream();
+             TrafficCsvParser parser = new TrafficCsvParser(stream)) {
+            parser.skipLines(LINES_TO_SKIP);
+            reader = new TrafficCsvRowReader(parser, input.getDescription(), BatchConfig.SKIP_LIMIT);
+            while (reader.next()) {
+                String sensorId = parser.sensorId();
+                if (sensorThreads > 0 && !sensorId.isEmpty()) {
+                    if (shards == null) {
+                        shards = new SensorShards(sensorThreads, topPeriods);
+                    }
+                    aggregate.accept(parser.epochSecond(), parser.carsCount());
+                    shards.accept(TrafficColumnStore.toEpochMinute(parser.epochSecond()), parser.carsCount(), sensorId);
+                } else {
+                    aggregate.accept(parser.epochSecond(), parser.carsCount(), sensorId);
+                }
+
+                if (++rows % PROGRESS_INTERVAL == 0) {
+                    reportProgress(stepExecution, rows, reader.skipped());
+                }
+            }
+            if (shards != null) {
+                aggregate.mergeSensors(shards.finish());
+            }
+        } finally {
+            if (shards != null) {
+                shards.close();
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        processor.mergeAggregate(aggregate);
+        stepExecution.setReadCount(rows);
+        stepExecution.setReadSkipCount(reader.skipped());
+
+        log.info("Streamed {} records from {} in {} ms", rows, input.getDescription(), elapsedMillis);
+        return RepeatStatus.FINISHED;
+    }
+
+    private void reportProgress(StepExecution stepExecution, long rows, int skipped)
+            throws JobInterruptedException {
+        stepExecution.setReadCount(rows);
+        stepExecution.setReadSkipCount(skipped);
+        // Persists the progress, and marks the step to terminate if the job was asked to stop
+        jobRepository.update(stepExecution);
+        if (stepExecution.isTerminateOnly()) {
+            throw new JobInterruptedException("Step " + stepExecution.getStepName() + " stopped after " + rows + " rows");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.seek.traffic.batch;
+
+import org.springframework.batch.repeat.RepeatCallback;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatException;
+import org.springframework.batch.repeat.RepeatOperations;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.support.RepeatSynchronizationManager;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Step operations of a multi-threaded chunk step: a fixed number of workers
+ * on the task executor each run chunks until the input is exhausted, so the
+ * step is as concurrent as the workers and the executor's pool allow. This
+ * replaces the deprecated step throttle limit, which otherwise caps the step
+ * at 4 concurrent chunks however large the pool is.
+ *
+ * The first failure stops the other workers after their current chunk and is
+ * rethrown once all of them have returned.
+ */
+class TaskExecutorStepOperations implements RepeatOperations {
+
+    private final TaskExecutor taskExecutor;
+    private final int workers;
+
+    TaskExecutorStepOperations(TaskExecutor taskExecutor, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        this.taskExecutor = taskExecutor;
+        this.workers = workers;
+    }
+
+    @Override
+    public RepeatStatus iterate(RepeatCallback callback) {
+        RepeatContext context = new RepeatContextSupport(RepeatSynchronizationManager.getContext());
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            taskExecutor.execute(() -> {
+                // Chunk-level repeat templates on this thread look up the step's context
+                RepeatSynchronizationManager.register(context);
+                try {
+                    while (!finished.get() && !context.isCompleteOnly()) {
+                        if (!callback.doInIteration(context).isContinuable()) {
+                            finished.set(true);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    finished.set(true);
+                } finally {
+                    RepeatSynchronizationManager.clear();
+                    done.countDown();
+                }
+            });
+        }
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            finished.set(true);
+            Thread.currentThread().interrupt();
+            throw new RepeatException("Interrupted while waiting for chunk workers", e);
+        }
+        Throwable e = failure.get();
+        if (e == null) {
+            return RepeatStatus.FINISHED;
+        }
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        throw new RepeatException("Exception in chunk worker", e);
+    }
+}
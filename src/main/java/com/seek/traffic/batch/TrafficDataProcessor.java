@@ -1,28 +1,97 @@
 package com.seek.traffic.batch;
 
+import com.seek.traffic.aggregate.DailyCarsCounts;
+import com.seek.traffic.aggregate.HalfHourSlotIndex;
+import com.seek.traffic.aggregate.LeastTrafficWindow;
+import com.seek.traffic.aggregate.SensorAggregate;
+import com.seek.traffic.aggregate.TopKHalfHours;
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.aggregate.TrafficColumnStore;
+import com.seek.traffic.aggregate.TrafficColumns;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.model.LeastTrafficPeriod;
 import com.seek.traffic.model.TopHalfHour;
 import com.seek.traffic.model.TrafficData;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 
+/**
+ * Aggregates processed items into one {@link TrafficAggregate} per processing
+ * thread, so a multi-threaded step shares no counters, heaps or locks between
+ * threads. Partials are combined when the results are read, which must happen
+ * after the step has finished.
+ *
+ * As an {@link ItemStream} it checkpoints a compact snapshot of the aggregates
+ * into the step execution context at every commit, and restores it when a
+ * failed step is restarted. The raw timeline is not checkpointed. The
+ * snapshot grows with the time span covered, so it is only written when the
+ * job repository is persistent and a restart is possible.
+ *
+ * Network-wide results are over the individual records whether or not the
+ * input names sensors; {@link #getSensorAggregates()} gives the state of
+ * each sensor.
+ *
+ * Aggregates merged in with {@link #mergeAggregate(TrafficAggregate)}, e.g.
+ * by watch mode while the API serves requests, are folded in under a lock.
+ * Items processed by a chunk step are not, so from {@link #open} to
+ * {@link #close} concurrent readers get no results. Otherwise they use
+ * {@link #getQuerySnapshot()}, an immutable view built under the lock and
+ * published until the data changes.
+ */
 @Slf4j
 @Component
-@Getter
-public class TrafficDataProcessor implements ItemProcessor<TrafficData, Object> {
+public class TrafficDataProcessor implements ItemProcessor<TrafficData, Object>, ItemStream {
 
-    private final Map<LocalDate, Integer> dailyCarsCount = new ConcurrentHashMap<>();
-    private final PriorityQueue<TopHalfHour> topHalfHours = new PriorityQueue<>(
-            Comparator.comparingInt(TopHalfHour::getCarsCount).reversed());
-    private final List<TrafficData> allTrafficData = new CopyOnWriteArrayList<>();
+    private static final String SNAPSHOT_KEY = "trafficDataProcessor.snapshot";
+
+    private final int topPeriods;
+    private final Queue<TrafficAggregate> partials = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<TrafficAggregate> localPartial = ThreadLocal.withInitial(this::registerPartial);
+    private volatile boolean restored;
+    private volatile boolean processing;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object stateLock = new Object();
+    private volatile VersionedSlotIndex slotIndex;
+    private volatile QuerySnapshot querySnapshot;
+    private final boolean checkpointing;
+    private final boolean retainTimeline;
+
+    public TrafficDataProcessor() {
+        this(TrafficAggregate.DEFAULT_TOP_PERIODS);
+    }
+
+    @Autowired
+    public TrafficDataProcessor(TrafficProperties trafficProperties) {
+        // An in-memory job repository cannot restart, so checkpoints would only cost time.
+        // Watch mode runs indefinitely, so it must not keep every record it ever read.
+        this(trafficProperties.getReport().getTopPeriods(), trafficProperties.getRepository().isPersistent(),
+                !trafficProperties.getWatch().isEnabled());
+    }
+
+    public TrafficDataProcessor(int topPeriods) {
+        this(topPeriods, true, true);
+    }
+
+    private TrafficDataProcessor(int topPeriods, boolean checkpointing, boolean retainTimeline) {
+        if (topPeriods <= 0) {
+            throw new IllegalArgumentException("Number of top periods must be positive: " + topPeriods);
+        }
+        this.topPeriods = topPeriods;
+        this.checkpointing = checkpointing;
+        this.retainTimeline = retainTimeline;
+    }
 
     @Override
     public Object process(@NonNull TrafficData item) throws Exception {
@@ -32,12 +101,9 @@ public class TrafficDataProcessor implements ItemProcessor<TrafficData, Object>
         }
 
         try {
-            updateDailyCarsCount(item);
-            
-            updateTopHalfHours(item);
-            
-            allTrafficData.add(item);
-            
+            String sensorId = item.getSensorId() == null ? "" : item.getSensorId();
+            localPartial.get().accept(item.getTimestamp().toEpochSecond(ZoneOffset.UTC), item.getCarsCount(), sensorId);
+
             log.trace("Processed traffic data: {} cars at {}", 
                 item.getCarsCount(), item.getTimestamp());
             
@@ -50,64 +116,306 @@ public class TrafficDataProcessor implements ItemProcessor<TrafficData, Object>
     }
 
 
-    private void updateDailyCarsCount(TrafficData item) {
-        LocalDate date = item.getTimestamp().toLocalDate();
-        dailyCarsCount.merge(date, item.getCarsCount(), Integer::sum);
-        
-        log.trace("Updated daily count for {}: total now {}", 
-            date, dailyCarsCount.get(date));
+    @Override
+    public void open(@NonNull ExecutionContext executionContext) {
+        processing = true;
+        if (!executionContext.containsKey(SNAPSHOT_KEY)) {
+            return;
+        }
+        TrafficAggregate snapshot = TrafficAggregate.fromSnapshot(
+                (byte[]) executionContext.get(SNAPSHOT_KEY), topPeriods);
+        synchronized (stateLock) {
+            reset();
+            localPartial.get().merge(snapshot);
+            restored = true;
+            generation.incrementAndGet();
+        }
+        log.info("Restored aggregates of {} records from the last checkpoint", snapshot.size());
     }
 
 
-    private void updateTopHalfHours(TrafficData item) {
-        TopHalfHour halfHour = TopHalfHour.builder()
-                .timestamp(item.getTimestamp())
-                .carsCount(item.getCarsCount())
-                .build();
-        
-        synchronized (topHalfHours) {
-            topHalfHours.offer(halfHour);
-            
-            if (topHalfHours.size() > 100) {
-                List<TopHalfHour> topList = new ArrayList<>(topHalfHours);
-                topList.sort(Comparator.comparingInt(TopHalfHour::getCarsCount).reversed());
-                
-                topHalfHours.clear();
-                topHalfHours.addAll(topList.subList(0, Math.min(50, topList.size())));
+    @Override
+    public void update(@NonNull ExecutionContext executionContext) {
+        // Steps processing on several threads are not restartable
+        if (checkpointing && partials.size() == 1) {
+            executionContext.put(SNAPSHOT_KEY, partials.peek().toSnapshot());
+        }
+    }
+
+
+    /**
+     * Ends the chunk step: its threads have finished processing, so queries
+     * may read the aggregates again.
+     */
+    @Override
+    public void close() {
+        synchronized (stateLock) {
+            generation.incrementAndGet();
+            processing = false;
+        }
+    }
+
+
+    private TrafficAggregate registerPartial() {
+        TrafficAggregate partial = new TrafficAggregate(topPeriods, retainTimeline);
+        partials.add(partial);
+        return partial;
+    }
+
+
+    /**
+     * Folds a partial aggregate built outside the chunk step (e.g. by parallel
+     * range ingestion) into this processor's state.
+     */
+    public void mergeAggregate(TrafficAggregate aggregate) {
+        synchronized (stateLock) {
+            localPartial.get().merge(aggregate);
+            generation.incrementAndGet();
+        }
+
+        log.debug("Merged aggregate of {} records", aggregate.size());
+    }
+
+
+    /**
+     * Cars per day across all threads, iterable in date order.
+     */
+    public DailyCarsCounts getDailyCarsCounts() {
+        if (partials.size() == 1) {
+            return partials.peek().getDailyCarsCounts();
+        }
+        DailyCarsCounts dailyCarsCounts = new DailyCarsCounts();
+        partials.forEach(partial -> dailyCarsCounts.addAll(partial.getDailyCarsCounts()));
+        return dailyCarsCounts;
+    }
+
+
+    /**
+     * Cars per half-hour slot across all threads. The combined index is a
+     * read-only copy that is reused, prefix sums included, until the data
+     * changes, so any number of threads may query it.
+     */
+    public HalfHourSlotIndex getSlotIndex() {
+        VersionedSlotIndex cached = slotIndex;
+        if (cached != null && cached.version().equals(getDataVersion())) {
+            return cached.index();
+        }
+        synchronized (stateLock) {
+            DataVersion version = getDataVersion();
+            cached = slotIndex;
+            if (cached == null || !cached.version().equals(version)) {
+                HalfHourSlotIndex combined = new HalfHourSlotIndex();
+                partials.forEach(partial -> combined.addAll(partial.getSlotIndex()));
+                cached = new VersionedSlotIndex(version, combined.readOnlyCopy());
+                slotIndex = cached;
             }
+            return cached.index();
         }
-        
-        log.trace("Added half-hour period: {} cars at {}", 
-            item.getCarsCount(), item.getTimestamp());
     }
 
 
+    /**
+     * Immutable view of the results for the current data version, for
+     * readers running alongside {@link #mergeAggregate(TrafficAggregate)}.
+     * It is built under the merge lock on the first call after the data
+     * changed, then shared by every caller until the next change.
+     *
+     * @return empty while a chunk step is processing items, whose threads
+     * update the aggregates without the lock
+     */
+    public Optional<QuerySnapshot> getQuerySnapshot() {
+        QuerySnapshot snapshot = querySnapshot;
+        // Every change outside a chunk step moves the generation on under the lock
+        if (snapshot != null && snapshot.version().generation() == generation.get() && !processing) {
+            return Optional.of(snapshot);
+        }
+        synchronized (stateLock) {
+            if (processing) {
+                return Optional.empty();
+            }
+            DataVersion version = getDataVersion();
+            snapshot = querySnapshot;
+            if (snapshot == null || !snapshot.version().equals(version)) {
+                DailyCarsCounts dailyCarsCounts = new DailyCarsCounts();
+                partials.forEach(partial -> dailyCarsCounts.addAll(partial.getDailyCarsCounts()));
+                snapshot = new QuerySnapshot(version, getTotalCars(), dailyCarsCounts, getSlotIndex(),
+                        List.copyOf(getTopHalfHours()), getLeastTrafficPeriod());
+                querySnapshot = snapshot;
+            }
+            return Optional.of(snapshot);
+        }
+    }
+
+
+    /**
+     * The {@code topPeriods} busiest half-hours, most cars first; equal counts
+     * are ordered by timestamp.
+     */
     public List<TopHalfHour> getTopHalfHours() {
-        synchronized (topHalfHours) {
-            return topHalfHours.stream()
-                    .sorted(Comparator.comparingInt(TopHalfHour::getCarsCount).reversed())
-                    .toList();
+        TopKHalfHours merged = new TopKHalfHours(topPeriods);
+        partials.forEach(partial -> merged.merge(partial.getTopKHalfHours()));
+        return merged.toList();
+    }
+
+
+    public int getTopPeriods() {
+        return topPeriods;
+    }
+
+
+    public long getTotalCars() {
+        long totalCars = 0;
+        for (TrafficAggregate partial : partials) {
+            totalCars += partial.totalCars();
         }
+        return totalCars;
     }
 
 
-    public List<TrafficData> getAllTrafficData() {
-        return allTrafficData.stream()
-                .sorted(Comparator.comparing(TrafficData::getTimestamp))
+    /**
+     * The least busy run of consecutive records, tracked as records stream in.
+     * The sorted columns are only scanned again if records arrived out of
+     * timestamp order or were spread over several threads. In watch mode no
+     * records are kept, and the quietest run of fully recorded half-hours is
+     * reported instead, by its middle half-hour.
+     */
+    public Optional<LeastTrafficPeriod> getLeastTrafficPeriod() {
+        if (partials.size() == 1 && partials.peek().getLeastTrafficWindow().isOrdered()) {
+            return partials.peek().getLeastTrafficWindow().result();
+        }
+        if (!retainTimeline) {
+            return LeastTrafficWindow.fromSlots(getSlotIndex(), LeastTrafficWindow.DEFAULT_WINDOW_SIZE);
+        }
+        if (restored) {
+            log.warn("Records arrived out of timestamp order across a restart; "
+                    + "the least traffic period only covers records read since the restart");
+        }
+        log.debug("Records not seen in timestamp order by a single thread, rescanning sorted records");
+        return LeastTrafficWindow.scan(getSortedTrafficColumns(), LeastTrafficWindow.DEFAULT_WINDOW_SIZE).result();
+    }
+
+
+    /**
+     * Whether any processed row named a sensor.
+     */
+    public boolean hasSensors() {
+        for (TrafficAggregate partial : partials) {
+            if (partial.hasSensors()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * The aggregate of each sensor, ordered by sensor id. Sensors seen by
+     * several threads are merged in parallel, each sensor on one core, so
+     * the work spreads over all cores however many sensors there are.
+     */
+    public SortedMap<String, SensorAggregate> getSensorAggregates() {
+        if (partials.size() == 1) {
+            return new TreeMap<>(partials.peek().getSensors());
+        }
+        List<String> sensorIds = partials.stream()
+                .flatMap(partial -> partial.getSensors().keySet().stream())
+                .distinct()
                 .toList();
+        Map<String, SensorAggregate> merged = new ConcurrentHashMap<>();
+        sensorIds.parallelStream().forEach(sensorId -> {
+            SensorAggregate sensor = new SensorAggregate(topPeriods);
+            partials.forEach(partial -> {
+                SensorAggregate part = partial.getSensors().get(sensorId);
+                if (part != null) {
+                    sensor.merge(part);
+                }
+            });
+            merged.put(sensorId, sensor);
+        });
+        return new TreeMap<>(merged);
+    }
+
+
+    /**
+     * All processed records as timestamp-ordered primitive columns. After a
+     * restart, only records read since the restart; none in watch mode.
+     */
+    public TrafficColumns getSortedTrafficColumns() {
+        if (partials.size() == 1) {
+            return partials.peek().getTimeline().sortedView();
+        }
+        TrafficColumnStore combined = new TrafficColumnStore();
+        partials.forEach(partial -> combined.appendAll(partial.getTimeline()));
+        return combined.sortedView();
+    }
+
+
+    /**
+     * All processed records ordered by timestamp, materialised as
+     * {@link TrafficData}. Prefer {@link #getSortedTrafficColumns()} on large inputs.
+     */
+    public List<TrafficData> getAllTrafficData() {
+        TrafficColumns columns = getSortedTrafficColumns();
+        List<TrafficData> records = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            records.add(TrafficData.builder()
+                    .timestamp(columns.timestamp(i))
+                    .carsCount(columns.carsCount(i))
+                    .build());
+        }
+        return Collections.unmodifiableList(records);
     }
 
 
     public void reset() {
-        dailyCarsCount.clear();
-        synchronized (topHalfHours) {
-            topHalfHours.clear();
+        synchronized (stateLock) {
+            partials.forEach(TrafficAggregate::clear);
+            restored = false;
+            generation.incrementAndGet();
         }
-        allTrafficData.clear();
         log.debug("Traffic data processor statistics reset");
     }
 
 
+    /**
+     * Identifies the current state of the aggregates: it changes whenever
+     * records are processed or aggregates are merged, restored or reset.
+     * Reading it costs one pass over the per-thread partials. The record
+     * count is only current on the processing thread, or once the chunk step
+     * has closed.
+     */
+    public DataVersion getDataVersion() {
+        long records = 0;
+        for (TrafficAggregate partial : partials) {
+            records += partial.size();
+        }
+        return new DataVersion(generation.get(), records);
+    }
+
+
+    private record VersionedSlotIndex(DataVersion version, HalfHourSlotIndex index) {
+    }
+
+
+    /**
+     * Results of one data version. The daily counts and slot index are
+     * private copies that are only read; the slot index rejects writes.
+     */
+    public record QuerySnapshot(DataVersion version, long totalCars, DailyCarsCounts dailyCarsCounts,
+                                HalfHourSlotIndex slotIndex, List<TopHalfHour> topHalfHours,
+                                Optional<LeastTrafficPeriod> leastTrafficPeriod) {
+    }
+
+
+    public record DataVersion(long generation, long records) {
+
+        @Override
+        public String toString() {
+            return generation + "-" + records;
+        }
+    }
+
+
     public static class TrafficDataProcessingException extends RuntimeException {
         public TrafficDataProcessingException(String message, Throwable cause) {
             super(message, cause);
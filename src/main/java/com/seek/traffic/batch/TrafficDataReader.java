@@ -1,6 +1,8 @@
 package com.seek.traffic.batch;
 
+import com.seek.traffic.ingest.GzipResource;
 import com.seek.traffic.model.TrafficData;
+import com.seek.traffic.parser.FastTimestampParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.LineMapper;
@@ -9,11 +11,12 @@ import org.springframework.batch.item.file.mapping.FieldSetMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.batch.item.file.transform.FieldSet;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindException;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 
@@ -24,13 +27,7 @@ public class TrafficDataReader extends FlatFileItemReader<TrafficData> {
 
     private static final String CSV_FILE_PATH = "traffic_data.csv";
     private static final String[] COLUMN_NAMES = {"timestamp", "cars_count"}; // Changed to match CSV header
-    private static final DateTimeFormatter[] SUPPORTED_FORMATTERS = {
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"), // Added ISO format with 'T'
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
-            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss"),
-            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
-    };
+    private static final String[] SENSOR_COLUMN_NAMES = {"timestamp", "cars_count", "sensor_id"};
 
     public TrafficDataReader() {
         super();
@@ -46,22 +43,55 @@ public class TrafficDataReader extends FlatFileItemReader<TrafficData> {
         setStrict(true); // Fail on parsing errors
     }
 
+    /**
+     * Sets the CSV to read; a {@code .gz} file is decompressed while it is read.
+     */
+    @Override
+    public void setResource(@NonNull Resource resource) {
+        super.setResource(GzipResource.decompressIfGzip(resource));
+    }
+
     private LineMapper<TrafficData> createLineMapper() {
         DefaultLineMapper<TrafficData> lineMapper = new DefaultLineMapper<>();
 
-        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
-        tokenizer.setDelimiter(",");
-        tokenizer.setNames(COLUMN_NAMES);
-        tokenizer.setStrict(true);
-
-        lineMapper.setLineTokenizer(tokenizer);
+        // Rows with a third column name their sensor; both layouts stay strict about extra columns
+        DelimitedLineTokenizer tokenizer = createTokenizer(COLUMN_NAMES);
+        DelimitedLineTokenizer sensorTokenizer = createTokenizer(SENSOR_COLUMN_NAMES);
+        lineMapper.setLineTokenizer(line -> hasThreeColumns(line)
+                ? sensorTokenizer.tokenize(line)
+                : tokenizer.tokenize(line));
         lineMapper.setFieldSetMapper(new TrafficDataFieldSetMapper());
 
         return lineMapper;
     }
 
+    /**
+     * Whether {@code line} has exactly two commas, found without allocating per row.
+     */
+    static boolean hasThreeColumns(String line) {
+        if (line == null) {
+            return false;
+        }
+        int first = line.indexOf(',');
+        if (first < 0) {
+            return false;
+        }
+        int second = line.indexOf(',', first + 1);
+        return second >= 0 && line.indexOf(',', second + 1) < 0;
+    }
+
+    private static DelimitedLineTokenizer createTokenizer(String[] names) {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setDelimiter(",");
+        tokenizer.setNames(names);
+        tokenizer.setStrict(true);
+        return tokenizer;
+    }
+
     private static class TrafficDataFieldSetMapper implements FieldSetMapper<TrafficData> {
 
+        private final FastTimestampParser timestampParser = new FastTimestampParser();
+
         @Override
         public TrafficData mapFieldSet(FieldSet fieldSet) throws BindException {
             try {
@@ -77,6 +107,7 @@ public class TrafficDataReader extends FlatFileItemReader<TrafficData> {
                 TrafficData trafficData = TrafficData.builder()
                         .timestamp(timestamp)
                         .carsCount(carsCount)
+                        .sensorId(fieldSet.getFieldCount() > 2 ? fieldSet.readString("sensor_id") : null)
                         .build();
 
                 log.trace("Mapped traffic data: {} cars at {}", carsCount, timestamp);
@@ -89,25 +120,7 @@ public class TrafficDataReader extends FlatFileItemReader<TrafficData> {
         }
 
         private LocalDateTime parseTimestamp(String timestampStr) throws DateTimeParseException {
-            if (timestampStr == null || timestampStr.trim().isEmpty()) {
-                throw new IllegalArgumentException("Timestamp cannot be null or empty");
-            }
-
-            timestampStr = timestampStr.trim();
-
-            for (DateTimeFormatter formatter : SUPPORTED_FORMATTERS) {
-                try {
-                    return LocalDateTime.parse(timestampStr, formatter);
-                } catch (DateTimeParseException e) {
-                    log.trace("Failed to parse timestamp '{}' with format '{}'",
-                            timestampStr, formatter.toString());
-                }
-            }
-
-            throw new DateTimeParseException(
-                    "Unable to parse timestamp: " + timestampStr +
-                            ". Supported formats: yyyy-MM-dd'T'HH:mm:ss, yyyy-MM-dd HH:mm:ss, yyyy-MM-dd HH:mm, MM/dd/yyyy HH:mm:ss, MM/dd/yyyy HH:mm",
-                    timestampStr, 0);
+            return timestampParser.parse(timestampStr);
         }
     }
 
@@ -1,45 +1,48 @@
 
 package com.seek.traffic.batch;
 
+import com.seek.traffic.aggregate.DailyCarsCounts;
+import com.seek.traffic.aggregate.HalfHourSlotIndex;
+import com.seek.traffic.aggregate.LeastTrafficWindow;
+import com.seek.traffic.aggregate.SensorAggregate;
+import com.seek.traffic.config.TrafficProperties;
 import com.seek.traffic.model.DayTrafficSummary;
 import com.seek.traffic.model.LeastTrafficPeriod;
 import com.seek.traffic.model.TopHalfHour;
-import com.seek.traffic.model.TrafficData;
-import com.seek.traffic.writer.ConsoleWriter;
+import com.seek.traffic.model.TrafficWindow;
+import com.seek.traffic.model.WindowExtremes;
+import com.seek.traffic.writer.ReportSink;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.item.Chunk;
-import org.springframework.batch.item.ItemWriter;
-import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
+/**
+ * Formats the analysis report from the processor's aggregates. It runs once
+ * per job, in the report step after ingestion has finished, and again for
+ * each report of watch mode.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class TrafficDataWriter implements ItemWriter<Object> {
+public class TrafficDataWriter {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-    private static final int CONSECUTIVE_PERIODS_FOR_ANALYSIS = 3;
+    private static final int SENSORS_PER_BATCH = 1024;
 
     private final TrafficDataProcessor processor;
-    private final ConsoleWriter consoleWriter;
-    private final AtomicBoolean hasWritten = new AtomicBoolean(false);
-
-    @Override
-    public void write(@NonNull Chunk<? extends Object> chunk) throws Exception {
-        if (!hasWritten.compareAndSet(false, true)) {
-            log.debug("Traffic analysis results already written, skipping duplicate write operation");
-            return;
-        }
+    private final ReportSink reportSink;
+    private final TrafficProperties trafficProperties;
 
+    /**
+     * Writes the full analysis report from the processor's current aggregates.
+     */
+    public void writeReport() {
         try {
             log.info("Starting traffic analysis results output generation");
 
@@ -47,12 +50,14 @@ public class TrafficDataWriter implements ItemWriter<Object> {
             writeDailyTrafficSummaries();
             writeTopHalfHourPeriods();
             writeLeastTrafficPeriod();
+            writeWindowExtremes();
+            writeSensorReports();
+            reportSink.flush();
 
             log.info("Successfully completed traffic analysis results output");
 
         } catch (Exception e) {
             log.error("Failed to write traffic analysis results", e);
-            hasWritten.set(false);
             throw new TrafficDataWriteException("Error writing traffic analysis results", e);
         }
     }
@@ -61,13 +66,10 @@ public class TrafficDataWriter implements ItemWriter<Object> {
         try {
             log.debug("Writing total cars count");
 
-            List<TrafficData> allTrafficData = processor.getAllTrafficData();
-            int totalCars = allTrafficData.stream()
-                    .mapToInt(TrafficData::getCarsCount)
-                    .sum();
+            long totalCars = processor.getTotalCars();
 
-            consoleWriter.writeLine("Total number of cars seen:");
-            consoleWriter.writeLine(String.valueOf(totalCars));
+            reportSink.writeLine("Total number of cars seen:");
+            reportSink.writeLine(String.valueOf(totalCars));
 
             log.debug("Completed writing total cars count: {}", totalCars);
         } catch (Exception e) {
@@ -80,25 +82,21 @@ public class TrafficDataWriter implements ItemWriter<Object> {
         try {
             log.debug("Writing daily traffic summaries");
 
-            Map<LocalDate, Integer> dailyCounts = processor.getDailyCarsCount();
+            DailyCarsCounts dailyCounts = processor.getDailyCarsCounts();
 
-            consoleWriter.writeLine("Daily traffic summary:");
+            reportSink.writeLine("Daily traffic summary:");
 
             if (dailyCounts.isEmpty()) {
                 log.warn("No daily traffic data available for output");
-                consoleWriter.writeLine("No daily traffic data available");
+                reportSink.writeLine("No daily traffic data available");
                 return;
             }
 
-            // Sort by date and write each summary
-            dailyCounts.entrySet().stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .forEach(entry -> {
-                        String formattedOutput = String.format("%s %d",
-                                entry.getKey().format(DATE_FORMATTER),
-                                entry.getValue());
-                        consoleWriter.writeLine(formattedOutput);
-                    });
+            // Days are already in date order
+            dailyCounts.forEach((date, totalCars) -> {
+                String formattedOutput = String.format("%s %d", date.format(DATE_FORMATTER), totalCars);
+                reportSink.writeLine(formattedOutput);
+            });
 
             log.debug("Completed writing {} daily traffic summaries", dailyCounts.size());
         } catch (Exception e) {
@@ -111,26 +109,27 @@ public class TrafficDataWriter implements ItemWriter<Object> {
         try {
             log.debug("Writing top half-hour periods");
 
+            int topPeriods = trafficProperties.getReport().getTopPeriods();
             List<TopHalfHour> topHalfHours = processor.getTopHalfHours();
 
-            consoleWriter.writeLine("Top 3 half-hour periods with most cars:");
+            reportSink.writeLine(String.format("Top %d half-hour periods with most cars:", topPeriods));
 
             if (topHalfHours.isEmpty()) {
                 log.warn("No half-hour traffic data available for output");
-                consoleWriter.writeLine("No half-hour traffic data available");
+                reportSink.writeLine("No half-hour traffic data available");
                 return;
             }
 
             topHalfHours.stream()
-                    .limit(3)
+                    .limit(topPeriods)
                     .forEach(halfHour -> {
                         String formattedOutput = String.format("%s %d",
                                 halfHour.getTimestamp().format(TIMESTAMP_FORMATTER),
                                 halfHour.getCarsCount());
-                        consoleWriter.writeLine(formattedOutput);
+                        reportSink.writeLine(formattedOutput);
                     });
 
-            log.debug("Completed writing top {} half-hour periods", Math.min(3, topHalfHours.size()));
+            log.debug("Completed writing top {} half-hour periods", Math.min(topPeriods, topHalfHours.size()));
         } catch (Exception e) {
             log.error("Error writing top half-hour periods", e);
             throw new TrafficDataWriteException("Failed to write top half-hour periods", e);
@@ -139,82 +138,139 @@ public class TrafficDataWriter implements ItemWriter<Object> {
 
     private void writeLeastTrafficPeriod() {
         try {
-            log.debug("Calculating and writing least traffic period");
+            log.debug("Writing least traffic period");
 
-            List<TrafficData> trafficData = processor.getAllTrafficData();
+            Optional<LeastTrafficPeriod> leastTrafficPeriod = processor.getLeastTrafficPeriod();
 
-            consoleWriter.writeLine("1.5-hour period with least cars:");
+            reportSink.writeLine("1.5-hour period with least cars:");
 
-            if (trafficData.size() < CONSECUTIVE_PERIODS_FOR_ANALYSIS) {
-                log.warn("Insufficient traffic data for 1.5-hour period analysis. Required: {}, Available: {}",
-                        CONSECUTIVE_PERIODS_FOR_ANALYSIS, trafficData.size());
-                consoleWriter.writeLine("Insufficient data for 1.5-hour period analysis");
+            if (leastTrafficPeriod.isEmpty()) {
+                log.warn("Insufficient traffic data for 1.5-hour period analysis. Required: {} consecutive records",
+                        LeastTrafficWindow.DEFAULT_WINDOW_SIZE);
+                reportSink.writeLine("Insufficient data for 1.5-hour period analysis");
                 return;
             }
 
-            Optional<LeastTrafficPeriod> leastTrafficPeriod = findLeastTrafficPeriod(trafficData);
-
-            if (leastTrafficPeriod.isPresent()) {
-                LeastTrafficPeriod period = leastTrafficPeriod.get();
-                String formattedOutput = String.format("%s %d",
-                        period.getStartTimestamp().format(TIMESTAMP_FORMATTER),
-                        period.getTotalCars());
-                consoleWriter.writeLine(formattedOutput);
+            LeastTrafficPeriod period = leastTrafficPeriod.get();
+            String formattedOutput = String.format("%s %d",
+                    period.getStartTimestamp().format(TIMESTAMP_FORMATTER),
+                    period.getTotalCars());
+            reportSink.writeLine(formattedOutput);
 
-                log.debug("Completed writing least traffic period: {} with {} cars",
-                        period.getStartTimestamp(), period.getTotalCars());
-            } else {
-                log.error("Failed to calculate least traffic period despite sufficient data");
-                consoleWriter.writeLine("Error calculating least traffic period");
-            }
+            log.debug("Completed writing least traffic period: {} with {} cars",
+                    period.getStartTimestamp(), period.getTotalCars());
         } catch (Exception e) {
             log.error("Error writing least traffic period", e);
             throw new TrafficDataWriteException("Failed to write least traffic period", e);
         }
     }
 
-    private Optional<LeastTrafficPeriod> findLeastTrafficPeriod(List<TrafficData> trafficData) {
-        if (trafficData.size() < CONSECUTIVE_PERIODS_FOR_ANALYSIS) {
-            return Optional.empty();
-        }
-
-        // Sort traffic data by timestamp to ensure proper consecutive analysis
-        List<TrafficData> sortedData = trafficData.stream()
-                .sorted(Comparator.comparing(TrafficData::getTimestamp))
-                .collect(Collectors.toList());
-
-        int minTotalCars = Integer.MAX_VALUE;
-        LocalDateTime optimalStartTime = null;
+    private void writeWindowExtremes() {
+        try {
+            List<Duration> lengths = trafficProperties.getReport().getWindowLengths();
+            if (lengths.isEmpty()) {
+                return;
+            }
+            log.debug("Writing quietest and busiest windows of {}", lengths);
 
-        for (int i = 0; i <= sortedData.size() - CONSECUTIVE_PERIODS_FOR_ANALYSIS; i++) {
-            int currentWindowSum = calculateWindowSum(sortedData, i, CONSECUTIVE_PERIODS_FOR_ANALYSIS);
+            int[] slotCounts = lengths.stream().mapToInt(HalfHourSlotIndex::slotsIn).toArray();
+            List<WindowExtremes> extremes = processor.getSlotIndex().windowExtremes(slotCounts);
 
-            if (currentWindowSum < minTotalCars) {
-                minTotalCars = currentWindowSum;
-                optimalStartTime = sortedData.get(i + 1).getTimestamp(); // Use middle period timestamp
+            reportSink.writeLine("Quietest and busiest windows of whole half-hours:");
+            for (WindowExtremes window : extremes) {
+                String label = hoursLabel(window.getLength()) + "-hour";
+                writeWindow(label + " least", window.getQuietest());
+                writeWindow(label + " most", window.getBusiest());
             }
+
+            log.debug("Completed writing windows of {} lengths", extremes.size());
+        } catch (Exception e) {
+            log.error("Error writing quietest and busiest windows", e);
+            throw new TrafficDataWriteException("Failed to write quietest and busiest windows", e);
         }
+    }
+
+    private void writeWindow(String label, TrafficWindow window) {
+        reportSink.writeLine(windowLine(label, window));
+    }
 
-        if (optimalStartTime == null) {
-            return Optional.empty();
+    private static String windowLine(String label, TrafficWindow window) {
+        if (window == null) {
+            return label + " insufficient data";
         }
+        return String.format("%s %s %d", label,
+                window.getStartTimestamp().format(TIMESTAMP_FORMATTER),
+                window.getTotalCars());
+    }
 
-        return Optional.of(LeastTrafficPeriod.builder()
-                .startTimestamp(optimalStartTime)
-                .totalCars(minTotalCars)
-                .build());
+    /**
+     * Writes every sensor's totals, daily totals, busiest half-hours, least
+     * busy period and configured windows, each line prefixed with the sensor
+     * id, in sensor id order. Sensors are formatted in parallel in batches,
+     * so the work spreads over all cores while only one batch of lines is
+     * held at a time.
+     */
+    private void writeSensorReports() {
+        try {
+            if (!processor.hasSensors()) {
+                return;
+            }
+            log.debug("Writing per-sensor reports");
+
+            List<Map.Entry<String, SensorAggregate>> sensors =
+                    new ArrayList<>(processor.getSensorAggregates().entrySet());
+            int[] slotCounts = trafficProperties.getReport().getWindowLengths().stream()
+                    .mapToInt(HalfHourSlotIndex::slotsIn)
+                    .toArray();
+
+            reportSink.writeLine(String.format("Per-sensor traffic summary (%d sensors):", sensors.size()));
+            for (int from = 0; from < sensors.size(); from += SENSORS_PER_BATCH) {
+                List<List<String>> batch = sensors.subList(from, Math.min(from + SENSORS_PER_BATCH, sensors.size()))
+                        .parallelStream()
+                        .map(sensor -> sensorReport(sensor.getKey(), sensor.getValue(), slotCounts))
+                        .toList();
+                batch.forEach(lines -> lines.forEach(reportSink::writeLine));
+            }
+
+            log.debug("Completed writing reports of {} sensors", sensors.size());
+        } catch (Exception e) {
+            log.error("Error writing per-sensor reports", e);
+            throw new TrafficDataWriteException("Failed to write per-sensor reports", e);
+        }
     }
 
-    private int calculateWindowSum(List<TrafficData> trafficData, int startIndex, int windowSize) {
-        return trafficData.subList(startIndex, startIndex + windowSize)
-                .stream()
-                .mapToInt(TrafficData::getCarsCount)
-                .sum();
+    private List<String> sensorReport(String sensorId, SensorAggregate sensor, int[] slotCounts) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%s total %d", sensorId, sensor.totalCars()));
+        sensor.getDailyCarsCounts().forEach((date, totalCars) ->
+                lines.add(String.format("%s daily %s %d", sensorId, date.format(DATE_FORMATTER), totalCars)));
+        int topPeriods = trafficProperties.getReport().getTopPeriods();
+        sensor.getTopHalfHours().stream()
+                .limit(topPeriods)
+                .forEach(halfHour -> lines.add(String.format("%s top %s %d", sensorId,
+                        halfHour.getTimestamp().format(TIMESTAMP_FORMATTER), halfHour.getCarsCount())));
+        lines.add(sensor.getLeastTrafficPeriod()
+                .map(period -> String.format("%s 1.5-hour least period %s %d", sensorId,
+                        period.getStartTimestamp().format(TIMESTAMP_FORMATTER), period.getTotalCars()))
+                .orElse(sensorId + " 1.5-hour least period insufficient data"));
+        if (slotCounts.length > 0) {
+            for (WindowExtremes window : sensor.getSlotIndex().windowExtremes(slotCounts)) {
+                String label = sensorId + " " + hoursLabel(window.getLength()) + "-hour";
+                lines.add(windowLine(label + " least", window.getQuietest()));
+                lines.add(windowLine(label + " most", window.getBusiest()));
+            }
+        }
+        return lines;
     }
 
-    public void reset() {
-        hasWritten.set(false);
-        log.debug("TrafficDataWriter state reset");
+    /**
+     * Formats a window length in hours as the report headings do, e.g. {@code 1}, {@code 1.5}.
+     */
+    private static String hoursLabel(Duration length) {
+        return BigDecimal.valueOf(length.toMinutes())
+                .divide(BigDecimal.valueOf(60))
+                .stripTrailingZeros()
+                .toPlainString();
     }
 
     public static class TrafficDataWriteException extends RuntimeException {
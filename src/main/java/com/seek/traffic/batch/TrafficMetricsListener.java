@@ -0,0 +1,331 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.model.TrafficData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes Micrometer metrics for every step of the job: rows read, parse
+ * failures and skips, chunk, write and commit latency, step duration and
+ * throughput, and the number of records aggregated so far. Registered on a
+ * step as a {@link StepExecutionListener}, it also receives the chunk, item
+ * and skip callbacks of chunk-oriented steps.
+ *
+ * Nothing is looked up or allocated per item. Rows read are counted from the
+ * step execution once per chunk, and only every {@value #SAMPLE_EVERY}th
+ * read and process call of each thread is timed, so the per-item callbacks
+ * cost a thread-local counter increment.
+ *
+ * The time from JVM start to the first row read is recorded once per process
+ * as {@code traffic.startup.first-row} and logged, since for small inputs
+ * startup dominates the run. Steps that load their rows in bulk have no
+ * per-row callback; for them the end of the first chunk that read any rows
+ * is taken instead.
+ */
+@Slf4j
+@Component
+public class TrafficMetricsListener implements StepExecutionListener, ChunkListener,
+        ItemReadListener<TrafficData>, ItemProcessListener<TrafficData, Object>, ItemWriteListener<Object>,
+        SkipListener<TrafficData, Object> {
+
+    static final int SAMPLE_EVERY = 64;
+    private static final int SAMPLE_MASK = SAMPLE_EVERY - 1;
+
+    private final MeterRegistry registry;
+    private final Map<String, StepMeters> stepMeters = new ConcurrentHashMap<>();
+    private final Map<StepExecution, AtomicLong> rowsCounted = new ConcurrentHashMap<>();
+    private final ThreadLocal<ChunkTiming> chunkTiming = ThreadLocal.withInitial(ChunkTiming::new);
+    private final AtomicBoolean firstRowRead = new AtomicBoolean();
+    private final long startTimeMillis;
+
+    @Autowired
+    public TrafficMetricsListener(MeterRegistry registry, TrafficDataProcessor processor) {
+        this(registry, processor, ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    /**
+     * @param startTimeMillis epoch milliseconds the time to the first row is measured from
+     */
+    TrafficMetricsListener(MeterRegistry registry, TrafficDataProcessor processor, long startTimeMillis) {
+        this.registry = registry;
+        this.startTimeMillis = startTimeMillis;
+        Gauge.builder("traffic.records.aggregated", processor, p -> p.getDataVersion().records())
+                .description("Records folded into the aggregates so far")
+                .register(registry);
+    }
+
+    @Override
+    public void beforeStep(@NonNull StepExecution stepExecution) {
+        rowsCounted.put(stepExecution, new AtomicLong());
+    }
+
+    @Override
+    public ExitStatus afterStep(@NonNull StepExecution stepExecution) {
+        StepMeters meters = metersFor(stepExecution.getStepName());
+        countRowsRead(stepExecution, meters);
+        rowsCounted.remove(stepExecution);
+        if (stepExecution.getStartTime() != null) {
+            Duration elapsed = Duration.between(stepExecution.getStartTime(), LocalDateTime.now());
+            Timer.builder("traffic.step.duration")
+                    .description("Time taken by a step")
+                    .tag("step", meters.step)
+                    .tag("status", stepExecution.getExitStatus().getExitCode())
+                    .register(registry)
+                    .record(elapsed);
+        }
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(@NonNull ChunkContext context) {
+        ChunkTiming timing = chunkTiming.get();
+        timing.meters = metersFor(context.getStepContext().getStepName());
+        timing.chunkStart = System.nanoTime();
+        timing.writeEnd = 0;
+    }
+
+    @Override
+    public void afterChunk(@NonNull ChunkContext context) {
+        long now = System.nanoTime();
+        ChunkTiming timing = chunkTiming.get();
+        StepMeters meters = timing.meters;
+        if (meters == null) {
+            return;
+        }
+        meters.chunkCommitted.record(now - timing.chunkStart, TimeUnit.NANOSECONDS);
+        if (timing.writeEnd != 0) {
+            meters.commit.record(now - timing.writeEnd, TimeUnit.NANOSECONDS);
+        }
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        if (!firstRowRead.get() && stepExecution.getReadCount() > 0) {
+            recordFirstRow();
+        }
+        countRowsRead(stepExecution, meters);
+    }
+
+    @Override
+    public void afterChunkError(@NonNull ChunkContext context) {
+        ChunkTiming timing = chunkTiming.get();
+        if (timing.meters != null) {
+            timing.meters.chunkFailed.record(System.nanoTime() - timing.chunkStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void beforeRead() {
+        ChunkTiming timing = chunkTiming.get();
+        if ((++timing.reads & SAMPLE_MASK) == 0) {
+            timing.readStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterRead(@NonNull TrafficData item) {
+        if (!firstRowRead.get()) {
+            recordFirstRow();
+        }
+        ChunkTiming timing = chunkTiming.get();
+        if ((timing.reads & SAMPLE_MASK) == 0 && timing.meters != null) {
+            timing.meters.read.record(System.nanoTime() - timing.readStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onReadError(@NonNull Exception ex) {
+        ChunkTiming timing = chunkTiming.get();
+        String step = timing.meters == null ? "unknown" : timing.meters.step;
+        Counter.builder("traffic.parse.failures")
+                .description("Input rows that could not be read")
+                .tag("step", step)
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void beforeProcess(@NonNull TrafficData item) {
+        ChunkTiming timing = chunkTiming.get();
+        if ((++timing.processes & SAMPLE_MASK) == 0) {
+            timing.processStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterProcess(@NonNull TrafficData item, Object result) {
+        ChunkTiming timing = chunkTiming.get();
+        if ((timing.processes & SAMPLE_MASK) == 0 && timing.meters != null) {
+            timing.meters.process.record(System.nanoTime() - timing.processStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void beforeWrite(@NonNull Chunk<?> items) {
+        chunkTiming.get().writeStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterWrite(@NonNull Chunk<?> items) {
+        ChunkTiming timing = chunkTiming.get();
+        timing.writeEnd = System.nanoTime();
+        if (timing.meters != null) {
+            timing.meters.write.record(timing.writeEnd - timing.writeStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onSkipInRead(@NonNull Throwable t) {
+        skipped("read");
+    }
+
+    @Override
+    public void onSkipInProcess(@NonNull TrafficData item, @NonNull Throwable t) {
+        skipped("process");
+    }
+
+    @Override
+    public void onSkipInWrite(@NonNull Object item, @NonNull Throwable t) {
+        skipped("write");
+    }
+
+    private void skipped(String phase) {
+        ChunkTiming timing = chunkTiming.get();
+        String step = timing.meters == null ? "unknown" : timing.meters.step;
+        Counter.builder("traffic.rows.skipped")
+                .description("Rows skipped by the fault-tolerant step")
+                .tag("step", step)
+                .tag("phase", phase)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Adds the rows read since the last count to the counter and refreshes
+     * the step's throughput. Chunks of a multi-threaded step finish in any
+     * order, so only increases of the shared read count are added.
+     */
+    private void countRowsRead(StepExecution stepExecution, StepMeters meters) {
+        AtomicLong counted = rowsCounted.computeIfAbsent(stepExecution, execution -> new AtomicLong());
+        long readCount = stepExecution.getReadCount();
+        long previous = counted.getAndAccumulate(readCount, Math::max);
+        if (readCount > previous) {
+            meters.rowsRead.increment(readCount - previous);
+        }
+        if (stepExecution.getStartTime() != null && readCount > 0) {
+            long elapsedNanos = Duration.between(stepExecution.getStartTime(), LocalDateTime.now()).toNanos();
+            meters.rowsPerSecond = readCount * 1e9 / Math.max(1, elapsedNanos);
+        }
+    }
+
+    private void recordFirstRow() {
+        if (!firstRowRead.compareAndSet(false, true)) {
+            return;
+        }
+        long elapsedMillis = Math.max(0, System.currentTimeMillis() - startTimeMillis);
+        Timer.builder("traffic.startup.first-row")
+                .description("Time from JVM start to the first row read")
+                .register(registry)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+        log.info("First row read {} ms after JVM start", elapsedMillis);
+    }
+
+    private StepMeters metersFor(String stepName) {
+        // Partition workers are named worker:partitionN; one set of meters covers them all
+        int partition = stepName.indexOf(':');
+        String step = partition < 0 ? stepName : stepName.substring(0, partition);
+        return stepMeters.computeIfAbsent(step, name -> new StepMeters(name, registry));
+    }
+
+    /**
+     * Meters of one step, resolved once so the listener callbacks only record.
+     */
+    static final class StepMeters {
+
+        final String step;
+        final Counter rowsRead;
+        final Timer chunkCommitted;
+        final Timer chunkFailed;
+        final Timer commit;
+        final Timer write;
+        final Timer read;
+        final Timer process;
+        volatile double rowsPerSecond;
+
+        StepMeters(String step, MeterRegistry registry) {
+            this.step = step;
+            this.rowsRead = Counter.builder("traffic.rows.read")
+                    .description("Input rows read")
+                    .tag("step", step)
+                    .register(registry);
+            this.chunkCommitted = chunkTimer(step, "committed", registry);
+            this.chunkFailed = chunkTimer(step, "failed", registry);
+            this.commit = Timer.builder("traffic.chunk.commit")
+                    .description("Time from the end of a chunk's write to the end of its commit")
+                    .tag("step", step)
+                    .register(registry);
+            this.write = Timer.builder("traffic.chunk.write")
+                    .description("Time taken by the writer for one chunk")
+                    .tag("step", step)
+                    .register(registry);
+            this.read = Timer.builder("traffic.item.read")
+                    .description("Time taken to read one row, sampled every " + SAMPLE_EVERY + " rows")
+                    .tag("step", step)
+                    .register(registry);
+            this.process = Timer.builder("traffic.item.process")
+                    .description("Time taken to process one row, sampled every " + SAMPLE_EVERY + " rows")
+                    .tag("step", step)
+                    .register(registry);
+            Gauge.builder("traffic.step.throughput", this, meters -> meters.rowsPerSecond)
+                    .description("Rows read per second since the step started")
+                    .baseUnit("rows")
+                    .tag("step", step)
+                    .register(registry);
+        }
+
+        private static Timer chunkTimer(String step, String outcome, MeterRegistry registry) {
+            return Timer.builder("traffic.chunk.duration")
+                    .description("Time taken by one chunk, including its commit")
+                    .tag("step", step)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Per-thread chunk state; a chunk is read, processed and written by one thread.
+     */
+    private static final class ChunkTiming {
+        StepMeters meters;
+        long chunkStart;
+        long writeStart;
+        long writeEnd;
+        long readStart;
+        long processStart;
+        int reads;
+        int processes;
+    }
+}
@@ -0,0 +1,25 @@
+package com.seek.traffic.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the analysis report once, after ingestion has finished.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrafficReportTasklet implements Tasklet {
+
+    private final TrafficDataWriter trafficDataWriter;
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext) {
+        trafficDataWriter.writeReport();
+        return RepeatStatus.FINISHED;
+    }
+}
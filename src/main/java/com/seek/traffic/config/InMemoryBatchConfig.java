@@ -1,33 +1,78 @@
 package com.seek.traffic.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
 import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 
+/**
+ * Job repository backed by an embedded in-memory H2 database, or by the H2
+ * database at {@code traffic.repository.url} when job executions must survive
+ * the process so a failed run can be restarted.
+ *
+ * With {@code traffic.repository.type=resourceless} only the running
+ * execution is kept, in memory, and no database is created: no schema script
+ * is run and chunk commits cost no JDBC updates. The data source is then
+ * never connected to; it only satisfies the job explorer that
+ * {@code @EnableBatchProcessing} registers, which the application does not use.
+ * Partitioned ingestion runs a step execution per file, which the resourceless
+ * repository cannot track, so it keeps the embedded database.
+ */
+@Slf4j
 @Configuration
 @EnableBatchProcessing
 public class InMemoryBatchConfig {
 
+	private static final String SCHEMA_SCRIPT = "/org/springframework/batch/core/schema-h2.sql";
+
 	@Bean
-	public DataSource dataSource() {
-		return new EmbeddedDatabaseBuilder()
-				.setType(EmbeddedDatabaseType.H2)
-				.addScript("/org/springframework/batch/core/schema-h2.sql")
-				.build();
+	public DataSource dataSource(TrafficProperties trafficProperties) throws MetaDataAccessException {
+		if (isResourceless(trafficProperties)) {
+			return new DriverManagerDataSource();
+		}
+		if (trafficProperties.getRepository().getType() == TrafficProperties.RepositoryType.RESOURCELESS) {
+			log.info("Partitioned ingestion needs a job repository that tracks every partition; using the embedded database");
+		}
+
+		String url = trafficProperties.getRepository().getUrl();
+		if (url == null || url.isBlank()) {
+			return new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.H2)
+					.addScript(SCHEMA_SCRIPT)
+					.build();
+		}
+
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+		if (!hasBatchSchema(dataSource)) {
+			log.info("Creating Spring Batch schema in {}", url);
+			DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)), dataSource);
+		}
+		return dataSource;
 	}
 
 	@Bean
-	public JobRepository jobRepository() throws Exception {
+	public JobRepository jobRepository(DataSource dataSource, TrafficProperties trafficProperties) throws Exception {
+		if (isResourceless(trafficProperties)) {
+			return new ResourcelessJobRepository();
+		}
+
 		JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
-		factory.setDataSource(dataSource());
+		factory.setDataSource(dataSource);
 		factory.setTransactionManager(transactionManager());
 		factory.afterPropertiesSet();
 		return factory.getObject();
@@ -37,4 +82,17 @@ public class InMemoryBatchConfig {
 	public PlatformTransactionManager transactionManager() {
 		return new ResourcelessTransactionManager();
 	}
-}
\ No newline at end of file
+
+	private static boolean isResourceless(TrafficProperties trafficProperties) {
+		return trafficProperties.getRepository().getType() == TrafficProperties.RepositoryType.RESOURCELESS
+				&& trafficProperties.getIngestion().getMode() != TrafficProperties.IngestionMode.PARTITIONED;
+	}
+
+	private static boolean hasBatchSchema(DataSource dataSource) throws MetaDataAccessException {
+		return JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> {
+			try (var tables = metaData.getTables(null, null, "BATCH_JOB_INSTANCE", null)) {
+				return tables.next();
+			}
+		});
+	}
+}
@@ -0,0 +1,35 @@
+package com.seek.traffic.config;
+
+import com.seek.traffic.writer.AsyncReportSink;
+import com.seek.traffic.writer.ConsoleWriter;
+import com.seek.traffic.writer.FileReportSink;
+import com.seek.traffic.writer.ReportSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * The report sink selected by {@code traffic.report.sink}, behind a
+ * dedicated writer thread when {@code traffic.report.async} is set. It is
+ * closed on shutdown, which writes out anything still buffered.
+ */
+@Slf4j
+@Configuration
+public class ReportSinkConfig {
+
+	@Bean
+	public ReportSink reportSink(TrafficProperties trafficProperties) {
+		TrafficProperties.Report report = trafficProperties.getReport();
+		int bufferSize = Math.toIntExact(report.getBufferSize().toBytes());
+
+		ReportSink sink = switch (report.getSink()) {
+			case CONSOLE -> new ConsoleWriter(System.out, bufferSize);
+			case FILE -> new FileReportSink(Path.of(report.getFile()), bufferSize);
+		};
+		log.info("Writing reports to {}{}", report.getSink() == TrafficProperties.ReportSinkType.FILE
+				? report.getFile() : "the console", report.isAsync() ? " from a dedicated writer thread" : "");
+		return report.isAsync() ? new AsyncReportSink(sink, report.getQueueCapacity()) : sink;
+	}
+}
@@ -0,0 +1,240 @@
+package com.seek.traffic.config;
+
+import com.seek.traffic.aggregate.HalfHourSlotIndex;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunables for the traffic analysis pipeline, bound from {@code traffic.*}
+ * application properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "traffic")
+public class TrafficProperties {
+
+    /**
+     * CSV file to analyse, e.g. {@code classpath:traffic_data.csv} or {@code file:/data/traffic.csv}.
+     */
+    private Resource input = new ClassPathResource("traffic_data.csv");
+
+    private final Reader reader = new Reader();
+    private final Ingestion ingestion = new Ingestion();
+    private final Report report = new Report();
+    private final Repository repository = new Repository();
+    private final Columnar columnar = new Columnar();
+    private final Watch watch = new Watch();
+
+    @Data
+    public static class Reader {
+
+        /**
+         * Which CSV reader feeds the processing step.
+         */
+        private ReaderMode mode = ReaderMode.FLAT;
+    }
+
+    @Data
+    public static class Ingestion {
+
+        /**
+         * How the input is turned into aggregates.
+         */
+        private IngestionMode mode = IngestionMode.CHUNK;
+
+        /**
+         * Worker threads for parallel ingestion; 0 means one per available processor.
+         */
+        private int threads = 0;
+
+        /**
+         * Resource pattern of the files fanned out by partitioned and multi-file
+         * ingestion, e.g. {@code file:/data/traffic/*.csv}.
+         */
+        private String files = "file:input/*.csv";
+
+        /**
+         * Threads that read the files of multi-file ingestion.
+         */
+        private ExecutorType executor = ExecutorType.PLATFORM;
+
+        public int resolveThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    @Data
+    public static class Report {
+
+        /**
+         * Number of busiest half-hour periods tracked and reported.
+         */
+        private int topPeriods = 3;
+
+        /**
+         * Lengths of the windows whose quietest and busiest occurrence is
+         * reported, each a multiple of 30 minutes; empty leaves them out.
+         */
+        private List<Duration> windowLengths = new ArrayList<>(List.of(
+                Duration.ofHours(1), Duration.ofMinutes(90), Duration.ofHours(3), Duration.ofHours(6)));
+
+        /**
+         * Where the report is written.
+         */
+        private ReportSinkType sink = ReportSinkType.CONSOLE;
+
+        /**
+         * Report file of the {@code file} sink, replaced as a whole by each report.
+         */
+        private String file = "traffic-report.txt";
+
+        /**
+         * Buffer between the report and the console or file; it is written out
+         * when full and when a report is complete.
+         */
+        private DataSize bufferSize = DataSize.ofKilobytes(64);
+
+        /**
+         * Hand lines to a dedicated writer thread instead of writing them on
+         * the thread producing the report.
+         */
+        private boolean async = false;
+
+        /**
+         * Lines the asynchronous sink queues before the report producer waits for the writer.
+         */
+        private int queueCapacity = 8192;
+
+        /**
+         * @throws IllegalArgumentException if a length is not a positive multiple
+         *                                  of 30 minutes, so a bad value fails at
+         *                                  startup rather than once the input is read
+         */
+        public void setWindowLengths(List<Duration> windowLengths) {
+            windowLengths.forEach(HalfHourSlotIndex::slotsIn);
+            this.windowLengths = windowLengths;
+        }
+    }
+
+    @Data
+    public static class Repository {
+
+        /**
+         * Where job and step metadata is kept.
+         */
+        private RepositoryType type = RepositoryType.JDBC;
+
+        /**
+         * JDBC URL of a persistent job repository, e.g. {@code jdbc:h2:file:./batch/traffic};
+         * empty keeps job metadata in memory, so runs cannot be restarted.
+         * Only used by the {@code jdbc} repository type.
+         */
+        private String url = "";
+
+        /**
+         * Restart the last job execution instead of starting a new one if it
+         * failed on the same input.
+         */
+        private boolean restartFailed = true;
+
+        /**
+         * Whether job executions outlive the process, so a failed run can be restarted.
+         */
+        public boolean isPersistent() {
+            return type == RepositoryType.JDBC && url != null && !url.isBlank();
+        }
+    }
+
+    @Data
+    public static class Columnar {
+
+        /**
+         * Binary column file kept alongside the input; converted from the CSV
+         * when missing or older than it.
+         */
+        private String file = "traffic_data.tcol";
+    }
+
+    @Data
+    public static class Watch {
+
+        /**
+         * Run as a long-lived process that tails the CSV files in {@link #directory}
+         * instead of running the batch job once.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Landing directory that traffic counters write CSV files into.
+         */
+        private String directory = "input";
+
+        /**
+         * Glob of the file names followed in the directory.
+         */
+        private String pattern = "*.csv";
+
+        /**
+         * Longest wait for a file system event before the files are checked anyway.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Shortest time between two reports while new rows keep arriving.
+         */
+        private Duration reportInterval = Duration.ofSeconds(10);
+    }
+
+    public enum ReaderMode {
+        /** Spring Batch {@code FlatFileItemReader} with a tokenizer and field set mapper. */
+        FLAT,
+        /** Byte-level parser decoding rows straight into primitives. */
+        BYTES,
+        /** Rows read from the memory-mapped binary column file. */
+        COLUMNAR
+    }
+
+    public enum ReportSinkType {
+        /** Standard output. */
+        CONSOLE,
+        /** The file at {@code traffic.report.file}. */
+        FILE
+    }
+
+    public enum RepositoryType {
+        /** Spring Batch tables in an embedded H2 database, or the database at {@code traffic.repository.url}. */
+        JDBC,
+        /** Only the running execution, held in memory without a database; runs cannot be restarted. */
+        RESOURCELESS
+    }
+
+    public enum IngestionMode {
+        /** Chunk-oriented step: reader, processor and writer per item. */
+        CHUNK,
+        /** Chunk-oriented step run by several threads over a synchronized reader. */
+        PARALLEL_CHUNK,
+        /** One tasklet streaming the input through the byte parser into the aggregates on one thread. */
+        STREAMING,
+        /** Memory-mapped file split into newline-aligned ranges parsed on all cores. */
+        MAPPED,
+        /** One worker step execution per file matching {@code traffic.ingestion.files}. */
+        PARTITIONED,
+        /** Memory-mapped binary column file loaded in bulk on all cores. */
+        COLUMNAR,
+        /** Every file matching {@code traffic.ingestion.files} read at once in one step, each on its own thread. */
+        MULTI_FILE
+    }
+
+    public enum ExecutorType {
+        /** Fixed pool of {@code traffic.ingestion.threads} platform threads. */
+        PLATFORM,
+        /** One virtual thread per file on Java 21 and later; a platform pool on older runtimes. */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,73 @@
+package com.seek.traffic.ingest;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Presents a gzip-compressed resource as its decompressed content, inflated
+ * on the fly by a {@link PipelinedGzipInputStream}; nothing is written to
+ * disk. It is not a file, so callers that would memory-map the input read it
+ * as a stream instead.
+ */
+public class GzipResource extends AbstractResource {
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Resource compressed;
+
+    public GzipResource(Resource compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * Wraps {@code resource} if its file name ends in {@code .gz}, otherwise returns it unchanged.
+     */
+    public static Resource decompressIfGzip(Resource resource) {
+        String filename = resource.getFilename();
+        if (resource instanceof GzipResource || filename == null || !filename.endsWith(GZIP_SUFFIX)) {
+            return resource;
+        }
+        return new GzipResource(resource);
+    }
+
+    @Override
+    @NonNull
+    public InputStream getInputStream() throws IOException {
+        return new PipelinedGzipInputStream(compressed.getInputStream());
+    }
+
+    @Override
+    public boolean exists() {
+        return compressed.exists();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return compressed.lastModified();
+    }
+
+    @Override
+    public String getFilename() {
+        return compressed.getFilename();
+    }
+
+    @Override
+    @NonNull
+    public String getDescription() {
+        return compressed.getDescription();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof GzipResource gzip && compressed.equals(gzip.compressed);
+    }
+
+    @Override
+    public int hashCode() {
+        return compressed.hashCode();
+    }
+}
@@ -0,0 +1,199 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.parser.TrafficCsvParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests a single CSV file by memory-mapping it and splitting it into
+ * newline-aligned byte ranges. Each range is parsed into its own
+ * {@link TrafficAggregate} on a separate thread and the partials are merged
+ * in file order, so the result matches a sequential read.
+ */
+@Slf4j
+public class MappedTrafficFileIngester {
+
+    private static final int LINES_TO_SKIP = 1; // Skip header row
+    private static final int SCAN_BLOCK_SIZE = 8 * 1024;
+    static final long MAX_RANGE_BYTES = 1L << 30;
+
+    private final int parallelism;
+    private final int skipLimit;
+    private final int topPeriods;
+
+    public MappedTrafficFileIngester(int parallelism, int skipLimit) {
+        this(parallelism, skipLimit, TrafficAggregate.DEFAULT_TOP_PERIODS);
+    }
+
+    /**
+     * @param parallelism number of ranges parsed concurrently
+     * @param skipLimit   malformed lines tolerated across the whole file before failing
+     * @param topPeriods  busiest half-hours retained by each partial aggregate
+     */
+    public MappedTrafficFileIngester(int parallelism, int skipLimit, int topPeriods) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.skipLimit = skipLimit;
+        this.topPeriods = topPeriods;
+    }
+
+    /**
+     * Ingests {@code resource}, mapping it when it lives on the file system and
+     * falling back to a single sequential stream otherwise (e.g. inside a jar,
+     * or a {@code .gz} file decompressed while it is read).
+     */
+    public TrafficAggregate ingest(Resource resource) throws IOException {
+        resource = GzipResource.decompressIfGzip(resource);
+        if (resource.isFile()) {
+            return ingest(resource.getFile().toPath());
+        }
+
+        if (resource instanceof GzipResource) {
+            log.info("Decompressing {} while ingesting it sequentially", resource.getDescription());
+        } else {
+            log.warn("Input {} is not a file, ingesting sequentially", resource.getDescription());
+        }
+        AtomicInteger skipped = new AtomicInteger();
+        try (InputStream input = resource.getInputStream()) {
+            return parse(input, 0, true, skipped);
+        }
+    }
+
+    public TrafficAggregate ingest(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> ranges = split(channel);
+            log.info("Ingesting {} ({} bytes) as {} ranges on {} threads",
+                    file, channel.size(), ranges.size(), Math.min(parallelism, ranges.size()));
+
+            TrafficAggregate result = new TrafficAggregate(topPeriods);
+            if (ranges.isEmpty()) {
+                return result;
+            }
+
+            AtomicInteger skipped = new AtomicInteger();
+            if (parallelism == 1) {
+                // No pool for a single thread, so callers running one file per task do not nest pools
+                for (long[] range : ranges) {
+                    result.merge(parseRange(channel, range[0], range[1], skipped));
+                }
+                return result;
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, ranges.size()));
+            try {
+                List<Future<TrafficAggregate>> partials = new ArrayList<>(ranges.size());
+                for (long[] range : ranges) {
+                    partials.add(executor.submit(() -> parseRange(channel, range[0], range[1], skipped)));
+                }
+                for (Future<TrafficAggregate> partial : partials) {
+                    result.merge(partial.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TrafficIngestionException("Interrupted while ingesting " + file, e);
+            } catch (ExecutionException e) {
+                throw new TrafficIngestionException("Failed to ingest " + file, e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Splits the data section of the file (after the header) into ranges whose
+     * boundaries fall immediately after a newline. Each range is {@code [start, end)}.
+     */
+    List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long dataStart = 0;
+        for (int i = 0; i < LINES_TO_SKIP && dataStart < size; i++) {
+            dataStart = Math.min(findNewline(channel, dataStart) + 1, size);
+        }
+
+        long dataLength = size - dataStart;
+        int rangeCount = (int) Math.max(parallelism, (dataLength + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES);
+
+        List<long[]> ranges = new ArrayList<>(rangeCount);
+        long start = dataStart;
+        for (int i = 1; i <= rangeCount && start < size; i++) {
+            long end = i == rangeCount ? size : dataStart + dataLength * i / rangeCount;
+            if (end <= start) {
+                continue;
+            }
+            if (end < size) {
+                end = Math.min(findNewline(channel, end - 1) + 1, size);
+            }
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    private long findNewline(FileChannel channel, long from) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long position = from;
+        while (true) {
+            block.clear();
+            int read = channel.read(block, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private TrafficAggregate parseRange(FileChannel channel, long start, long end, AtomicInteger skipped)
+            throws IOException {
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        return parse(new ByteBufferInputStream(region), start, false, skipped);
+    }
+
+    private TrafficAggregate parse(InputStream input, long offset, boolean skipHeader, AtomicInteger skipped)
+            throws IOException {
+        TrafficAggregate aggregate = new TrafficAggregate(topPeriods);
+        TrafficCsvParser parser = new TrafficCsvParser(input);
+        if (skipHeader) {
+            parser.skipLines(LINES_TO_SKIP);
+        }
+
+        TrafficCsvRowReader rows = new TrafficCsvRowReader(parser, "range starting at byte " + offset, skipLimit,
+                skipped);
+        while (rows.next()) {
+            aggregate.accept(parser.epochSecond(), parser.carsCount(), parser.sensorId());
+        }
+        return aggregate;
+    }
+
+    public static class TrafficIngestionException extends RuntimeException {
+        public TrafficIngestionException(String message) {
+            super(message);
+        }
+
+        public TrafficIngestionException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
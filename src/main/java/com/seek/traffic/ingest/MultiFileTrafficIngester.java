@@ -0,0 +1,90 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Ingests many CSV files concurrently, one task per file on the given
+ * executor, and merges their aggregates in file name order so the result
+ * does not depend on which file finished first. Files mostly waiting on
+ * slow storage overlap, so the run takes about as long as the slowest file.
+ *
+ * A file that cannot be read or exceeds the skip limit is left out of the
+ * result and reported as a {@link FileFailure}; the other files are still
+ * ingested. The executor belongs to the caller and is not shut down.
+ */
+@Slf4j
+public class MultiFileTrafficIngester {
+
+    private final ExecutorService executor;
+    private final int skipLimit;
+    private final int topPeriods;
+
+    /**
+     * @param executor   runs one task per file
+     * @param skipLimit  malformed lines tolerated in each file before it fails
+     * @param topPeriods busiest half-hours retained by each aggregate
+     */
+    public MultiFileTrafficIngester(ExecutorService executor, int skipLimit, int topPeriods) {
+        this.executor = executor;
+        this.skipLimit = skipLimit;
+        this.topPeriods = topPeriods;
+    }
+
+    public Result ingest(List<? extends Resource> files) {
+        List<Resource> ordered = new ArrayList<>(files);
+        ordered.sort(Comparator.comparing(Resource::getDescription));
+
+        List<Future<TrafficAggregate>> pending = new ArrayList<>(ordered.size());
+        for (Resource file : ordered) {
+            pending.add(executor.submit(() -> ingestFile(file)));
+        }
+
+        TrafficAggregate result = new TrafficAggregate(topPeriods);
+        List<FileFailure> failures = new ArrayList<>();
+        try {
+            for (int i = 0; i < ordered.size(); i++) {
+                String file = ordered.get(i).getDescription();
+                try {
+                    result.merge(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    log.error("Failed to ingest {}, leaving it out", file, e.getCause());
+                    failures.add(new FileFailure(file, e.getCause()));
+                }
+            }
+        } catch (InterruptedException e) {
+            pending.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new MappedTrafficFileIngester.TrafficIngestionException("Interrupted while ingesting files", e);
+        }
+        return new Result(result, ordered.size(), Collections.unmodifiableList(failures));
+    }
+
+    private TrafficAggregate ingestFile(Resource file) throws Exception {
+        long start = System.nanoTime();
+        TrafficAggregate aggregate = new MappedTrafficFileIngester(1, skipLimit, topPeriods).ingest(file);
+        log.debug("Ingested {} records from {} in {} ms",
+                aggregate.size(), file.getDescription(), (System.nanoTime() - start) / 1_000_000);
+        return aggregate;
+    }
+
+    /**
+     * @param aggregate merged aggregate of the files that were ingested
+     * @param files     number of files attempted
+     * @param failures  files left out, in file name order
+     */
+    public record Result(TrafficAggregate aggregate, int files, List<FileFailure> failures) {
+    }
+
+    public record FileFailure(String file, Throwable cause) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.seek.traffic.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip stream on a dedicated thread, so inflating the next
+ * buffers overlaps with the reader parsing the current one. Filled buffers
+ * are handed over through a bounded queue and returned to a fixed pool once
+ * read, so memory stays at {@code buffers * bufferSize} however large the
+ * input is. Concatenated gzip members are read as one stream.
+ *
+ * A decompression failure is rethrown by the next read; closing the stream
+ * stops the decompressing thread and closes the compressed input.
+ */
+public class PipelinedGzipInputStream extends InputStream {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_BUFFERS = 4;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final InputStream compressed;
+    private final BlockingQueue<byte[]> free;
+    private final BlockingQueue<Chunk> filled;
+    private final Thread decompressor;
+
+    private Chunk current;
+    private int position;
+    private boolean endOfInput;
+    private volatile boolean closed;
+
+    public PipelinedGzipInputStream(InputStream compressed) {
+        this(compressed, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFERS);
+    }
+
+    public PipelinedGzipInputStream(InputStream compressed, int bufferSize, int buffers) {
+        if (bufferSize <= 0 || buffers <= 0) {
+            throw new IllegalArgumentException("Buffer size and count must be positive: " + bufferSize + ", " + buffers);
+        }
+        this.compressed = compressed;
+        this.free = new ArrayBlockingQueue<>(buffers);
+        // One more slot than buffers, so the end or failure marker never waits for the reader
+        this.filled = new ArrayBlockingQueue<>(buffers + 1);
+        for (int i = 0; i < buffers; i++) {
+            free.add(new byte[bufferSize]);
+        }
+        this.decompressor = new Thread(this::decompress, "traffic-gunzip-" + THREAD_COUNT.incrementAndGet());
+        // A reader that stops early must not leave the JVM waiting for the rest of the file
+        decompressor.setDaemon(true);
+        decompressor.start();
+    }
+
+    private void decompress() {
+        try (GZIPInputStream gzip = new GZIPInputStream(compressed, DEFAULT_BUFFER_SIZE)) {
+            while (true) {
+                byte[] buffer = free.take();
+                int length = gzip.readNBytes(buffer, 0, buffer.length);
+                if (length == 0) {
+                    filled.put(Chunk.END);
+                    return;
+                }
+                filled.put(new Chunk(buffer, length, null));
+            }
+        } catch (InterruptedException e) {
+            // Closed by the reader
+        } catch (IOException e) {
+            if (!closed) {
+                filled.offer(new Chunk(null, 0, e));
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - position;
+    }
+
+    /**
+     * Makes sure {@link #current} has unread bytes, waiting for the decompressor if needed.
+     *
+     * @return {@code false} at the end of the decompressed data
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current != null && position < current.length) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+        if (current != null) {
+            free.add(current.data);
+            current = null;
+        }
+
+        Chunk next;
+        try {
+            next = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+        }
+        if (next.error != null) {
+            endOfInput = true;
+            throw new IOException("Failed to decompress gzip input", next.error);
+        }
+        if (next == Chunk.END) {
+            endOfInput = true;
+            return false;
+        }
+        current = next;
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        decompressor.interrupt();
+        compressed.close();
+    }
+
+    private record Chunk(byte[] data, int length, IOException error) {
+        static final Chunk END = new Chunk(null, 0, null);
+    }
+}
@@ -0,0 +1,273 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.aggregate.TrafficRecordSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Memory-mapped traffic file in the fixed-width columnar format written by
+ * {@link TrafficColumnFileWriter}:
+ *
+ * <pre>
+ * offset 0        magic "TRFC"
+ *        4        format version (int)
+ *        8        row count n (long)
+ *        16       size of the source file in bytes (long)
+ *        24       last modified time of the source file, epoch milliseconds (long)
+ *        32       hash of the source file's description (long)
+ *        40       epoch minute of each row (n ints)
+ *        40 + 4n  cars count of each row (n ints)
+ * </pre>
+ *
+ * Values are little-endian. Opening a file only reads the header; rows are
+ * read straight from the mapping, in bulk, without a {@code TrafficData} or
+ * a parsed line per row. The {@link Source} fields identify the CSV the file
+ * was converted from, so a file converted from other input is not mistaken
+ * for a conversion of the current one.
+ */
+@Slf4j
+public class TrafficColumnFile {
+
+    static final int MAGIC = 0x43465254; // "TRFC" read little-endian
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 40;
+
+    private static final int SEGMENT_SHIFT = 28; // 1 GiB of ints per mapping
+    private static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    private static final int LOAD_BLOCK_ROWS = 8 * 1024;
+
+    /**
+     * Identity of the CSV a column file was converted from. Unknown fields
+     * are -1, or 0 for the description hash.
+     */
+    public record Source(long size, long lastModified, long descriptionHash) {
+
+        public static final Source UNKNOWN = new Source(-1, -1, 0);
+
+        public static Source of(long size, long lastModified, String description) {
+            return new Source(size, lastModified, hash(description));
+        }
+
+        // 64-bit FNV-1a, so distinct paths practically never collide
+        private static long hash(String description) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : description.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+
+    private final Path path;
+    private final int size;
+    private final Source source;
+    private final IntBuffer[] epochMinutes;
+    private final IntBuffer[] carsCounts;
+
+    private TrafficColumnFile(Path path, int size, Source source, IntBuffer[] epochMinutes, IntBuffer[] carsCounts) {
+        this.path = path;
+        this.size = size;
+        this.source = source;
+        this.epochMinutes = epochMinutes;
+        this.carsCounts = carsCounts;
+    }
+
+    public static TrafficColumnFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, path);
+            long rows = header.getLong();
+            Source source = new Source(header.getLong(), header.getLong(), header.getLong());
+            long columnBytes = rows * Integer.BYTES;
+            if (rows < 0 || rows > Integer.MAX_VALUE || channel.size() != HEADER_SIZE + 2 * columnBytes) {
+                throw new InvalidColumnFileException(path + " is truncated or corrupt: " + rows + " rows in "
+                        + channel.size() + " bytes");
+            }
+
+            int size = (int) rows;
+            return new TrafficColumnFile(path, size, source,
+                    map(channel, HEADER_SIZE, size),
+                    map(channel, HEADER_SIZE + columnBytes, size));
+        }
+    }
+
+    /**
+     * Reads the source recorded in the header of {@code path}, without mapping its rows.
+     */
+    public static Source readSource(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, path);
+            header.getLong(); // row count
+            return new Source(header.getLong(), header.getLong(), header.getLong());
+        }
+    }
+
+    /**
+     * Reads and checks the header, returning it positioned at the row count.
+     */
+    private static ByteBuffer readHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header) >= 0) {
+            // keep reading until the header is complete or the file ends
+        }
+        header.flip();
+        if (header.remaining() < 2 * Integer.BYTES || header.getInt() != MAGIC) {
+            throw new InvalidColumnFileException(path + " is not a traffic column file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new InvalidColumnFileException("Unsupported traffic column file version " + version + " in " + path);
+        }
+        if (header.remaining() < HEADER_SIZE - 2 * Integer.BYTES) {
+            throw new InvalidColumnFileException(path + " is truncated or corrupt: header of "
+                    + header.limit() + " bytes");
+        }
+        return header;
+    }
+
+    private static IntBuffer[] map(FileChannel channel, long offset, int rows) throws IOException {
+        IntBuffer[] segments = new IntBuffer[Math.max(1, (int) ((rows + (long) SEGMENT_ROWS - 1) >>> SEGMENT_SHIFT))];
+        for (int s = 0; s < segments.length; s++) {
+            long firstRow = (long) s << SEGMENT_SHIFT;
+            long segmentRows = Math.min(SEGMENT_ROWS, rows - firstRow);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + firstRow * Integer.BYTES,
+                            segmentRows * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        }
+        return segments;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public int epochMinute(int row) {
+        checkRow(row);
+        return epochMinutes[row >>> SEGMENT_SHIFT].get(row & (SEGMENT_ROWS - 1));
+    }
+
+    public int carsCount(int row) {
+        checkRow(row);
+        return carsCounts[row >>> SEGMENT_SHIFT].get(row & (SEGMENT_ROWS - 1));
+    }
+
+    /**
+     * Copies {@code length} rows starting at {@code from} into the given arrays.
+     */
+    public void read(int from, int[] minutes, int[] counts, int length) {
+        if (from < 0 || length < 0 || from > size - length) {
+            throw new IndexOutOfBoundsException("Rows " + from + ".." + ((long) from + length) + " out of bounds for size " + size);
+        }
+        int copied = 0;
+        while (copied < length) {
+            int row = from + copied;
+            int segment = row >>> SEGMENT_SHIFT;
+            int index = row & (SEGMENT_ROWS - 1);
+            int chunk = Math.min(length - copied, SEGMENT_ROWS - index);
+            epochMinutes[segment].get(index, minutes, copied, chunk);
+            carsCounts[segment].get(index, counts, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    /**
+     * Replays every row in file order.
+     */
+    public void forEach(TrafficRecordSink sink) {
+        int[] minutes = new int[LOAD_BLOCK_ROWS];
+        int[] counts = new int[LOAD_BLOCK_ROWS];
+        for (int from = 0; from < size; from += LOAD_BLOCK_ROWS) {
+            int length = Math.min(LOAD_BLOCK_ROWS, size - from);
+            read(from, minutes, counts, length);
+            for (int i = 0; i < length; i++) {
+                sink.accept(minutes[i] * 60L, counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Aggregates every row, splitting the file into {@code parallelism}
+     * row ranges that are loaded concurrently and merged in file order.
+     */
+    public TrafficAggregate load(int parallelism, int topPeriods) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        int ranges = (int) Math.max(1, Math.min(parallelism, size / LOAD_BLOCK_ROWS));
+        if (ranges == 1) {
+            return loadRange(0, size, topPeriods);
+        }
+
+        log.info("Loading {} ({} rows) as {} ranges", path, size, ranges);
+        ExecutorService executor = Executors.newFixedThreadPool(ranges);
+        try {
+            List<Future<TrafficAggregate>> partials = new ArrayList<>(ranges);
+            for (int r = 0; r < ranges; r++) {
+                int from = (int) ((long) size * r / ranges);
+                int to = (int) ((long) size * (r + 1) / ranges);
+                partials.add(executor.submit(() -> loadRange(from, to, topPeriods)));
+            }
+            TrafficAggregate result = new TrafficAggregate(topPeriods);
+            result.getTimeline().reserve(size);
+            for (Future<TrafficAggregate> partial : partials) {
+                result.merge(partial.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappedTrafficFileIngester.TrafficIngestionException("Interrupted while loading " + path, e);
+        } catch (ExecutionException e) {
+            throw new MappedTrafficFileIngester.TrafficIngestionException("Failed to load " + path, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TrafficAggregate loadRange(int from, int to, int topPeriods) {
+        TrafficAggregate aggregate = new TrafficAggregate(topPeriods);
+        aggregate.getTimeline().reserve(to - from);
+        int[] minutes = new int[LOAD_BLOCK_ROWS];
+        int[] counts = new int[LOAD_BLOCK_ROWS];
+        for (int row = from; row < to; row += LOAD_BLOCK_ROWS) {
+            int length = Math.min(LOAD_BLOCK_ROWS, to - row);
+            read(row, minutes, counts, length);
+            aggregate.acceptAll(minutes, counts, length);
+        }
+        return aggregate;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    public static class InvalidColumnFileException extends RuntimeException {
+        public InvalidColumnFileException(String message) {
+            super(message);
+        }
+    }
+}
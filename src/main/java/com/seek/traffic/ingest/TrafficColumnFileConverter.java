@@ -0,0 +1,107 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.parser.TrafficCsvParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts a traffic CSV file into a {@link TrafficColumnFile}, so repeated
+ * analyses of the same data map the binary columns instead of parsing text.
+ * The column file has no sensor column, so input naming sensors is rejected.
+ */
+@Slf4j
+public class TrafficColumnFileConverter {
+
+    private static final int LINES_TO_SKIP = 1; // Skip header row
+
+    private final int skipLimit;
+
+    /**
+     * @param skipLimit malformed lines tolerated before the conversion fails
+     */
+    public TrafficColumnFileConverter(int skipLimit) {
+        this.skipLimit = skipLimit;
+    }
+
+    /**
+     * Converts {@code csv} into {@code target}, replacing any existing file.
+     *
+     * @return the number of rows written
+     */
+    public long convert(Resource csv, Path target) throws IOException {
+        long start = System.nanoTime();
+        TrafficColumnFileWriter writer = new TrafficColumnFileWriter(target, sourceOf(csv));
+        try (InputStream input = GzipResource.decompressIfGzip(csv).getInputStream()) {
+            TrafficCsvParser parser = new TrafficCsvParser(input);
+            parser.skipLines(LINES_TO_SKIP);
+            TrafficCsvRowReader rows = new TrafficCsvRowReader(parser, csv.getDescription(), skipLimit);
+            while (rows.next()) {
+                if (!parser.sensorId().isEmpty()) {
+                    throw new MappedTrafficFileIngester.TrafficIngestionException("Line " + parser.lineNumber()
+                            + " of " + csv.getDescription() + " names a sensor, which the column file cannot store");
+                }
+                writer.accept(parser.epochSecond(), parser.carsCount());
+            }
+        } catch (IOException | RuntimeException e) {
+            writer.discard();
+            throw e;
+        }
+        writer.close();
+
+        log.info("Converted {} to {} ({} rows) in {} ms", csv.getDescription(), target, writer.rows(),
+                (System.nanoTime() - start) / 1_000_000);
+        return writer.rows();
+    }
+
+    /**
+     * Whether {@code target} is missing, unreadable, or was not converted from
+     * {@code csv} as it is now: another file, or one since changed in size or
+     * modification time. A missing CSV never makes an existing column file stale.
+     */
+    public boolean isStale(Resource csv, Path target) throws IOException {
+        if (!Files.exists(target)) {
+            return true;
+        }
+        if (!csv.exists()) {
+            return false;
+        }
+        TrafficColumnFile.Source recorded;
+        try {
+            recorded = TrafficColumnFile.readSource(target);
+        } catch (TrafficColumnFile.InvalidColumnFileException e) {
+            log.info("Converting {} again: {}", csv.getDescription(), e.getMessage());
+            return true;
+        }
+        if (!recorded.equals(sourceOf(csv))) {
+            log.info("{} was not converted from {} as it is now, converting again", target, csv.getDescription());
+            return true;
+        }
+        return false;
+    }
+
+    private static TrafficColumnFile.Source sourceOf(Resource csv) throws IOException {
+        long lastModified;
+        try {
+            lastModified = csv.lastModified();
+        } catch (IOException e) {
+            // Not backed by a file, e.g. an in-memory resource
+            lastModified = -1;
+        }
+        return TrafficColumnFile.Source.of(csv.contentLength(), lastModified, csv.getDescription());
+    }
+
+    /**
+     * Opens {@code target}, converting {@code csv} into it first if it is stale.
+     */
+    public TrafficColumnFile openConverted(Resource csv, Path target) throws IOException {
+        if (isStale(csv, target)) {
+            convert(csv, target);
+        }
+        return TrafficColumnFile.open(target);
+    }
+}
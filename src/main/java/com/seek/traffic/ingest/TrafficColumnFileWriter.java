@@ -0,0 +1,147 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficColumnStore;
+import com.seek.traffic.aggregate.TrafficRecordSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams rows into a {@link TrafficColumnFile}. Epoch minutes are written
+ * after the header while counts go to a side file that is appended on
+ * {@link #close()}, so memory use does not grow with the number of rows.
+ *
+ * The file is assembled under a temporary name and moved into place on
+ * close; a conversion that fails midway never leaves a file that looks
+ * complete.
+ */
+public class TrafficColumnFileWriter implements TrafficRecordSink, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final TrafficColumnFile.Source source;
+    private final Path minutesFile;
+    private final Path countsFile;
+    private final FileChannel minutesChannel;
+    private final FileChannel countsChannel;
+    private final ByteBuffer minutesBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer countsBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long rows;
+    private boolean closed;
+
+    public TrafficColumnFileWriter(Path target) throws IOException {
+        this(target, TrafficColumnFile.Source.UNKNOWN);
+    }
+
+    /**
+     * @param source identity of the CSV the rows are converted from, recorded in the header
+     */
+    public TrafficColumnFileWriter(Path target, TrafficColumnFile.Source source) throws IOException {
+        this.target = target;
+        this.source = source;
+        this.minutesFile = target.resolveSibling(target.getFileName() + ".tmp");
+        this.countsFile = target.resolveSibling(target.getFileName() + ".counts.tmp");
+        this.minutesChannel = FileChannel.open(minutesFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.countsChannel = FileChannel.open(countsFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        minutesChannel.position(TrafficColumnFile.HEADER_SIZE);
+    }
+
+    @Override
+    public void accept(long epochSecond, int carsCount) {
+        try {
+            append(TrafficColumnStore.toEpochMinute(epochSecond), carsCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + target, e);
+        }
+    }
+
+    public void append(int epochMinute, int carsCount) throws IOException {
+        if (rows == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Traffic column file is limited to " + Integer.MAX_VALUE + " rows");
+        }
+        if (!minutesBuffer.hasRemaining()) {
+            drain(minutesBuffer, minutesChannel);
+            drain(countsBuffer, countsChannel);
+        }
+        minutesBuffer.putInt(epochMinute);
+        countsBuffer.putInt(carsCount);
+        rows++;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Completes the file and moves it into place.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            drain(minutesBuffer, minutesChannel);
+            drain(countsBuffer, countsChannel);
+
+            long length = countsChannel.size();
+            long transferred = 0;
+            while (transferred < length) {
+                transferred += countsChannel.transferTo(transferred, length - transferred, minutesChannel);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(TrafficColumnFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(TrafficColumnFile.MAGIC).putInt(TrafficColumnFile.VERSION).putLong(rows)
+                    .putLong(source.size()).putLong(source.lastModified()).putLong(source.descriptionHash())
+                    .flip();
+            while (header.hasRemaining()) {
+                minutesChannel.write(header, header.position());
+            }
+        } catch (IOException | RuntimeException e) {
+            discardFiles();
+            throw e;
+        }
+        minutesChannel.close();
+        countsChannel.close();
+        Files.deleteIfExists(countsFile);
+        Files.move(minutesFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Abandons the file; the target is left untouched.
+     */
+    public void discard() throws IOException {
+        if (!closed) {
+            closed = true;
+            discardFiles();
+        }
+    }
+
+    private void discardFiles() throws IOException {
+        minutesChannel.close();
+        countsChannel.close();
+        Files.deleteIfExists(minutesFile);
+        Files.deleteIfExists(countsFile);
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,69 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.parser.TrafficCsvParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Advances a {@link TrafficCsvParser} over the well-formed rows of its
+ * input, logging and skipping malformed lines until more than the skip limit
+ * have been seen. The row itself is read from the parser.
+ */
+@Slf4j
+public class TrafficCsvRowReader {
+
+    private final TrafficCsvParser parser;
+    private final String source;
+    private final int skipLimit;
+    private final AtomicInteger skipped;
+
+    /**
+     * @param source    description of the input, for the log
+     * @param skipLimit malformed lines tolerated before reading fails
+     */
+    public TrafficCsvRowReader(TrafficCsvParser parser, String source, int skipLimit) {
+        this(parser, source, skipLimit, new AtomicInteger());
+    }
+
+    /**
+     * @param skipped count of skipped lines shared by the readers of one file,
+     *                so the skip limit applies across all of them
+     */
+    public TrafficCsvRowReader(TrafficCsvParser parser, String source, int skipLimit, AtomicInteger skipped) {
+        this.parser = parser;
+        this.source = source;
+        this.skipLimit = skipLimit;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Advances the parser to the next well-formed row.
+     *
+     * @return {@code false} once the input is exhausted
+     * @throws MappedTrafficFileIngester.TrafficIngestionException once more than
+     *                                                             the skip limit of lines were malformed
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            try {
+                return parser.next();
+            } catch (TrafficCsvParser.TrafficCsvParseException e) {
+                int count = skipped.incrementAndGet();
+                log.warn("Skipping malformed line {} of {}: {}", e.getLineNumber(), source, e.getMessage());
+                if (count > skipLimit) {
+                    throw new MappedTrafficFileIngester.TrafficIngestionException(
+                            "Skip limit of " + skipLimit + " exceeded", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of malformed lines skipped so far, by every reader sharing the count.
+     */
+    public int skipped() {
+        return skipped.get();
+    }
+}
@@ -0,0 +1,103 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficRecordSink;
+import com.seek.traffic.parser.TrafficCsvParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Follows a CSV file that is being appended to. Each {@link #poll} parses
+ * only the lines completed since the previous one; a trailing line without
+ * its newline is left for the next poll, so rows are never read twice or
+ * split while the writer is mid-line.
+ *
+ * Malformed lines are logged and skipped. If the file shrinks it is taken to
+ * have been replaced and is followed again from its first line.
+ */
+@Slf4j
+public class TrafficFileTailer {
+
+    private static final int LINES_TO_SKIP = 1; // Skip header row
+
+    private final Path file;
+    private long position;
+    private long lineNumber;
+    private long skippedLines;
+
+    public TrafficFileTailer(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Offset of the first byte not yet consumed.
+     */
+    public long position() {
+        return position;
+    }
+
+    public long skippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Feeds the rows of newly completed lines to {@code sink}.
+     *
+     * @return the number of rows fed
+     */
+    public int poll(TrafficRecordSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < position) {
+                log.warn("{} shrank from {} to {} bytes, following it again from the start", file, position, size);
+                position = 0;
+                lineNumber = 0;
+            }
+            if (size == position) {
+                return 0;
+            }
+
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, size - position);
+            int end = region.limit();
+            while (end > 0 && region.get(end - 1) != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                return 0;
+            }
+            region.limit(end);
+
+            TrafficCsvParser parser = new TrafficCsvParser(new ByteBufferInputStream(region));
+            parser.skipTo(0, lineNumber);
+            if (position == 0) {
+                parser.skipLines(LINES_TO_SKIP);
+            }
+            int rows = 0;
+            while (true) {
+                try {
+                    if (!parser.next()) {
+                        break;
+                    }
+                } catch (TrafficCsvParser.TrafficCsvParseException e) {
+                    skippedLines++;
+                    log.warn("Skipping malformed line {} of {}: {}", e.getLineNumber(), file, e.getMessage());
+                    continue;
+                }
+                sink.accept(parser.epochSecond(), parser.carsCount(), parser.sensorId());
+                rows++;
+            }
+
+            position += end;
+            lineNumber = parser.lineNumber();
+            return rows;
+        }
+    }
+}
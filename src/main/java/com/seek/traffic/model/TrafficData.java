@@ -16,6 +16,11 @@ public class TrafficData {
     private int carsCount;
     private int Count;
 
+    /**
+     * Sensor that counted the cars; null or empty when the input names no sensors.
+     */
+    private String sensorId;
+
     public boolean isValid() {
         return timestamp != null && carsCount >= 0;
     }
@@ -0,0 +1,22 @@
+package com.seek.traffic.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficWindow {
+
+    private LocalDateTime startTimestamp;
+    private long totalCars;
+
+    public boolean isValid() {
+        return startTimestamp != null && totalCars >= 0;
+    }
+}
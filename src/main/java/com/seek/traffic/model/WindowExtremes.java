@@ -0,0 +1,27 @@
+package com.seek.traffic.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Quietest and busiest windows of one length; both are null when no window
+ * of that length is fully recorded.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowExtremes {
+
+    private Duration length;
+    private TrafficWindow quietest;
+    private TrafficWindow busiest;
+
+    public boolean isEmpty() {
+        return quietest == null;
+    }
+}
@@ -0,0 +1,213 @@
+package com.seek.traffic.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Exception-free timestamp parser for the layouts in
+ * {@link TimestampFormats#SUPPORTED_FORMATTERS}.
+ *
+ * The first row that matches a layout fixes the file's format; later rows are
+ * decoded from fixed digit positions of that layout, then of the other
+ * layouts. Only text that matches none of them, or whose values are out of
+ * range (which the formatters resolve leniently), goes through
+ * {@link TimestampFormats#parse(String)}.
+ *
+ * Instances remember the detected layout; a row in another layout only costs
+ * the extra fixed-position checks.
+ */
+@Slf4j
+public class FastTimestampParser {
+
+    static final long NO_MATCH = Long.MIN_VALUE;
+
+    private static final Layout[] LAYOUTS = Layout.values();
+
+    private volatile Layout detectedLayout;
+
+    /**
+     * Layouts in the same order as {@link TimestampFormats#SUPPORTED_FORMATTERS}.
+     */
+    public enum Layout {
+        ISO_T_SECONDS("yyyy-MM-dd'T'HH:mm:ss", true, (byte) '-', (byte) 'T', true),
+        ISO_SECONDS("yyyy-MM-dd HH:mm:ss", true, (byte) '-', (byte) ' ', true),
+        ISO_MINUTES("yyyy-MM-dd HH:mm", true, (byte) '-', (byte) ' ', false),
+        US_SECONDS("MM/dd/yyyy HH:mm:ss", false, (byte) '/', (byte) ' ', true),
+        US_MINUTES("MM/dd/yyyy HH:mm", false, (byte) '/', (byte) ' ', false);
+
+        private final String pattern;
+        private final boolean yearFirst;
+        private final byte dateSeparator;
+        private final byte dateTimeSeparator;
+        private final boolean withSeconds;
+
+        Layout(String pattern, boolean yearFirst, byte dateSeparator, byte dateTimeSeparator, boolean withSeconds) {
+            this.pattern = pattern;
+            this.yearFirst = yearFirst;
+            this.dateSeparator = dateSeparator;
+            this.dateTimeSeparator = dateTimeSeparator;
+            this.withSeconds = withSeconds;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Decodes {@code b[from, to)} as seconds since the epoch, or returns
+         * {@link #NO_MATCH} if the text does not fit this layout or holds a
+         * value the formatters would have to resolve leniently.
+         */
+        long decode(byte[] b, int from, int to) {
+            if (to - from != (withSeconds ? 19 : 16)) {
+                return NO_MATCH;
+            }
+
+            int year;
+            int month;
+            int day;
+            if (yearFirst) {
+                if (b[from + 4] != dateSeparator || b[from + 7] != dateSeparator) {
+                    return NO_MATCH;
+                }
+                year = digits(b, from, 4);
+                month = digits(b, from + 5, 2);
+                day = digits(b, from + 8, 2);
+            } else {
+                if (b[from + 2] != dateSeparator || b[from + 5] != dateSeparator) {
+                    return NO_MATCH;
+                }
+                month = digits(b, from, 2);
+                day = digits(b, from + 3, 2);
+                year = digits(b, from + 6, 4);
+            }
+
+            if (b[from + 10] != dateTimeSeparator || b[from + 13] != ':') {
+                return NO_MATCH;
+            }
+            int hour = digits(b, from + 11, 2);
+            int minute = digits(b, from + 14, 2);
+            int second = 0;
+            if (withSeconds) {
+                if (b[from + 16] != ':') {
+                    return NO_MATCH;
+                }
+                second = digits(b, from + 17, 2);
+            }
+
+            if ((year | month | day | hour | minute | second) < 0
+                    || year < 1
+                    || month < 1 || month > 12
+                    || day < 1 || day > lengthOfMonth(year, month)
+                    || hour > 23 || minute > 59 || second > 59) {
+                return NO_MATCH;
+            }
+
+            return epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        }
+    }
+
+    /**
+     * Parses {@code b[from, to)} (already trimmed) into seconds since the epoch
+     * of the local date-time.
+     *
+     * @throws java.time.format.DateTimeParseException if no supported format matches
+     */
+    public long parseEpochSecond(byte[] b, int from, int to) {
+        long decoded = decodeFast(b, from, to);
+        if (decoded != NO_MATCH) {
+            return decoded;
+        }
+        String text = new String(b, from, to - from, StandardCharsets.ISO_8859_1);
+        return TimestampFormats.parse(text).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * String counterpart of {@link #parseEpochSecond(byte[], int, int)} for the
+     * field set mapping path.
+     */
+    public LocalDateTime parse(String timestampStr) {
+        if (timestampStr == null || timestampStr.isBlank()) {
+            throw new IllegalArgumentException("Timestamp cannot be null or empty");
+        }
+        String trimmed = timestampStr.trim();
+        byte[] b = trimmed.getBytes(StandardCharsets.ISO_8859_1);
+
+        long decoded = decodeFast(b, 0, b.length);
+        if (decoded != NO_MATCH) {
+            return LocalDateTime.ofEpochSecond(decoded, 0, ZoneOffset.UTC);
+        }
+        return TimestampFormats.parse(trimmed);
+    }
+
+    /**
+     * Layout detected from the first matching row, or {@code null} before any row matched.
+     */
+    public Layout getDetectedLayout() {
+        return detectedLayout;
+    }
+
+    private long decodeFast(byte[] b, int from, int to) {
+        Layout layout = detectedLayout;
+        if (layout != null) {
+            long decoded = layout.decode(b, from, to);
+            if (decoded != NO_MATCH) {
+                return decoded;
+            }
+        }
+
+        for (Layout candidate : LAYOUTS) {
+            if (candidate == layout) {
+                continue;
+            }
+            long decoded = candidate.decode(b, from, to);
+            if (decoded != NO_MATCH) {
+                if (layout == null) {
+                    detectedLayout = candidate;
+                    log.debug("Detected timestamp format {}", candidate.getPattern());
+                }
+                return decoded;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Reads {@code count} ASCII digits, returning -1 if any byte is not a digit.
+     */
+    static int digits(byte[] b, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = b[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date, without going
+     * through {@code LocalDate}.
+     */
+    static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
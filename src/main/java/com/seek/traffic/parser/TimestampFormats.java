@@ -0,0 +1,70 @@
+package com.seek.traffic.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Timestamp layouts accepted in traffic CSV files, and the formatter-based
+ * parsing path shared by every reader. {@link FastTimestampParser} handles
+ * the common cases without going through the formatters.
+ */
+@Slf4j
+public final class TimestampFormats {
+
+    public static final DateTimeFormatter[] SUPPORTED_FORMATTERS = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
+    };
+
+    private TimestampFormats() {
+    }
+
+    public static LocalDateTime parse(String timestampStr) throws DateTimeParseException {
+        if (timestampStr == null || timestampStr.trim().isEmpty()) {
+            throw new IllegalArgumentException("Timestamp cannot be null or empty");
+        }
+
+        timestampStr = timestampStr.trim();
+
+        for (DateTimeFormatter formatter : SUPPORTED_FORMATTERS) {
+            LocalDateTime parsed = tryParse(timestampStr, formatter);
+            if (parsed != null) {
+                return parsed;
+            }
+            log.trace("Failed to parse timestamp '{}' with format '{}'",
+                    timestampStr, formatter.toString());
+        }
+
+        throw new DateTimeParseException(
+                "Unable to parse timestamp: " + timestampStr +
+                        ". Supported formats: yyyy-MM-dd'T'HH:mm:ss, yyyy-MM-dd HH:mm:ss, yyyy-MM-dd HH:mm, MM/dd/yyyy HH:mm:ss, MM/dd/yyyy HH:mm",
+                timestampStr, 0);
+    }
+
+    /**
+     * Checks the layout with {@link DateTimeFormatter#parseUnresolved}, which
+     * reports a mismatch through the {@link ParsePosition} instead of throwing,
+     * and only runs the full parse for text that fits the layout. Values that
+     * fit but fail to resolve still throw internally.
+     */
+    private static LocalDateTime tryParse(String text, DateTimeFormatter formatter) {
+        ParsePosition position = new ParsePosition(0);
+        if (formatter.parseUnresolved(text, position) == null
+                || position.getErrorIndex() >= 0
+                || position.getIndex() != text.length()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text, formatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.seek.traffic.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level parser for {@code timestamp,cars_count[,sensor_id]} CSV content.
+ *
+ * Lines are scanned in place inside a single reused buffer and both columns are
+ * decoded straight into primitives, so the steady-state read path allocates
+ * nothing per row. Timestamps are exposed as seconds since the epoch of the
+ * local date-time (as if it were UTC), which converts back losslessly through
+ * {@code LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC)}.
+ *
+ * Timestamps are decoded by a {@link FastTimestampParser} that detects the
+ * file's layout from its first rows, so the accepted inputs are the same as
+ * for the formatter-based reader.
+ *
+ * The optional third column names the sensor that counted the row. Rows of
+ * one sensor usually come together, so the sensor id string is only created
+ * when it differs from the previous row's.
+ */
+public class TrafficCsvParser implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private final FastTimestampParser timestampParser = new FastTimestampParser();
+    private byte[] buffer;
+    private long bufferOffset;
+    private int position;
+    private int limit;
+    private int lineEnd;
+    private boolean endOfInput;
+    private long lineNumber;
+
+    private long epochSecond;
+    private int carsCount;
+    private String sensorId = "";
+    private byte[] sensorBytes = new byte[0];
+
+    public TrafficCsvParser(InputStream input) {
+        this(input, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TrafficCsvParser(InputStream input, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.input = input;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Discards the next {@code count} lines without parsing them.
+     */
+    public void skipLines(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (nextLineEnd() < 0) {
+                return;
+            }
+            consumeLine();
+        }
+    }
+
+    /**
+     * Advances to the next non-blank line and decodes it.
+     *
+     * @return {@code false} once the input is exhausted
+     * @throws TrafficCsvParseException if the line is malformed; the line is
+     *                                  consumed, so parsing can continue with the next one
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int end = nextLineEnd();
+            if (end < 0) {
+                return false;
+            }
+            int start = position;
+            consumeLine();
+
+            if (end > start && buffer[end - 1] == '\r') {
+                end--;
+            }
+            if (isBlank(buffer, start, end)) {
+                continue;
+            }
+            parseLine(buffer, start, end);
+            return true;
+        }
+    }
+
+    /**
+     * Positions a freshly created parser at {@code byteOffset} of the input,
+     * as previously reported by {@link #byteOffset()}, without reading the
+     * bytes before it.
+     *
+     * @param lineNumber number of lines before {@code byteOffset}
+     */
+    public void skipTo(long byteOffset, long lineNumber) throws IOException {
+        if (bufferOffset != 0 || limit != 0) {
+            throw new IllegalStateException("Parser can only skip before it has read any input");
+        }
+        input.skipNBytes(byteOffset);
+        this.bufferOffset = byteOffset;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Offset in the input of the first byte not yet consumed; a parser
+     * resumed there with {@link #skipTo(long, long)} continues with the next line.
+     */
+    public long byteOffset() {
+        return bufferOffset + position;
+    }
+
+    public long epochSecond() {
+        return epochSecond;
+    }
+
+    public int carsCount() {
+        return carsCount;
+    }
+
+    /**
+     * Sensor id of the current row, or an empty string if the row has none.
+     */
+    public String sensorId() {
+        return sensorId;
+    }
+
+    /**
+     * One-based number of the line most recently consumed.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Locates the end of the line starting at {@link #position}, refilling the
+     * buffer as needed. Sets {@link #lineEnd} to the index of the terminating
+     * newline (or {@link #limit} for a final unterminated line) and returns the
+     * exclusive end of the line content, or -1 at end of input.
+     */
+    private int nextLineEnd() throws IOException {
+        int scanFrom = position;
+        while (true) {
+            for (int i = scanFrom; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    lineNumber++;
+                    lineEnd = i;
+                    return i;
+                }
+            }
+            if (endOfInput) {
+                if (position < limit) {
+                    lineNumber++;
+                    lineEnd = limit;
+                    return limit;
+                }
+                return -1;
+            }
+            scanFrom = limit - position;
+            fill();
+        }
+    }
+
+    private void consumeLine() {
+        position = Math.min(lineEnd + 1, limit);
+    }
+
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        if (remaining == buffer.length) {
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, position, grown, 0, remaining);
+            buffer = grown;
+        } else if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        }
+        bufferOffset += position;
+        position = 0;
+        limit = remaining;
+
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private void parseLine(byte[] line, int start, int end) {
+        int comma = -1;
+        int sensorComma = -1;
+        for (int i = start; i < end; i++) {
+            if (line[i] == ',') {
+                if (sensorComma >= 0) {
+                    throw new TrafficCsvParseException(lineNumber,
+                            "Incorrect number of tokens found in record: expected 2 or 3 actual 4 or more");
+                }
+                if (comma >= 0) {
+                    sensorComma = i;
+                } else {
+                    comma = i;
+                }
+            }
+        }
+        if (comma < 0) {
+            throw new TrafficCsvParseException(lineNumber,
+                    "Incorrect number of tokens found in record: expected 2 or 3 actual 1");
+        }
+
+        long timestamp = parseTimestamp(line, start, comma);
+        int count = parseCarsCount(line, comma + 1, sensorComma < 0 ? end : sensorComma);
+
+        if (count < 0) {
+            throw new TrafficCsvParseException(lineNumber, "Cars count cannot be negative: " + count);
+        }
+
+        this.epochSecond = timestamp;
+        this.carsCount = count;
+        if (sensorComma < 0) {
+            setSensorId(line, 0, 0);
+        } else {
+            parseSensorId(line, sensorComma + 1, end);
+        }
+    }
+
+    private void parseSensorId(byte[] line, int from, int to) {
+        while (from < to && isWhitespace(line[from])) {
+            from++;
+        }
+        while (to > from && isWhitespace(line[to - 1])) {
+            to--;
+        }
+        if (to - from >= 2 && line[from] == '"' && line[to - 1] == '"') {
+            from++;
+            to--;
+        }
+        setSensorId(line, from, to);
+    }
+
+    private void setSensorId(byte[] line, int from, int to) {
+        if (Arrays.equals(line, from, to, sensorBytes, 0, sensorBytes.length)) {
+            return;
+        }
+        sensorBytes = Arrays.copyOfRange(line, from, to);
+        sensorId = new String(sensorBytes, StandardCharsets.UTF_8);
+    }
+
+    private long parseTimestamp(byte[] line, int from, int to) {
+        while (from < to && isWhitespace(line[from])) {
+            from++;
+        }
+        while (to > from && isWhitespace(line[to - 1])) {
+            to--;
+        }
+        if (to - from >= 2 && line[from] == '"' && line[to - 1] == '"') {
+            from++;
+            to--;
+        }
+
+        try {
+            return timestampParser.parseEpochSecond(line, from, to);
+        } catch (RuntimeException e) {
+            throw new TrafficCsvParseException(lineNumber, e.getMessage(), e);
+        }
+    }
+
+    static int parseCarsCount(byte[] line, int from, int to, long lineNumber) {
+        while (from < to && isWhitespace(line[from])) {
+            from++;
+        }
+        while (to > from && isWhitespace(line[to - 1])) {
+            to--;
+        }
+        if (to - from >= 2 && line[from] == '"' && line[to - 1] == '"') {
+            from++;
+            to--;
+        }
+
+        boolean negative = false;
+        if (from < to && (line[from] == '-' || line[from] == '+')) {
+            negative = line[from] == '-';
+            from++;
+        }
+        if (from == to) {
+            throw new TrafficCsvParseException(lineNumber, "Cars count is missing or not a number");
+        }
+
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new TrafficCsvParseException(lineNumber, "Cars count is not a valid integer: "
+                        + new String(line, from, to - from, StandardCharsets.US_ASCII));
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new TrafficCsvParseException(lineNumber, "Cars count is out of range");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new TrafficCsvParseException(lineNumber, "Cars count is out of range");
+        }
+        return (int) value;
+    }
+
+    private int parseCarsCount(byte[] line, int from, int to) {
+        return parseCarsCount(line, from, to, lineNumber);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isBlank(byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isWhitespace(b[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static class TrafficCsvParseException extends RuntimeException {
+        private final long lineNumber;
+
+        public TrafficCsvParseException(long lineNumber, String message) {
+            super(message);
+            this.lineNumber = lineNumber;
+        }
+
+        public TrafficCsvParseException(long lineNumber, String message, Throwable cause) {
+            super(message, cause);
+            this.lineNumber = lineNumber;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+    }
+}
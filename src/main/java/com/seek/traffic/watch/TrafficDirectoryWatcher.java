@@ -0,0 +1,140 @@
+package com.seek.traffic.watch;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.batch.TrafficDataWriter;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.ingest.TrafficFileTailer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running ingestion of a landing directory. Every CSV file matching
+ * {@code traffic.watch.pattern} is tailed, and only lines appended since the
+ * last check are folded into the processor's aggregates. The report is
+ * rewritten from those aggregates when new rows arrived, at most once per
+ * {@code traffic.watch.report-interval}.
+ *
+ * A {@link WatchService} wakes the loop as soon as a file is created or
+ * modified; the files are also checked every {@code traffic.watch.poll-interval}
+ * in case the platform drops or coalesces events.
+ *
+ * The process runs indefinitely, so no raw records are kept: each row only
+ * updates the bounded daily, half-hour and top-K aggregates, and memory and
+ * report cost follow the time span covered rather than the rows read.
+ *
+ * Only created when {@code traffic.watch.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "traffic.watch", name = "enabled")
+@RequiredArgsConstructor
+public class TrafficDirectoryWatcher {
+
+    private final TrafficProperties trafficProperties;
+    private final TrafficDataProcessor processor;
+    private final TrafficDataWriter trafficDataWriter;
+
+    private final Map<Path, TrafficFileTailer> tailers = new TreeMap<>();
+    private volatile boolean running;
+
+    /**
+     * Tails the directory until {@link #stop()} is called or the thread is interrupted.
+     */
+    public void run() throws IOException {
+        TrafficProperties.Watch watch = trafficProperties.getWatch();
+        Path directory = Path.of(watch.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            throw new NoSuchFileException(directory.toString(), null, "Watched directory does not exist");
+        }
+
+        long reportIntervalNanos = watch.getReportInterval().toNanos();
+        long pollIntervalMillis = Math.max(1, watch.getPollInterval().toMillis());
+        log.info("Watching {} for {} (report every {})", directory.toAbsolutePath(), watch.getPattern(),
+                watch.getReportInterval());
+
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            running = true;
+
+            boolean reportDue = scan(directory) > 0;
+            long lastReport = System.nanoTime() - reportIntervalNanos;
+            while (running) {
+                if (reportDue && System.nanoTime() - lastReport >= reportIntervalNanos) {
+                    trafficDataWriter.writeReport();
+                    lastReport = System.nanoTime();
+                    reportDue = false;
+                }
+
+                WatchKey key = watchService.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    // Events only wake the loop; the scan finds what changed
+                    key.pollEvents();
+                    key.reset();
+                }
+                if (scan(directory) > 0) {
+                    reportDue = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Interrupted, no longer watching {}", directory);
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Folds the rows appended to every matching file since the last scan
+     * into the processor, one aggregate per file.
+     *
+     * @return the number of new rows
+     */
+    long scan(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, trafficProperties.getWatch().getPattern())) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    tailers.computeIfAbsent(file, TrafficFileTailer::new);
+                }
+            }
+        }
+
+        long rows = 0;
+        int topPeriods = trafficProperties.getReport().getTopPeriods();
+        for (TrafficFileTailer tailer : tailers.values()) {
+            TrafficAggregate aggregate = new TrafficAggregate(topPeriods, false);
+            try {
+                rows += tailer.poll(aggregate);
+            } catch (NoSuchFileException e) {
+                log.debug("{} disappeared before it could be read", tailer.getFile());
+                continue;
+            }
+            if (aggregate.size() > 0) {
+                processor.mergeAggregate(aggregate);
+                log.debug("Read {} new rows from {}", aggregate.size(), tailer.getFile());
+            }
+        }
+        tailers.keySet().removeIf(file -> !Files.exists(file));
+        return rows;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+}
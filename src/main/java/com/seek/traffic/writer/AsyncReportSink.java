@@ -0,0 +1,151 @@
+package com.seek.traffic.writer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hands lines to a single writer thread through a bounded queue, so the
+ * thread producing the report only pays for an enqueue per line. The writer
+ * thread drains the queue in batches into the delegate sink, which does the
+ * buffering. A full queue blocks producers until the writer catches up.
+ *
+ * {@link #flush()} waits until every line queued before it has been written
+ * and the delegate flushed. A failure on the writer thread is rethrown to
+ * every later caller; lines queued after it are dropped.
+ */
+@Slf4j
+public class AsyncReportSink implements ReportSink {
+
+    private static final int MAX_BATCH = 1024;
+    private static final Object CLOSE = new Object();
+
+    private final ReportSink delegate;
+    private final BlockingQueue<Object> queue;
+    private final Thread writerThread;
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    public AsyncReportSink(ReportSink delegate, int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::drainQueue, "traffic-report-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void writeLine(String line) {
+        checkOpen();
+        enqueue(String.valueOf(line));
+    }
+
+    @Override
+    public void flush() {
+        checkOpen();
+        CountDownLatch flushed = new CountDownLatch(1);
+        enqueue(flushed);
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AsyncReportWriteException("Interrupted waiting for the report to be written", e);
+        }
+        rethrowFailure();
+    }
+
+    /**
+     * Writes and flushes the queued lines, then stops the writer thread and
+     * closes the delegate.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        enqueue(CLOSE);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AsyncReportWriteException("Interrupted waiting for the report writer to stop", e);
+        }
+        rethrowFailure();
+    }
+
+    private void enqueue(Object element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AsyncReportWriteException("Interrupted queueing a report line", e);
+        }
+    }
+
+    private void drainQueue() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                log.warn("Report writer interrupted, {} queued lines dropped", queue.size());
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            for (Object element : batch) {
+                if (element == CLOSE) {
+                    run(delegate::close);
+                    return;
+                }
+                if (element instanceof CountDownLatch flushed) {
+                    run(delegate::flush);
+                    flushed.countDown();
+                } else {
+                    run(() -> delegate.writeLine((String) element));
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void run(Runnable write) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            log.error("Report writer failed", e);
+            failure = e;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Report sink is closed");
+        }
+        rethrowFailure();
+    }
+
+    private void rethrowFailure() {
+        RuntimeException e = failure;
+        if (e != null) {
+            throw new AsyncReportWriteException("Report writer failed", e);
+        }
+    }
+
+    public static class AsyncReportWriteException extends RuntimeException {
+        public AsyncReportWriteException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,29 +1,41 @@
 package com.seek.traffic.writer;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.util.concurrent.locks.ReentrantLock;
 
 
+/**
+ * Writes the report to standard output through a buffer, so a report of any
+ * length costs a system call per buffer rather than per line. Lines show up
+ * when the buffer fills or the report is flushed.
+ */
 @Slf4j
-@Component
-public class ConsoleWriter {
-    
+public class ConsoleWriter implements ReportSink {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
     private final PrintWriter writer;
     private final ReentrantLock writeLock = new ReentrantLock();
     
     public ConsoleWriter() {
-        this.writer = new PrintWriter(System.out, true);
+        this(System.out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ConsoleWriter(PrintStream out, int bufferSize) {
+        this.writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out), bufferSize), false);
     }
     
 
+    @Override
     public void writeLine(String line) {
         writeLock.lock();
         try {
             writer.println(line);
-            writer.flush();
             log.trace("Console output: {}", line);
         } catch (Exception e) {
             log.error("Failed to write line to console: {}", line, e);
@@ -32,6 +44,19 @@ public class ConsoleWriter {
             writeLock.unlock();
         }
     }
+
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            writer.flush();
+            if (writer.checkError()) {
+                throw new ConsoleWriteException("Error writing to console", null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
     
 
     public static class ConsoleWriteException extends RuntimeException {
@@ -39,4 +64,4 @@ public class ConsoleWriter {
             super(message, cause);
         }
     }
-}
\ No newline at end of file
+}
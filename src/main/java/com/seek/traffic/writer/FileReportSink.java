@@ -0,0 +1,146 @@
+package com.seek.traffic.writer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes each report to a file through a direct byte buffer and a
+ * {@link FileChannel}, encoding lines as UTF-8 straight into the buffer and
+ * writing it out only when it is full.
+ *
+ * A report is written to a temporary file next to the target and moved over
+ * the target on {@link #flush()}, so readers of the file always see a whole
+ * report: the previous one until the next is complete. A report left
+ * unfinished when the sink is closed is discarded.
+ */
+@Slf4j
+public class FileReportSink implements ReportSink {
+
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+
+    private final Path target;
+    private final Path temporary;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private FileChannel channel;
+
+    public FileReportSink(Path target, int bufferSize) {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    @Override
+    public void writeLine(String line) {
+        writeLock.lock();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            encode(CharBuffer.wrap(String.valueOf(line)));
+            encode(CharBuffer.wrap(LINE_SEPARATOR));
+        } catch (IOException e) {
+            throw new ReportFileWriteException("Error writing report to " + temporary, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes out the buffer and replaces the target with the report written
+     * since the previous flush.
+     */
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            drain();
+            channel.close();
+            channel = null;
+            moveIntoPlace();
+            log.debug("Report written to {}", target);
+        } catch (IOException e) {
+            throw new ReportFileWriteException("Error writing report to " + target, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            channel.close();
+            channel = null;
+            buffer.clear();
+            Files.deleteIfExists(temporary);
+            log.warn("Discarded unfinished report {}", temporary);
+        } catch (IOException e) {
+            throw new ReportFileWriteException("Error discarding unfinished report " + temporary, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isUnderflow()) {
+                return;
+            }
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void moveIntoPlace() throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static class ReportFileWriteException extends RuntimeException {
+        public ReportFileWriteException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.seek.traffic.writer;
+
+/**
+ * Destination of the report's lines. Lines may be buffered until
+ * {@link #flush()}, which the report writer calls once a report is complete,
+ * or until the sink's buffer fills up.
+ */
+public interface ReportSink extends AutoCloseable {
+
+    void writeLine(String line);
+
+    /**
+     * Completes the lines written so far: once it returns they have reached
+     * their destination.
+     */
+    void flush();
+
+    /**
+     * Flushes what is left and releases the sink; called when the
+     * application shuts down.
+     */
+    @Override
+    default void close() {
+        flush();
+    }
+}
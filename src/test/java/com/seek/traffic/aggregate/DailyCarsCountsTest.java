@@ -0,0 +1,135 @@
+package com.seek.traffic.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Daily Cars Counts Tests")
+class DailyCarsCountsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 12, 5);
+
+    @Test
+    @DisplayName("Should visit days in date order whatever order they were added in")
+    void shouldVisitDaysInDateOrder() {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        counts.add(DAY, 81);
+        counts.add(DAY.plusDays(3), 134);
+        counts.add(DAY.minusDays(4), 179);
+        counts.add(DAY.minusDays(400), 1);
+        counts.add(DAY.plusDays(4), 4);
+
+        assertEquals(List.of(
+                DAY.minusDays(400) + "=1",
+                DAY.minusDays(4) + "=179",
+                DAY + "=81",
+                DAY.plusDays(3) + "=134",
+                DAY.plusDays(4) + "=4"), visit(counts));
+        assertEquals(5, counts.size());
+    }
+
+    @Test
+    @DisplayName("Should accumulate totals beyond the int range")
+    void shouldAccumulateBeyondIntRange() {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        for (int i = 0; i < 3; i++) {
+            counts.add(DAY, Integer.MAX_VALUE);
+        }
+
+        assertEquals(3L * Integer.MAX_VALUE, counts.get(DAY));
+    }
+
+    @Test
+    @DisplayName("Should list days whose records add up to zero cars")
+    void shouldListDaysWithZeroCars() {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        counts.add(DAY, 0);
+
+        assertTrue(counts.contains(DAY));
+        assertFalse(counts.contains(DAY.plusDays(1)));
+        assertEquals(0, counts.get(DAY.plusDays(1000)));
+        assertEquals(List.of(DAY + "=0"), visit(counts));
+    }
+
+    @Test
+    @DisplayName("Should add up counts from another instance")
+    void shouldAddAll() {
+        DailyCarsCounts first = new DailyCarsCounts();
+        first.add(DAY, 10);
+        first.add(DAY.plusDays(1), 5);
+        DailyCarsCounts second = new DailyCarsCounts();
+        second.add(DAY.minusDays(100), 7);
+        second.add(DAY, 3);
+
+        first.addAll(second);
+
+        DailyCarsCounts expected = new DailyCarsCounts();
+        expected.add(DAY.minusDays(100), 7);
+        expected.add(DAY, 13);
+        expected.add(DAY.plusDays(1), 5);
+        assertEquals(expected, first);
+        assertEquals(expected.hashCode(), first.hashCode());
+    }
+
+    @Test
+    @DisplayName("Should keep days far apart and before the epoch")
+    void shouldKeepDaysFarApart() {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        counts.add(LocalDate.of(1969, 12, 31), 3);
+        counts.add(DAY, 10);
+        counts.add(LocalDate.of(5000, 1, 1), 1);
+        DailyCarsCounts other = new DailyCarsCounts();
+        other.add(LocalDate.of(1900, 6, 1), 2);
+        other.add(LocalDate.of(5000, 1, 1), 4);
+
+        counts.addAll(other);
+
+        assertEquals(List.of("1900-06-01=2", "1969-12-31=3", DAY + "=10", "5000-01-01=5"), visit(counts));
+        assertEquals(4, counts.size());
+        assertFalse(counts.contains(LocalDate.of(1970, 1, 1)));
+        assertEquals(0, counts.get(LocalDate.of(4999, 12, 31)));
+    }
+
+    @Test
+    @DisplayName("Should keep many far-apart days added in no particular order")
+    void shouldKeepManyFarApartDays() {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            expected.add(DAY.plusDays(1000L * i) + "=" + i);
+        }
+        for (int i = 0; i < 40; i++) {
+            int step = (i * 17) % 40;
+            counts.add(DAY.plusDays(1000L * step), step);
+        }
+
+        assertEquals(expected, visit(counts));
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, counts.get(DAY.plusDays(1000L * i)));
+            assertFalse(counts.contains(DAY.plusDays(1000L * i + 500)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should be empty after clear")
+    void shouldBeEmptyAfterClear() {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        counts.add(DAY, 10);
+
+        counts.clear();
+        counts.add(DAY.minusDays(10), 2);
+
+        assertEquals(List.of(DAY.minusDays(10) + "=2"), visit(counts));
+    }
+
+    private static List<String> visit(DailyCarsCounts counts) {
+        List<String> days = new ArrayList<>();
+        counts.forEach((date, totalCars) -> days.add(date + "=" + totalCars));
+        return days;
+    }
+}
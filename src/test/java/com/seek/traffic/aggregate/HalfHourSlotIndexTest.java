@@ -0,0 +1,223 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+import com.seek.traffic.model.TopHalfHour;
+import com.seek.traffic.model.TrafficWindow;
+import com.seek.traffic.model.WindowExtremes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Half-Hour Slot Index Tests")
+class HalfHourSlotIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 12, 1, 5, 0);
+
+    @Test
+    @DisplayName("Should total the slots starting within a half-open range")
+    void shouldTotalHalfOpenRange() {
+        HalfHourSlotIndex index = indexOf(START, 5, 12, 14, 15, 25, 46);
+
+        assertEquals(117, index.totalBetween(START, START.plusHours(3)));
+        assertEquals(26, index.totalBetween(START.plusMinutes(30), START.plusMinutes(90)));
+        assertEquals(0, index.totalBetween(START.plusHours(1), START.plusHours(1)));
+        assertEquals(0, index.totalBetween(START.plusHours(2), START.plusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Should start a range at the first slot beginning at or after it")
+    void shouldAlignRangeToSlotStarts() {
+        HalfHourSlotIndex index = indexOf(START, 5, 12, 14);
+
+        assertEquals(26, index.totalBetween(START.plusMinutes(1), START.plusMinutes(90)));
+        assertEquals(17, index.totalBetween(START, START.plusMinutes(31)));
+    }
+
+    @Test
+    @DisplayName("Should clamp ranges reaching beyond the recorded slots")
+    void shouldClampRangesBeyondData() {
+        HalfHourSlotIndex index = indexOf(START, 5, 12, 14);
+
+        assertEquals(31, index.totalBetween(START.minusDays(30), START.plusDays(30)));
+        assertEquals(0, index.totalBetween(START.minusDays(2), START.minusDays(1)));
+        assertEquals(0, index.totalBetween(START.plusDays(1), START.plusDays(2)));
+        assertEquals(0, new HalfHourSlotIndex().totalBetween(START, START.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should answer around an outlier slot without spanning the gap to it")
+    void shouldAnswerAroundOutlier() {
+        LocalDateTime outlier = LocalDateTime.of(5000, 1, 1, 0, 0);
+        HalfHourSlotIndex index = indexOf(START, 5, 12, 14);
+        index.add(epochMinute(outlier), 1);
+
+        assertEquals(4, index.size());
+        assertEquals(31, index.totalBetween(START, START.plusDays(1)));
+        assertEquals(32, index.totalBetween(START, outlier.plusMinutes(30)));
+        assertEquals(1, index.totalBetween(START.plusDays(1), outlier.plusYears(1)));
+        assertEquals(period(START, 31), index.quietestWindow(3).orElseThrow());
+        assertEquals(Optional.empty(), index.quietestWindow(4));
+        assertEquals(window(outlier, 1), index.windowExtremes(1).get(0).getQuietest());
+    }
+
+    @Test
+    @DisplayName("Should put records sharing a half hour in the same slot")
+    void shouldShareSlotWithinHalfHour() {
+        HalfHourSlotIndex index = new HalfHourSlotIndex();
+        index.add(epochMinute(START), 4);
+        index.add(epochMinute(START.plusMinutes(10)), 6);
+        index.add(epochMinute(START.plusMinutes(29)), 1);
+
+        assertEquals(1, index.size());
+        assertEquals(11, index.totalBetween(START, START.plusMinutes(30)));
+    }
+
+    @Test
+    @DisplayName("Should find the quietest window of any number of slots")
+    void shouldFindQuietestWindow() {
+        HalfHourSlotIndex index = indexOf(START, 20, 5, 12, 14, 15, 25, 46);
+
+        assertEquals(period(START.plusMinutes(30), 5), index.quietestWindow(1).orElseThrow());
+        assertEquals(period(START.plusMinutes(30), 17), index.quietestWindow(2).orElseThrow());
+        assertEquals(period(START.plusMinutes(30), 31), index.quietestWindow(3).orElseThrow());
+        assertEquals(period(START, 137), index.quietestWindow(7).orElseThrow());
+        assertEquals(Optional.empty(), index.quietestWindow(8));
+    }
+
+    @Test
+    @DisplayName("Should only consider windows whose slots all have records")
+    void shouldSkipWindowsOverGaps() {
+        HalfHourSlotIndex index = indexOf(START, 50, 40, 30);
+        index.addAll(indexOf(START.plusHours(2), 9, 1));
+
+        assertEquals(period(START.plusHours(2), 10), index.quietestWindow(2).orElseThrow());
+        assertEquals(period(START, 120), index.quietestWindow(3).orElseThrow());
+        assertEquals(period(START.plusHours(2).plusMinutes(30), 1), index.quietestWindow(1).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should report the earliest of equally quiet windows")
+    void shouldPreferEarliestOnTies() {
+        HalfHourSlotIndex index = indexOf(START, 3, 4, 5, 2, 9);
+
+        assertEquals(period(START, 7), index.quietestWindow(2).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should find the quietest and busiest window of several lengths together")
+    void shouldFindExtremesOfSeveralLengths() {
+        HalfHourSlotIndex index = indexOf(START, 20, 5, 12, 14, 15, 25, 46);
+
+        List<WindowExtremes> extremes = index.windowExtremes(2, 1, 3, 8);
+
+        assertEquals(List.of(Duration.ofHours(1), Duration.ofMinutes(30), Duration.ofMinutes(90), Duration.ofHours(4)),
+                extremes.stream().map(WindowExtremes::getLength).toList());
+        assertEquals(window(START.plusMinutes(30), 17), extremes.get(0).getQuietest());
+        assertEquals(window(START.plusMinutes(150), 71), extremes.get(0).getBusiest());
+        assertEquals(window(START.plusMinutes(30), 5), extremes.get(1).getQuietest());
+        assertEquals(window(START.plusHours(3), 46), extremes.get(1).getBusiest());
+        assertEquals(window(START.plusMinutes(30), 31), extremes.get(2).getQuietest());
+        assertEquals(window(START.plusHours(2), 86), extremes.get(2).getBusiest());
+        assertTrue(extremes.get(3).isEmpty());
+        assertNull(extremes.get(3).getBusiest());
+    }
+
+    @Test
+    @DisplayName("Should report the earliest of equally busy windows")
+    void shouldPreferEarliestBusiestOnTies() {
+        HalfHourSlotIndex index = indexOf(START, 9, 4, 5, 8, 1);
+
+        assertEquals(window(START, 13), index.windowExtremes(2).get(0).getBusiest());
+    }
+
+    @Test
+    @DisplayName("Should list the busiest slots, earliest first on ties")
+    void shouldListBusiestSlots() {
+        HalfHourSlotIndex index = indexOf(START, 9, 4, 12, 9, 1);
+        index.add(epochMinute(START.plusMinutes(10)), 3);
+
+        List<TopHalfHour> busiest = index.busiestSlots(3);
+
+        assertEquals(List.of(top(START, 12), top(START.plusMinutes(60), 12), top(START.plusMinutes(90), 9)),
+                busiest);
+    }
+
+    @Test
+    @DisplayName("Should convert window lengths to whole slots")
+    void shouldConvertWindowLengthsToSlots() {
+        assertEquals(3, HalfHourSlotIndex.slotsIn(Duration.ofMinutes(90)));
+        assertEquals(12, HalfHourSlotIndex.slotsIn(Duration.ofHours(6)));
+        assertThrows(IllegalArgumentException.class, () -> HalfHourSlotIndex.slotsIn(Duration.ofMinutes(45)));
+        assertThrows(IllegalArgumentException.class, () -> HalfHourSlotIndex.slotsIn(Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Should reject windows of no slots")
+    void shouldRejectEmptyWindows() {
+        assertThrows(IllegalArgumentException.class, () -> new HalfHourSlotIndex().quietestWindow(0));
+    }
+
+    @Test
+    @DisplayName("Should refresh query results after more records are added")
+    void shouldRefreshAfterAdding() {
+        HalfHourSlotIndex index = indexOf(START, 5, 12);
+        assertEquals(17, index.totalBetween(START, START.plusDays(1)));
+
+        index.addAll(indexOf(START.minusMinutes(30), 1));
+        index.add(epochMinute(START.plusHours(1)), 2);
+
+        assertEquals(20, index.totalBetween(START.minusDays(1), START.plusDays(1)));
+        assertEquals(period(START.minusMinutes(30), 6), index.quietestWindow(2).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should restore the same slots from a snapshot")
+    void shouldRoundTripSnapshot() throws IOException {
+        HalfHourSlotIndex index = indexOf(START, 5, 12, 14, 15);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+
+        HalfHourSlotIndex restored = HalfHourSlotIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index.size(), restored.size());
+        assertEquals(46, restored.totalBetween(START, START.plusDays(1)));
+        assertEquals(index.quietestWindow(2), restored.quietestWindow(2));
+    }
+
+    private static HalfHourSlotIndex indexOf(LocalDateTime start, int... counts) {
+        HalfHourSlotIndex index = new HalfHourSlotIndex();
+        for (int i = 0; i < counts.length; i++) {
+            index.add(epochMinute(start.plusMinutes(30L * i)), counts[i]);
+        }
+        return index;
+    }
+
+    private static int epochMinute(LocalDateTime time) {
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private static TopHalfHour top(LocalDateTime timestamp, int carsCount) {
+        return TopHalfHour.builder().timestamp(timestamp).carsCount(carsCount).build();
+    }
+
+    private static TrafficWindow window(LocalDateTime start, long totalCars) {
+        return TrafficWindow.builder().startTimestamp(start).totalCars(totalCars).build();
+    }
+
+    private static LeastTrafficPeriod period(LocalDateTime start, int totalCars) {
+        return LeastTrafficPeriod.builder().startTimestamp(start).totalCars(totalCars).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Least Traffic Window Tests")
+class LeastTrafficWindowTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 12, 1, 5, 0);
+
+    @Test
+    @DisplayName("Should report the middle record of the least busy window")
+    void shouldReportMiddleRecordOfLeastBusyWindow() {
+        LeastTrafficWindow window = windowOf(3, 10, 5, 8, 15);
+
+        LeastTrafficPeriod period = window.result().orElseThrow();
+
+        assertEquals(BASE.plusMinutes(30), period.getStartTimestamp());
+        assertEquals(23, period.getTotalCars());
+        assertTrue(window.isOrdered());
+    }
+
+    @Test
+    @DisplayName("Should keep the earliest window on ties")
+    void shouldKeepEarliestWindowOnTies() {
+        LeastTrafficWindow window = windowOf(3, 1, 1, 1, 1, 1);
+
+        assertEquals(BASE.plusMinutes(30), window.result().orElseThrow().getStartTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should be empty until a full window was seen")
+    void shouldBeEmptyUntilFullWindow() {
+        assertEquals(Optional.empty(), windowOf(3, 4, 2).result());
+        assertTrue(windowOf(3, 4, 2, 7).result().isPresent());
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force search for any window size")
+    void shouldMatchBruteForce() {
+        Random random = new Random(11);
+        int[] counts = random.ints(500, 0, 40).toArray();
+
+        for (int windowSize : new int[]{1, 2, 3, 4, 7}) {
+            LeastTrafficPeriod period = windowOf(windowSize, counts).result().orElseThrow();
+
+            long least = Long.MAX_VALUE;
+            int leastStart = -1;
+            for (int start = 0; start + windowSize <= counts.length; start++) {
+                long sum = 0;
+                for (int i = start; i < start + windowSize; i++) {
+                    sum += counts[i];
+                }
+                if (sum < least) {
+                    least = sum;
+                    leastStart = start;
+                }
+            }
+
+            assertEquals(least, period.getTotalCars());
+            assertEquals(BASE.plusMinutes(30L * (leastStart + windowSize / 2)), period.getStartTimestamp());
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the same result when consecutive slices are merged")
+    void shouldMergeConsecutiveSlices() {
+        Random random = new Random(3);
+        int[] counts = random.ints(40, 0, 10).toArray();
+
+        for (int windowSize : new int[]{1, 3, 5}) {
+            LeastTrafficWindow single = windowOf(windowSize, counts);
+            for (int first = 0; first <= counts.length; first++) {
+                for (int second = first; second <= counts.length; second++) {
+                    LeastTrafficWindow merged = slice(windowSize, counts, 0, first);
+                    merged.merge(slice(windowSize, counts, first, second));
+                    merged.merge(slice(windowSize, counts, second, counts.length));
+
+                    assertEquals(single.result(), merged.result());
+                    assertEquals(counts.length, merged.size());
+                    assertTrue(merged.isOrdered());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should flag records that arrive out of timestamp order")
+    void shouldFlagOutOfOrderRecords() {
+        LeastTrafficWindow window = new LeastTrafficWindow();
+        window.offer(epochMinute(BASE.plusMinutes(30)), 1);
+        window.offer(epochMinute(BASE), 1);
+
+        assertFalse(window.isOrdered());
+    }
+
+    @Test
+    @DisplayName("Should flag merged slices that overlap in time")
+    void shouldFlagOverlappingSlices() {
+        LeastTrafficWindow later = slice(3, new int[]{1, 2, 3, 4}, 2, 4);
+        later.merge(slice(3, new int[]{1, 2, 3, 4}, 0, 2));
+
+        assertFalse(later.isOrdered());
+    }
+
+    @Test
+    @DisplayName("Should reset state on clear")
+    void shouldResetStateOnClear() {
+        LeastTrafficWindow window = windowOf(3, 5, 4, 3);
+        window.offer(epochMinute(BASE), 1);
+
+        window.clear();
+
+        assertEquals(0, window.size());
+        assertTrue(window.isOrdered());
+        assertEquals(Optional.empty(), window.result());
+    }
+
+    private static LeastTrafficWindow windowOf(int windowSize, int... counts) {
+        return slice(windowSize, counts, 0, counts.length);
+    }
+
+    private static LeastTrafficWindow slice(int windowSize, int[] counts, int from, int to) {
+        LeastTrafficWindow window = new LeastTrafficWindow(windowSize);
+        for (int i = from; i < to; i++) {
+            window.offer(epochMinute(BASE.plusMinutes(30L * i)), counts[i]);
+        }
+        return window;
+    }
+
+    private static int epochMinute(LocalDateTime timestamp) {
+        return TrafficColumnStore.toEpochMinute(timestamp.toEpochSecond(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,95 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.LeastTrafficPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sensor Aggregate Tests")
+class SensorAggregateTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 12, 1, 5, 0);
+    private static final int[] COUNTS = {5, 12, 14, 15, 25, 46, 42, 3, 1, 7, 9, 11, 2, 30, 8, 4};
+
+    @Test
+    @DisplayName("Should give the same results as a network aggregate of the same rows")
+    void shouldMatchNetworkAggregate() {
+        SensorAggregate sensor = new SensorAggregate(3);
+        TrafficAggregate network = new TrafficAggregate(3);
+        for (int i = 0; i < COUNTS.length; i++) {
+            long epochSecond = START.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC);
+            sensor.accept(epochSecond, COUNTS[i]);
+            network.accept(epochSecond, COUNTS[i]);
+        }
+
+        assertEquals(network.size(), sensor.size());
+        assertEquals(network.totalCars(), sensor.totalCars());
+        assertEquals(network.getDailyCarsCounts(), sensor.getDailyCarsCounts());
+        assertEquals(network.getTopHalfHours(), sensor.getTopHalfHours());
+        assertEquals(network.getLeastTrafficPeriod(), sensor.getLeastTrafficPeriod());
+    }
+
+    @Test
+    @DisplayName("Should merge consecutive parts as if the rows had been accepted together")
+    void shouldMergeConsecutiveParts() {
+        SensorAggregate whole = new SensorAggregate(3);
+        SensorAggregate first = new SensorAggregate(3);
+        SensorAggregate second = new SensorAggregate(3);
+        for (int i = 0; i < COUNTS.length; i++) {
+            long epochSecond = START.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC);
+            whole.accept(epochSecond, COUNTS[i]);
+            (i < COUNTS.length / 2 ? first : second).accept(epochSecond, COUNTS[i]);
+        }
+
+        first.merge(second);
+
+        assertEquals(whole.totalCars(), first.totalCars());
+        assertEquals(whole.getTopHalfHours(), first.getTopHalfHours());
+        assertEquals(whole.getLeastTrafficPeriod(), first.getLeastTrafficPeriod());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the quietest half-hours by their middle one when rows arrive out of order")
+    void shouldFallBackToSlotsWhenOutOfOrder() {
+        SensorAggregate sensor = new SensorAggregate(3);
+        for (int i = COUNTS.length - 1; i >= 0; i--) {
+            sensor.accept(START.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC), COUNTS[i]);
+        }
+
+        LeastTrafficPeriod period = sensor.getLeastTrafficPeriod().orElseThrow();
+
+        // 3 + 1 + 7 over 08:30 to 10:00
+        assertEquals(START.plusMinutes(30L * 8), period.getStartTimestamp());
+        assertEquals(11, period.getTotalCars());
+    }
+
+    @Test
+    @DisplayName("Should read back what it wrote")
+    void shouldRoundTripThroughWriteAndRead() throws Exception {
+        SensorAggregate sensor = new SensorAggregate(3);
+        for (int i = 0; i < COUNTS.length; i++) {
+            sensor.accept(START.plusHours(5L * i).toEpochSecond(ZoneOffset.UTC), COUNTS[i]);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            sensor.writeTo(out);
+        }
+
+        SensorAggregate restored = SensorAggregate.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 3);
+
+        assertEquals(sensor.size(), restored.size());
+        assertEquals(sensor.totalCars(), restored.totalCars());
+        assertEquals(sensor.getDailyCarsCounts(), restored.getDailyCarsCounts());
+        assertEquals(sensor.getTopHalfHours(), restored.getTopHalfHours());
+        assertEquals(sensor.getLeastTrafficPeriod(), restored.getLeastTrafficPeriod());
+    }
+}
@@ -0,0 +1,56 @@
+package com.seek.traffic.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sensor Shards Tests")
+class SensorShardsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 12, 1, 0, 0);
+
+    @Test
+    @DisplayName("Should aggregate every sensor as a single thread would")
+    void shouldMatchSingleThreadedSensors() throws Exception {
+        TrafficAggregate expected = new TrafficAggregate();
+        Map<String, SensorAggregate> sensors;
+        try (SensorShards shards = new SensorShards(3, TrafficAggregate.DEFAULT_TOP_PERIODS)) {
+            // Enough rows for several full batches per shard
+            for (int i = 0; i < 10 * SensorShards.BATCH_SIZE; i++) {
+                long epochSecond = START.plusMinutes(30L * (i / 20)).toEpochSecond(ZoneOffset.UTC);
+                int carsCount = (i * 31) % 97;
+                String sensorId = "S" + (i % 20);
+                expected.accept(epochSecond, carsCount, sensorId);
+                shards.accept(TrafficColumnStore.toEpochMinute(epochSecond), carsCount, sensorId);
+            }
+            sensors = shards.finish();
+        }
+
+        assertEquals(expected.getSensors().keySet(), sensors.keySet());
+        expected.getSensors().forEach((sensorId, sensor) -> {
+            assertEquals(sensor.size(), sensors.get(sensorId).size());
+            assertEquals(sensor.totalCars(), sensors.get(sensorId).totalCars());
+            assertEquals(sensor.getTopHalfHours(), sensors.get(sensorId).getTopHalfHours());
+            assertEquals(sensor.getLeastTrafficPeriod(), sensors.get(sensorId).getLeastTrafficPeriod());
+        });
+    }
+
+    @Test
+    @DisplayName("Should finish with no sensors when no row was accepted")
+    void shouldFinishEmpty() throws Exception {
+        try (SensorShards shards = new SensorShards(2, TrafficAggregate.DEFAULT_TOP_PERIODS)) {
+            assertTrue(shards.finish().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a shard count below one")
+    void shouldRejectNoShards() {
+        assertThrows(IllegalArgumentException.class, () -> new SensorShards(0, 3));
+    }
+}
@@ -0,0 +1,113 @@
+package com.seek.traffic.aggregate;
+
+import com.seek.traffic.model.TopHalfHour;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Top-K Half Hours Tests")
+class TopKHalfHoursTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 12, 1, 5, 0);
+
+    @Test
+    @DisplayName("Should keep only the K busiest half hours, busiest first")
+    void shouldKeepKBusiestHalfHours() {
+        TopKHalfHours topK = new TopKHalfHours(3);
+        int[] counts = {5, 42, 7, 13, 46, 0, 33, 12};
+        for (int i = 0; i < counts.length; i++) {
+            topK.offer(epochMinute(BASE.plusMinutes(30L * i)), counts[i]);
+        }
+
+        List<TopHalfHour> top = topK.toList();
+
+        assertEquals(3, topK.size());
+        assertEquals(List.of(46, 42, 33), counts(top));
+        assertEquals(BASE.plusMinutes(120), top.get(0).getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should rank equal counts by earlier timestamp regardless of arrival order")
+    void shouldRankTiesByEarlierTimestamp() {
+        TopKHalfHours forward = new TopKHalfHours(2);
+        TopKHalfHours backward = new TopKHalfHours(2);
+        for (int i = 0; i < 4; i++) {
+            forward.offer(epochMinute(BASE.plusMinutes(30L * i)), 10);
+            backward.offer(epochMinute(BASE.plusMinutes(30L * (3 - i))), 10);
+        }
+
+        List<TopHalfHour> expected = List.of(
+                new TopHalfHour(BASE, 10),
+                new TopHalfHour(BASE.plusMinutes(30), 10));
+        assertEquals(expected, forward.toList());
+        assertEquals(expected, backward.toList());
+    }
+
+    @Test
+    @DisplayName("Should give the same result when partial heaps are merged")
+    void shouldMergePartialHeaps() {
+        Random random = new Random(7);
+        List<int[]> records = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            records.add(new int[]{epochMinute(BASE.plusMinutes(30L * i)), random.nextInt(50)});
+        }
+
+        TopKHalfHours single = new TopKHalfHours(10);
+        records.forEach(record -> single.offer(record[0], record[1]));
+
+        Collections.shuffle(records, random);
+        TopKHalfHours merged = new TopKHalfHours(10);
+        for (int part = 0; part < 4; part++) {
+            TopKHalfHours partial = new TopKHalfHours(10);
+            records.subList(part * 250, (part + 1) * 250).forEach(record -> partial.offer(record[0], record[1]));
+            merged.merge(partial);
+        }
+
+        assertEquals(single.toList(), merged.toList());
+    }
+
+    @Test
+    @DisplayName("Should round-trip timestamps before the epoch")
+    void shouldRoundTripTimestampsBeforeEpoch() {
+        int epochMinute = epochMinute(LocalDateTime.of(1960, 6, 1, 8, 30));
+
+        long key = TopKHalfHours.pack(epochMinute, 17);
+
+        assertEquals(epochMinute, TopKHalfHours.epochMinute(key));
+        assertEquals(17, TopKHalfHours.carsCount(key));
+    }
+
+    @Test
+    @DisplayName("Should be empty after clear")
+    void shouldBeEmptyAfterClear() {
+        TopKHalfHours topK = new TopKHalfHours(3);
+        topK.offer(epochMinute(BASE), 5);
+
+        topK.clear();
+
+        assertEquals(0, topK.size());
+        assertTrue(topK.toList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive capacity")
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKHalfHours(0));
+    }
+
+    private static int epochMinute(LocalDateTime timestamp) {
+        return TrafficColumnStore.toEpochMinute(timestamp.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private static List<Integer> counts(List<TopHalfHour> topHalfHours) {
+        return topHalfHours.stream().map(TopHalfHour::getCarsCount).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.seek.traffic.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Aggregate Tests")
+class TrafficAggregateTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 12, 1, 5, 0);
+    private static final int[] COUNTS = {5, 12, 14, 15, 25, 46, 42, 3, 1, 7, 9, 11, 2, 30, 8, 4};
+
+    @Test
+    @DisplayName("Should restore a snapshot with identical results")
+    void shouldRestoreSnapshot() {
+        TrafficAggregate aggregate = aggregateOf(0, COUNTS.length);
+
+        TrafficAggregate restored = TrafficAggregate.fromSnapshot(aggregate.toSnapshot(), 3);
+
+        assertResultsEqual(aggregate, restored);
+    }
+
+    @Test
+    @DisplayName("Should continue after a restore as if the run had not been interrupted")
+    void shouldContinueAfterRestore() {
+        for (int split = 0; split <= COUNTS.length; split++) {
+            TrafficAggregate uninterrupted = aggregateOf(0, COUNTS.length);
+
+            TrafficAggregate resumed = TrafficAggregate.fromSnapshot(aggregateOf(0, split).toSnapshot(), 3);
+            accept(resumed, split, COUNTS.length);
+
+            assertResultsEqual(uninterrupted, resumed);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot of an unknown version")
+    void shouldRejectUnknownSnapshotVersion() {
+        byte[] snapshot = new TrafficAggregate().toSnapshot();
+        snapshot[3] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> TrafficAggregate.fromSnapshot(snapshot, 3));
+    }
+
+    @Test
+    @DisplayName("Should count named sensors separately as well as in the network totals")
+    void shouldAggregatePerSensor() {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        for (int i = 0; i < COUNTS.length; i++) {
+            aggregate.accept(START.plusHours(5L * i).toEpochSecond(ZoneOffset.UTC), COUNTS[i], i % 2 == 0 ? "A" : "B");
+        }
+
+        assertTrue(aggregate.hasSensors());
+        assertEquals(COUNTS.length, aggregate.size());
+        assertEquals(aggregate.totalCars(),
+                aggregate.getSensors().get("A").totalCars() + aggregate.getSensors().get("B").totalCars());
+        assertEquals(COUNTS.length / 2, aggregate.getSensors().get("A").size());
+        assertEquals(COUNTS.length / 2, aggregate.getSensors().get("B").size());
+    }
+
+    @Test
+    @DisplayName("Should leave rows without a sensor out of the per-sensor aggregates")
+    void shouldIgnoreEmptySensorIds() {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        aggregate.accept(START.toEpochSecond(ZoneOffset.UTC), 5, "");
+
+        assertFalse(aggregate.hasSensors());
+        assertEquals(1, aggregate.size());
+    }
+
+    @Test
+    @DisplayName("Should merge per-sensor aggregates by sensor")
+    void shouldMergeSensors() {
+        TrafficAggregate first = new TrafficAggregate();
+        TrafficAggregate second = new TrafficAggregate();
+        first.accept(START.toEpochSecond(ZoneOffset.UTC), 5, "A");
+        second.accept(START.plusMinutes(30).toEpochSecond(ZoneOffset.UTC), 7, "A");
+        second.accept(START.toEpochSecond(ZoneOffset.UTC), 3, "B");
+
+        first.merge(second);
+
+        assertEquals(15, first.totalCars());
+        assertEquals(12, first.getSensors().get("A").totalCars());
+        assertEquals(3, first.getSensors().get("B").totalCars());
+    }
+
+    @Test
+    @DisplayName("Should restore the per-sensor aggregates from a snapshot")
+    void shouldRestoreSensorsFromSnapshot() {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        for (int i = 0; i < COUNTS.length; i++) {
+            aggregate.accept(START.plusHours(5L * i).toEpochSecond(ZoneOffset.UTC), COUNTS[i], "S" + (i % 3));
+        }
+
+        TrafficAggregate restored = TrafficAggregate.fromSnapshot(aggregate.toSnapshot(), 3);
+
+        assertResultsEqual(aggregate, restored);
+        assertEquals(aggregate.getSensors().keySet(), restored.getSensors().keySet());
+        for (String sensor : aggregate.getSensors().keySet()) {
+            SensorAggregate expected = aggregate.getSensors().get(sensor);
+            SensorAggregate actual = restored.getSensors().get(sensor);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.totalCars(), actual.totalCars());
+            assertEquals(expected.getDailyCarsCounts(), actual.getDailyCarsCounts());
+            assertEquals(expected.getTopHalfHours(), actual.getTopHalfHours());
+            assertEquals(expected.getLeastTrafficPeriod(), actual.getLeastTrafficPeriod());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep each row once in the timeline and network results when it names a sensor")
+    void shouldKeepNetworkResultsWithSensors() {
+        TrafficAggregate withSensors = new TrafficAggregate();
+        TrafficAggregate withoutSensors = new TrafficAggregate();
+        for (int i = 0; i < COUNTS.length; i++) {
+            long epochSecond = START.plusMinutes(30L * (i / 2)).toEpochSecond(ZoneOffset.UTC);
+            withSensors.accept(epochSecond, COUNTS[i], i % 2 == 0 ? "A" : "B");
+            withoutSensors.accept(epochSecond, COUNTS[i]);
+        }
+
+        assertEquals(COUNTS.length, withSensors.getTimeline().size());
+        assertResultsEqual(withoutSensors, withSensors);
+        assertEquals(withoutSensors.getLeastTrafficPeriod(), withSensors.getLeastTrafficPeriod());
+    }
+
+    @Test
+    @DisplayName("Should take sensors aggregated elsewhere without counting their rows again")
+    void shouldMergeSensorsAggregatedElsewhere() {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        SensorAggregate sensor = new SensorAggregate(3);
+        for (int i = 0; i < COUNTS.length; i++) {
+            long epochSecond = START.plusHours(5L * i).toEpochSecond(ZoneOffset.UTC);
+            aggregate.accept(epochSecond, COUNTS[i]);
+            sensor.accept(epochSecond, COUNTS[i]);
+        }
+
+        aggregate.mergeSensors(Map.of("A", sensor));
+
+        assertEquals(COUNTS.length, aggregate.size());
+        assertEquals(aggregate.totalCars(), aggregate.getSensors().get("A").totalCars());
+        assertEquals(aggregate.getTopHalfHours(), aggregate.getSensors().get("A").getTopHalfHours());
+    }
+
+    private static void assertResultsEqual(TrafficAggregate expected, TrafficAggregate actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.totalCars(), actual.totalCars());
+        assertEquals(expected.getDailyCarsCounts(), actual.getDailyCarsCounts());
+        assertEquals(expected.getTopHalfHours(), actual.getTopHalfHours());
+        assertEquals(expected.getLeastTrafficWindow().result(), actual.getLeastTrafficWindow().result());
+    }
+
+    private static TrafficAggregate aggregateOf(int from, int to) {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        accept(aggregate, from, to);
+        return aggregate;
+    }
+
+    private static void accept(TrafficAggregate aggregate, int from, int to) {
+        for (int i = from; i < to; i++) {
+            aggregate.accept(START.plusHours(5L * i).toEpochSecond(ZoneOffset.UTC), COUNTS[i]);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.seek.traffic.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Column Store Tests")
+class TrafficColumnStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 12, 1, 5, 0);
+
+    @Test
+    @DisplayName("Should return rows ordered by timestamp, stable for ties")
+    void shouldReturnRowsOrderedByTimestamp() {
+        TrafficColumnStore store = new TrafficColumnStore();
+        store.accept(epochSecond(BASE.plusMinutes(60)), 3);
+        store.accept(epochSecond(BASE), 1);
+        store.accept(epochSecond(BASE.plusMinutes(30)), 2);
+        store.accept(epochSecond(BASE), 4);
+
+        TrafficColumns sorted = store.sortedView();
+
+        assertEquals(4, sorted.size());
+        assertEquals(List.of(1, 4, 2, 3), counts(sorted));
+        assertEquals(BASE, sorted.timestamp(0));
+        assertEquals(BASE.plusMinutes(60), sorted.timestamp(3));
+        assertEquals(10, sorted.totalCars());
+    }
+
+    @Test
+    @DisplayName("Should cache the sorted view until the next append")
+    void shouldCacheSortedViewUntilNextAppend() {
+        TrafficColumnStore store = new TrafficColumnStore();
+        store.accept(epochSecond(BASE), 1);
+
+        TrafficColumns first = store.sortedView();
+        assertSame(first, store.sortedView());
+
+        store.accept(epochSecond(BASE.minusMinutes(30)), 2);
+        TrafficColumns second = store.sortedView();
+        assertNotSame(first, second);
+        assertEquals(1, first.size());
+        assertEquals(List.of(2, 1), counts(second));
+    }
+
+    @Test
+    @DisplayName("Should append another store after its own rows")
+    void shouldAppendAnotherStore() {
+        TrafficColumnStore store = new TrafficColumnStore();
+        TrafficColumnStore other = new TrafficColumnStore();
+        store.accept(epochSecond(BASE.plusMinutes(30)), 1);
+        other.accept(epochSecond(BASE), 2);
+
+        store.appendAll(other);
+
+        assertEquals(List.of(1, 2), counts(store.arrivalView()));
+        assertEquals(List.of(2, 1), counts(store.sortedView()));
+    }
+
+    @Test
+    @DisplayName("Should accept appends from several threads")
+    void shouldAcceptAppendsFromSeveralThreads() throws Exception {
+        TrafficColumnStore store = new TrafficColumnStore();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        store.accept(epochSecond(BASE.plusMinutes(30L * (i * 4 + thread))), 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        TrafficColumns sorted = store.sortedView();
+        assertEquals(40_000, sorted.size());
+        assertEquals(40_000, sorted.totalCars());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.epochMinute(i - 1) < sorted.epochMinute(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should be empty after clear")
+    void shouldBeEmptyAfterClear() {
+        TrafficColumnStore store = new TrafficColumnStore();
+        store.accept(epochSecond(BASE), 1);
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertTrue(store.sortedView().isEmpty());
+    }
+
+    private static long epochSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static List<Integer> counts(TrafficColumns columns) {
+        List<Integer> counts = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            counts.add(columns.carsCount(i));
+        }
+        return counts;
+    }
+}
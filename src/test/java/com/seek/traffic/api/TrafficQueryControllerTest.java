@@ -0,0 +1,153 @@
+package com.seek.traffic.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.model.TrafficData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Traffic Query Controller Tests")
+class TrafficQueryControllerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2021, 12, 1, 5, 0);
+
+    private TrafficDataProcessor processor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        processor = new TrafficDataProcessor();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        TrafficResponseCache cache = new TrafficResponseCache(processor, objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TrafficQueryController(processor, cache)).build();
+    }
+
+    @Test
+    @DisplayName("Should serve total, daily, top and least-window queries")
+    void shouldServeQueries() throws Exception {
+        process(START, 5, 12, 14, 15, 25, 46);
+        process(START.plusDays(1), 3);
+
+        mockMvc.perform(get("/api/traffic/total"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"totalCars\":120}"));
+        mockMvc.perform(get("/api/traffic/daily"))
+                .andExpect(content().json("[{\"date\":\"2021-12-01\",\"totalCars\":117},"
+                        + "{\"date\":\"2021-12-02\",\"totalCars\":3}]", true));
+        mockMvc.perform(get("/api/traffic/top").param("limit", "2"))
+                .andExpect(content().json("[{\"timestamp\":\"2021-12-01T07:30:00\",\"carsCount\":46},"
+                        + "{\"timestamp\":\"2021-12-01T07:00:00\",\"carsCount\":25}]", true));
+        mockMvc.perform(get("/api/traffic/least-window"))
+                .andExpect(content().json("{\"startTimestamp\":\"2021-12-01T05:30:00\",\"totalCars\":31}"));
+    }
+
+    @Test
+    @DisplayName("Should cap the limit at the number of tracked periods and reject non-positive limits")
+    void shouldCapTopLimit() throws Exception {
+        process(START, 5, 12, 14, 15);
+
+        mockMvc.perform(get("/api/traffic/top").param("limit", "50"))
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/api/traffic/top").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer 404 when there is no least-traffic window yet")
+    void shouldAnswerNotFoundWithoutLeastWindow() throws Exception {
+        process(START, 5, 12);
+
+        mockMvc.perform(get("/api/traffic/least-window"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should total cars over a half-open range of half-hour slots")
+    void shouldServeRangeTotals() throws Exception {
+        process(START, 5, 12, 14, 15, 25, 46);
+
+        mockMvc.perform(get("/api/traffic/range")
+                        .param("from", "2021-12-01T05:30:00")
+                        .param("to", "2021-12-01T07:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"from\":\"2021-12-01T05:30:00\","
+                        + "\"to\":\"2021-12-01T07:00:00\",\"totalCars\":41}"));
+        mockMvc.perform(get("/api/traffic/range")
+                        .param("from", "2021-12-01T07:00:00")
+                        .param("to", "2021-12-01T05:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should find the quietest window of a requested length in whole slots")
+    void shouldServeQuietestWindow() throws Exception {
+        process(START, 5, 12, 14, 15, 25, 46);
+
+        mockMvc.perform(get("/api/traffic/quietest").param("minutes", "60"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"startTimestamp\":\"2021-12-01T05:00:00\",\"totalCars\":17}"));
+        mockMvc.perform(get("/api/traffic/quietest").param("minutes", "180"))
+                .andExpect(content().json("{\"startTimestamp\":\"2021-12-01T05:00:00\",\"totalCars\":117}"));
+        mockMvc.perform(get("/api/traffic/quietest").param("minutes", "210"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/traffic/quietest").param("minutes", "45"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 until new data is processed")
+    void shouldAnswerNotModifiedUntilNewData() throws Exception {
+        process(START, 5);
+        String eTag = mockMvc.perform(get("/api/traffic/total"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/traffic/total").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        process(START.plusMinutes(30), 7);
+        mockMvc.perform(get("/api/traffic/total").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"totalCars\":12}"));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 while a chunk step is processing items")
+    void shouldAnswerUnavailableWhileProcessing() throws Exception {
+        process(START, 5);
+        processor.open(new ExecutionContext());
+
+        mockMvc.perform(get("/api/traffic/total"))
+                .andExpect(status().isServiceUnavailable());
+
+        processor.close();
+        mockMvc.perform(get("/api/traffic/total"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"totalCars\":5}"));
+    }
+
+    /**
+     * Processes the counts half an hour apart, as a chunk step would.
+     */
+    private void process(LocalDateTime start, int... counts) throws Exception {
+        processor.open(new ExecutionContext());
+        for (int i = 0; i < counts.length; i++) {
+            processor.process(TrafficData.builder()
+                    .timestamp(start.plusMinutes(30L * i))
+                    .carsCount(counts[i])
+                    .build());
+        }
+        processor.close();
+    }
+}
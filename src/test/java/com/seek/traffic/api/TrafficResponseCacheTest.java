@@ -0,0 +1,201 @@
+package com.seek.traffic.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seek.traffic.aggregate.HalfHourSlotIndex;
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.model.TrafficData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Response Cache Tests")
+class TrafficResponseCacheTest {
+
+    private TrafficDataProcessor processor;
+    private TrafficResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        processor = new TrafficDataProcessor();
+        cache = new TrafficResponseCache(processor, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should serialise a response once per data version")
+    void shouldSerialiseOncePerVersion() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        process(5);
+
+        TrafficResponseCache.CachedResponse first = get("total", snapshot -> renders.incrementAndGet());
+        TrafficResponseCache.CachedResponse second = get("total", snapshot -> renders.incrementAndGet());
+
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertArrayEquals("1".getBytes(), first.body());
+    }
+
+    @Test
+    @DisplayName("Should drop cached responses when new data is processed")
+    void shouldInvalidateOnNewData() throws Exception {
+        process(5);
+        TrafficResponseCache.CachedResponse before = get("total", TrafficDataProcessor.QuerySnapshot::totalCars);
+
+        process(7);
+        TrafficResponseCache.CachedResponse after = get("total", TrafficDataProcessor.QuerySnapshot::totalCars);
+
+        assertArrayEquals("5".getBytes(), before.body());
+        assertArrayEquals("12".getBytes(), after.body());
+        assertNotEquals(before.eTag(), after.eTag());
+    }
+
+    @Test
+    @DisplayName("Should drop cached responses when the processor is reset")
+    void shouldInvalidateOnReset() throws Exception {
+        process(5);
+        TrafficResponseCache.CachedResponse before = get("total", TrafficDataProcessor.QuerySnapshot::totalCars);
+
+        processor.reset();
+
+        assertNotEquals(before.eTag(), get("total", TrafficDataProcessor.QuerySnapshot::totalCars).eTag());
+    }
+
+    @Test
+    @DisplayName("Should cache the absence of a result")
+    void shouldCacheMissingResult() {
+        AtomicInteger renders = new AtomicInteger();
+
+        get("least-window", snapshot -> { renders.incrementAndGet(); return null; });
+        TrafficResponseCache.CachedResponse response = get("least-window", snapshot -> { renders.incrementAndGet(); return null; });
+
+        assertNull(response.body());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should answer consistently tagged responses while aggregates are merged")
+    void shouldAnswerConsistentlyDuringMerges() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        int merges = 2_000;
+        AtomicBoolean merging = new AtomicBoolean(true);
+        Thread merger = new Thread(() -> {
+            try {
+                for (int i = 0; i < merges; i++) {
+                    TrafficAggregate aggregate = new TrafficAggregate();
+                    // One car per record, spread over many days and slots
+                    aggregate.accept(start.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC), 1);
+                    processor.mergeAggregate(aggregate);
+                }
+            } finally {
+                merging.set(false);
+            }
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            merger.start();
+            List<Future<Integer>> checks = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                checks.add(readers.submit(() -> {
+                    int checked = 0;
+                    while (merging.get() || checked == 0) {
+                        TrafficResponseCache.CachedResponse response = get("consistency", snapshot -> {
+                            long[] daily = new long[1];
+                            snapshot.dailyCarsCounts().forEach((date, cars) -> daily[0] += cars);
+                            long range = snapshot.slotIndex().totalBetween(start, start.plusYears(1));
+                            return snapshot.totalCars() + "," + daily[0] + "," + range;
+                        });
+                        String records = response.eTag().replaceAll("\"", "").split("-")[1];
+                        String expected = "\"" + records + "," + records + "," + records + "\"";
+                        assertEquals(expected, new String(response.body()));
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            for (Future<Integer> check : checks) {
+                assertTrue(check.get() > 0);
+            }
+            merger.join();
+        } finally {
+            readers.shutdownNow();
+        }
+
+        assertEquals(merges, processor.getQuerySnapshot().orElseThrow().totalCars());
+    }
+
+    @Test
+    @DisplayName("Should reject writes to the slot index of a snapshot")
+    void shouldRejectWritesToSnapshotSlotIndex() throws Exception {
+        process(5);
+
+        HalfHourSlotIndex slotIndex = processor.getQuerySnapshot().orElseThrow().slotIndex();
+
+        assertThrows(UnsupportedOperationException.class, () -> slotIndex.add(0, 1));
+    }
+
+    @Test
+    @DisplayName("Should answer nothing while another thread processes items, then the whole step's results")
+    void shouldAnswerNothingWhileProcessing() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        int items = 200_000;
+        processor.open(new ExecutionContext());
+        AtomicBoolean processing = new AtomicBoolean(true);
+        Thread worker = new Thread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    processor.process(TrafficData.builder()
+                            .timestamp(start.plusMinutes(30L * i))
+                            .carsCount(1)
+                            .build());
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                processing.set(false);
+            }
+        });
+        worker.start();
+        int queries = 0;
+        while (processing.get() || queries == 0) {
+            assertTrue(cache.get("total", TrafficDataProcessor.QuerySnapshot::totalCars).isEmpty());
+            assertTrue(processor.getQuerySnapshot().isEmpty());
+            queries++;
+        }
+        worker.join();
+        processor.close();
+
+        TrafficResponseCache.CachedResponse response = get("total", TrafficDataProcessor.QuerySnapshot::totalCars);
+        assertArrayEquals(String.valueOf(items).getBytes(), response.body());
+        assertEquals("\"" + processor.getQuerySnapshot().orElseThrow().version() + "\"", response.eTag());
+    }
+
+    private TrafficResponseCache.CachedResponse get(String key, Function<TrafficDataProcessor.QuerySnapshot, ?> body) {
+        return cache.get(key, body).orElseThrow();
+    }
+
+    /**
+     * Processes one item, as a chunk step would.
+     */
+    private void process(int carsCount) throws Exception {
+        processor.open(new ExecutionContext());
+        processor.process(TrafficData.builder()
+                .timestamp(LocalDateTime.of(2021, 12, 1, 5, 0))
+                .carsCount(carsCount)
+                .build());
+        processor.close();
+    }
+}
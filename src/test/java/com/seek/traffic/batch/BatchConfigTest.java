@@ -0,0 +1,165 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.writer.ReportSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Batch Config Tests")
+class BatchConfigTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final int ROWS = 250;
+
+    @Test
+    @DisplayName("Should report once over every chunk of the chunk step")
+    void shouldReportOnceAfterAllChunks() throws Exception {
+        Map<String, Long> daily = new TreeMap<>();
+        long totalCars = writeInput(daily, "");
+
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        JobExecution execution = runJob(properties(TrafficProperties.IngestionMode.CHUNK), lines);
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        StepExecution ingestion = stepExecution(execution, "trafficDataProcessingStep");
+        assertEquals(ROWS, ingestion.getReadCount());
+        assertTrue(ingestion.getCommitCount() > 1, "input should span several chunks");
+
+        assertEquals(1, Collections.frequency(lines, "Total number of cars seen:"));
+        assertEquals(String.valueOf(totalCars), lines.get(lines.indexOf("Total number of cars seen:") + 1));
+        daily.forEach((date, cars) -> assertTrue(lines.contains(date + " " + cars), date + " " + cars));
+    }
+
+    @Test
+    @DisplayName("Should report the same as the chunk step from the streaming step")
+    void shouldReportTheSameFromTheStreamingStep() throws Exception {
+        writeInput(new TreeMap<>(), "2021-12-01T05:00:00,many\n");
+
+        List<String> chunkLines = new ArrayList<>();
+        runJob(properties(TrafficProperties.IngestionMode.CHUNK), chunkLines);
+        List<String> streamingLines = new ArrayList<>();
+        JobExecution execution = runJob(properties(TrafficProperties.IngestionMode.STREAMING), streamingLines);
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        StepExecution ingestion = stepExecution(execution, "streamingIngestionStep");
+        assertEquals(ROWS, ingestion.getReadCount());
+        assertEquals(1, ingestion.getReadSkipCount());
+        assertEquals(chunkLines, streamingLines);
+    }
+
+    @Test
+    @DisplayName("Should report the same sensors as the chunk step when streaming shards them over threads")
+    void shouldReportTheSameSensorsFromShardedStreaming() throws Exception {
+        StringBuilder csv = new StringBuilder("timestamp,cars_count,sensor_id\n");
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(start.plusMinutes(30L * (i / 5))).append(":00,").append(i % 17).append(",S").append(i % 5)
+                    .append('\n');
+        }
+        Files.writeString(tempDir.resolve("traffic.csv"), csv);
+
+        List<String> chunkLines = new ArrayList<>();
+        runJob(properties(TrafficProperties.IngestionMode.CHUNK), chunkLines);
+        TrafficProperties streaming = properties(TrafficProperties.IngestionMode.STREAMING);
+        streaming.getIngestion().setThreads(3);
+        List<String> streamingLines = new ArrayList<>();
+        JobExecution execution = runJob(streaming, streamingLines);
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertTrue(streamingLines.contains("Per-sensor traffic summary (5 sensors):"));
+        assertEquals(chunkLines, streamingLines);
+    }
+
+    /**
+     * Writes {@value #ROWS} half-hourly rows, then {@code trailer}.
+     *
+     * @return the total number of cars
+     */
+    private long writeInput(Map<String, Long> daily, String trailer) throws Exception {
+        StringBuilder csv = new StringBuilder("timestamp,cars_count\n");
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        long totalCars = 0;
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime timestamp = start.plusMinutes(30L * i);
+            int cars = i % 17;
+            csv.append(timestamp).append(':').append("00,").append(cars).append('\n');
+            daily.merge(timestamp.toLocalDate().toString(), (long) cars, Long::sum);
+            totalCars += cars;
+        }
+        csv.append(trailer);
+        Files.writeString(tempDir.resolve("traffic.csv"), csv);
+        return totalCars;
+    }
+
+    private TrafficProperties properties(TrafficProperties.IngestionMode mode) {
+        TrafficProperties properties = new TrafficProperties();
+        properties.setInput(new FileSystemResource(tempDir.resolve("traffic.csv")));
+        properties.getReader().setMode(TrafficProperties.ReaderMode.BYTES);
+        properties.getIngestion().setMode(mode);
+        properties.getReport().setWindowLengths(List.of());
+        return properties;
+    }
+
+    private static StepExecution stepExecution(JobExecution execution, String stepName) {
+        return execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().equals(stepName))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private JobExecution runJob(TrafficProperties properties, List<String> lines) throws Exception {
+        JobRepository jobRepository = new ResourcelessJobRepository();
+        TrafficDataProcessor processor = new TrafficDataProcessor(properties);
+        ReportSink sink = new ReportSink() {
+            @Override
+            public void writeLine(String line) {
+                lines.add(line);
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+        TrafficDataWriter writer = new TrafficDataWriter(processor, sink, properties);
+
+        BatchConfig config = new BatchConfig(jobRepository, new ResourcelessTransactionManager(), properties,
+                new TrafficDataReader(), new FastTrafficDataReader(), new ColumnarTrafficDataReader(), processor,
+                new StreamingIngestionTasklet(properties, processor, jobRepository), mock(MappedIngestionTasklet.class),
+                mock(ColumnarIngestionTasklet.class), mock(MultiFileIngestionTasklet.class),
+                mock(PartitionIngestionTasklet.class),
+                mock(PartitionAggregateMerger.class),
+                new TrafficReportTasklet(writer), new TrafficMetricsListener(new SimpleMeterRegistry(), processor),
+                new PathMatchingResourcePatternResolver());
+
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher.run(config.trafficDataAnalysisJob(), new JobParameters());
+    }
+}
@@ -0,0 +1,75 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.model.TrafficData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Columnar Traffic Data Reader Tests")
+class ColumnarTrafficDataReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ColumnarTrafficDataReader reader;
+    private ExecutionContext executionContext;
+
+    @BeforeEach
+    void setUp() {
+        reader = new ColumnarTrafficDataReader();
+        reader.setColumnFile(tempDir.resolve("traffic_data.tcol"));
+        executionContext = new ExecutionContext();
+    }
+
+    @Test
+    @DisplayName("Should convert the bundled CSV and read it like the flat file reader")
+    void shouldReadBundledCsvLikeFlatFileReader() throws Exception {
+        TrafficDataReader flatReader = new TrafficDataReader();
+        flatReader.open(new ExecutionContext());
+        reader.open(executionContext);
+
+        try {
+            int rows = 0;
+            TrafficData expected;
+            while ((expected = flatReader.read()) != null) {
+                assertEquals(expected, reader.read());
+                rows++;
+            }
+            assertNull(reader.read());
+            assertEquals(24, rows);
+            assertTrue(Files.exists(tempDir.resolve("traffic_data.tcol")));
+        } finally {
+            flatReader.close();
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume after the last item recorded in the execution context")
+    void shouldResumeFromExecutionContext() throws Exception {
+        reader.open(executionContext);
+        TrafficData third;
+        try {
+            reader.read();
+            reader.read();
+            reader.update(executionContext);
+            third = reader.read();
+        } finally {
+            reader.close();
+        }
+
+        reader.open(executionContext);
+        try {
+            assertEquals(third, reader.read());
+        } finally {
+            reader.close();
+        }
+    }
+}
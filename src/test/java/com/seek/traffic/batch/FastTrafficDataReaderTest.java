@@ -0,0 +1,226 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.model.TrafficData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fast Traffic Data Reader Tests")
+class FastTrafficDataReaderTest {
+
+    private FastTrafficDataReader reader;
+    private ExecutionContext executionContext;
+
+    @BeforeEach
+    void setUp() {
+        reader = new FastTrafficDataReader();
+        executionContext = new ExecutionContext();
+    }
+
+    @Test
+    @DisplayName("Should read the bundled CSV like the flat file reader")
+    void shouldReadBundledCsvLikeFlatFileReader() throws Exception {
+        TrafficDataReader flatReader = new TrafficDataReader();
+        flatReader.open(new ExecutionContext());
+        reader.open(executionContext);
+
+        try {
+            int rows = 0;
+            TrafficData expected;
+            while ((expected = flatReader.read()) != null) {
+                assertEquals(expected, reader.read());
+                rows++;
+            }
+            assertNull(reader.read());
+            assertEquals(24, rows);
+        } finally {
+            flatReader.close();
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should decompress a gzip CSV like the flat file reader")
+    void shouldReadGzipCsvLikeFlatFileReader() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (InputStream csv = new ClassPathResource("traffic_data.csv").getInputStream();
+             GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            csv.transferTo(gzip);
+        }
+        Resource gzipResource = new ByteArrayResource(compressed.toByteArray()) {
+            @Override
+            public String getFilename() {
+                return "traffic_data.csv.gz";
+            }
+        };
+        TrafficDataReader flatReader = new TrafficDataReader();
+        flatReader.setResource(gzipResource);
+        flatReader.open(new ExecutionContext());
+        reader.setResource(gzipResource);
+        reader.open(executionContext);
+
+        try {
+            int rows = 0;
+            TrafficData expected;
+            while ((expected = flatReader.read()) != null) {
+                assertEquals(expected, reader.read());
+                rows++;
+            }
+            assertNull(reader.read());
+            assertEquals(24, rows);
+        } finally {
+            flatReader.close();
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should parse every supported timestamp format")
+    void shouldParseEverySupportedTimestampFormat() throws Exception {
+        String csvContent = "timestamp,cars_count\n" +
+                "2021-12-01T10:30:00,1\n" +
+                "2021-12-01 10:30:00,2\n" +
+                "2021-12-01 10:30,3\n" +
+                "12/01/2021 10:30:00,4\n" +
+                "12/01/2021 10:30,5\n";
+        reader.setResource(new ByteArrayResource(csvContent.getBytes()));
+
+        reader.open(executionContext);
+        try {
+            for (int expectedCount = 1; expectedCount <= 5; expectedCount++) {
+                TrafficData result = reader.read();
+                assertNotNull(result);
+                assertEquals(LocalDateTime.of(2021, 12, 1, 10, 30), result.getTimestamp());
+                assertEquals(expectedCount, result.getCarsCount());
+            }
+            assertNull(reader.read());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read the sensor id when the file has a sensor column")
+    void shouldReadSensorIds() throws Exception {
+        String csvContent = "timestamp,cars_count,sensor_id\n2021-12-01T10:30:00,25,S1\n2021-12-01T11:00:00,7\n";
+        reader.setResource(new ByteArrayResource(csvContent.getBytes()));
+
+        reader.open(executionContext);
+        try {
+            assertEquals("S1", reader.read().getSensorId());
+            assertNull(reader.read().getSensorId());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw exception for negative car count and continue with next row")
+    void shouldThrowExceptionForNegativeCarCount() throws Exception {
+        String csvContent = "timestamp,cars_count\n2021-12-01T10:30:00,-5\n2021-12-01T11:00:00,7\n";
+        reader.setResource(new ByteArrayResource(csvContent.getBytes()));
+
+        reader.open(executionContext);
+        try {
+            Exception exception = assertThrows(TrafficDataReader.TrafficDataMappingException.class, () -> reader.read());
+            assertTrue(exception.getCause().getMessage().contains("Cars count cannot be negative"));
+
+            TrafficData next = reader.read();
+            assertNotNull(next);
+            assertEquals(7, next.getCarsCount());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid timestamp format")
+    void shouldThrowExceptionForInvalidTimestampFormat() throws Exception {
+        String csvContent = "timestamp,cars_count\ninvalid-timestamp,25\n";
+        reader.setResource(new ByteArrayResource(csvContent.getBytes()));
+
+        reader.open(executionContext);
+        try {
+            Exception exception = assertThrows(TrafficDataReader.TrafficDataMappingException.class, () -> reader.read());
+            assertTrue(exception.getCause().getMessage().contains("Unable to parse timestamp"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle empty file gracefully")
+    void shouldHandleEmptyFileGracefully() throws Exception {
+        reader.setResource(new ByteArrayResource("timestamp,cars_count\n".getBytes()));
+
+        reader.open(executionContext);
+        try {
+            assertNull(reader.read());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume after the last committed item on restart")
+    void shouldResumeAfterLastCommittedItemOnRestart() throws Exception {
+        String csvContent = "timestamp,cars_count\n" +
+                "2021-12-01T10:30:00,25\n" +
+                "2021-12-01T11:00:00,30\n" +
+                "2021-12-01T11:30:00,15\n";
+        reader.setResource(new ByteArrayResource(csvContent.getBytes()));
+
+        reader.open(executionContext);
+        reader.read();
+        reader.update(executionContext);
+        reader.close();
+
+        FastTrafficDataReader restarted = new FastTrafficDataReader();
+        restarted.setResource(new ByteArrayResource(csvContent.getBytes()));
+        restarted.open(executionContext);
+        try {
+            assertEquals(30, restarted.read().getCarsCount());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume after the last item recorded in the execution context")
+    void shouldResumeFromExecutionContext() throws Exception {
+        reader.open(executionContext);
+        TrafficData third;
+        try {
+            reader.read();
+            reader.read();
+            reader.update(executionContext);
+            third = reader.read();
+        } finally {
+            reader.close();
+        }
+
+        FastTrafficDataReader resumed = new FastTrafficDataReader();
+        resumed.open(executionContext);
+        try {
+            assertEquals(third, resumed.read());
+            int remaining = 1;
+            while (resumed.read() != null) {
+                remaining++;
+            }
+            assertEquals(22, remaining);
+        } finally {
+            resumed.close();
+        }
+    }
+}
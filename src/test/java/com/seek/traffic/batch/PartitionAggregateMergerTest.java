@@ -0,0 +1,71 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Partition Aggregate Merger Tests")
+class PartitionAggregateMergerTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2021, 12, 1, 5, 0);
+    private static final LocalDateTime DAY_TWO = LocalDateTime.of(2021, 12, 2, 5, 0);
+
+    private TrafficDataProcessor processor;
+    private PartitionAggregateMerger merger;
+
+    @BeforeEach
+    void setUp() {
+        processor = new TrafficDataProcessor();
+        merger = new PartitionAggregateMerger(processor);
+    }
+
+    @Test
+    @DisplayName("Should merge partitions in file name order regardless of completion order")
+    void shouldMergePartitionsInFileNameOrder() {
+        merger.register("file:/data/b.csv", aggregateOf(DAY_TWO, 9, 1, 9));
+        merger.register("file:/data/a.csv", aggregateOf(DAY_ONE, 4, 5, 6));
+
+        merger.execute(null, null);
+
+        assertEquals(34, processor.getTotalCars());
+        assertEquals(15, processor.getDailyCarsCounts().get(LocalDate.of(2021, 12, 1)));
+        assertEquals(19, processor.getDailyCarsCounts().get(LocalDate.of(2021, 12, 2)));
+        assertEquals(DAY_ONE.plusMinutes(30), processor.getLeastTrafficPeriod().orElseThrow().getStartTimestamp());
+        assertEquals(6, processor.getAllTrafficData().size());
+    }
+
+    @Test
+    @DisplayName("Should merge each partition only once")
+    void shouldMergeEachPartitionOnlyOnce() {
+        merger.register("file:/data/a.csv", aggregateOf(DAY_ONE, 4, 5, 6));
+
+        merger.execute(null, null);
+        merger.execute(null, null);
+
+        assertEquals(15, processor.getTotalCars());
+    }
+
+    @Test
+    @DisplayName("Should reject a file registered twice")
+    void shouldRejectDuplicateFile() {
+        merger.register("file:/data/a.csv", aggregateOf(DAY_ONE, 1));
+
+        assertThrows(IllegalStateException.class,
+                () -> merger.register("file:/data/a.csv", aggregateOf(DAY_ONE, 1)));
+    }
+
+    private static TrafficAggregate aggregateOf(LocalDateTime start, int... counts) {
+        TrafficAggregate aggregate = new TrafficAggregate();
+        for (int i = 0; i < counts.length; i++) {
+            aggregate.accept(start.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC), counts[i]);
+        }
+        return aggregate;
+    }
+}
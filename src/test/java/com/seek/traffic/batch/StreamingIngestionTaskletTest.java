@@ -0,0 +1,88 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.config.TrafficProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobInterruptedException;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Streaming Ingestion Tasklet Tests")
+class StreamingIngestionTaskletTest {
+
+    private static final int ROWS = 2 * StreamingIngestionTasklet.PROGRESS_INTERVAL + 10;
+
+    @TempDir
+    Path tempDir;
+
+    private JobRepository jobRepository;
+    private TrafficDataProcessor processor;
+    private StreamingIngestionTasklet tasklet;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StringBuilder csv = new StringBuilder("timestamp,cars_count\n");
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(start.plusMinutes(30L * i)).append(":00,").append(i % 17).append('\n');
+        }
+        Files.writeString(tempDir.resolve("traffic.csv"), csv);
+
+        TrafficProperties properties = new TrafficProperties();
+        properties.setInput(new FileSystemResource(tempDir.resolve("traffic.csv")));
+        properties.getIngestion().setThreads(1);
+        jobRepository = mock(JobRepository.class);
+        processor = new TrafficDataProcessor();
+        tasklet = new StreamingIngestionTasklet(properties, processor, jobRepository);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+    }
+
+    @Test
+    @DisplayName("Should save the read count to the job repository at every progress interval")
+    void shouldSaveProgressToJobRepository() throws Exception {
+        List<Long> savedReadCounts = new ArrayList<>();
+        doAnswer(invocation -> savedReadCounts.add(invocation.<StepExecution>getArgument(0).getReadCount()))
+                .when(jobRepository).update(any(StepExecution.class));
+
+        RepeatStatus status = tasklet.execute(stepExecution.createStepContribution(),
+                new ChunkContext(new StepContext(stepExecution)));
+
+        assertEquals(RepeatStatus.FINISHED, status);
+        assertEquals(List.of((long) StreamingIngestionTasklet.PROGRESS_INTERVAL,
+                2L * StreamingIngestionTasklet.PROGRESS_INTERVAL), savedReadCounts);
+        assertEquals(ROWS, stepExecution.getReadCount());
+        assertEquals(ROWS, processor.getDataVersion().records());
+    }
+
+    @Test
+    @DisplayName("Should stop when saving the progress reveals a stop request")
+    void shouldStopWhenAskedThroughJobRepository() {
+        doAnswer(invocation -> {
+            invocation.<StepExecution>getArgument(0).setTerminateOnly();
+            return null;
+        }).when(jobRepository).update(any(StepExecution.class));
+
+        assertThrows(JobInterruptedException.class, () -> tasklet.execute(stepExecution.createStepContribution(),
+                new ChunkContext(new StepContext(stepExecution))));
+        verify(jobRepository, times(1)).update(stepExecution);
+        assertEquals(StreamingIngestionTasklet.PROGRESS_INTERVAL, stepExecution.getReadCount());
+    }
+}
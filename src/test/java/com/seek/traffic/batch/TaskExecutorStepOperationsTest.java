@@ -0,0 +1,60 @@
+package com.seek.traffic.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Task Executor Step Operations Tests")
+class TaskExecutorStepOperationsTest {
+
+    @Test
+    @DisplayName("Should run every worker at once, beyond the default throttle limit of 4")
+    void shouldRunAllWorkersConcurrently() {
+        int workers = 6;
+        CountDownLatch started = new CountDownLatch(workers);
+        AtomicInteger timedOut = new AtomicInteger();
+        TaskExecutorStepOperations operations = new TaskExecutorStepOperations(new SimpleAsyncTaskExecutor(), workers);
+
+        RepeatStatus status = operations.iterate(context -> {
+            // Times out unless all workers are in an iteration together
+            started.countDown();
+            if (!started.await(10, TimeUnit.SECONDS)) {
+                timedOut.incrementAndGet();
+            }
+            return RepeatStatus.FINISHED;
+        });
+
+        assertEquals(RepeatStatus.FINISHED, status);
+        assertEquals(0, timedOut.get());
+    }
+
+    @Test
+    @DisplayName("Should stop the other workers and rethrow the first failure")
+    void shouldRethrowWorkerFailure() {
+        AtomicInteger iterations = new AtomicInteger();
+        TaskExecutorStepOperations operations = new TaskExecutorStepOperations(new SimpleAsyncTaskExecutor(), 3);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> operations.iterate(context -> {
+            if (iterations.incrementAndGet() == 10) {
+                throw new IllegalStateException("chunk failed");
+            }
+            return RepeatStatus.CONTINUABLE;
+        }));
+
+        assertEquals("chunk failed", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a worker count below one")
+    void shouldRejectNoWorkers() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaskExecutorStepOperations(new SimpleAsyncTaskExecutor(), 0));
+    }
+}
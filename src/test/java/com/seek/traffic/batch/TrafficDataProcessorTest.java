@@ -1,13 +1,23 @@
 package com.seek.traffic.batch;
 
+import com.seek.traffic.aggregate.SensorAggregate;
+import com.seek.traffic.aggregate.TrafficAggregate;
+import com.seek.traffic.model.LeastTrafficPeriod;
 import com.seek.traffic.model.TopHalfHour;
+import com.seek.traffic.config.TrafficProperties;
 import com.seek.traffic.model.TrafficData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.batch.item.ExecutionContext;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,8 +43,8 @@ class TrafficDataProcessorTest {
 
         assertNotNull(result);
         assertEquals(trafficData, result);
-        assertEquals(1, processor.getDailyCarsCount().size());
-        assertEquals(25, processor.getDailyCarsCount().get(trafficData.getTimestamp().toLocalDate()));
+        assertEquals(1, processor.getDailyCarsCounts().size());
+        assertEquals(25, processor.getDailyCarsCounts().get(trafficData.getTimestamp().toLocalDate()));
     }
 
     @Test
@@ -43,7 +53,7 @@ class TrafficDataProcessorTest {
         Object result = processor.process(null);
 
         assertNull(result);
-        assertTrue(processor.getDailyCarsCount().isEmpty());
+        assertTrue(processor.getDailyCarsCounts().isEmpty());
         assertTrue(processor.getTopHalfHours().isEmpty());
     }
 
@@ -57,7 +67,7 @@ class TrafficDataProcessorTest {
         processor.process(data1);
         processor.process(data2);
 
-        assertEquals(25, processor.getDailyCarsCount().get(date.toLocalDate()));
+        assertEquals(25, processor.getDailyCarsCounts().get(date.toLocalDate()));
     }
 
     @Test
@@ -91,7 +101,7 @@ class TrafficDataProcessorTest {
 
         processor.reset();
 
-        assertTrue(processor.getDailyCarsCount().isEmpty());
+        assertTrue(processor.getDailyCarsCounts().isEmpty());
         assertTrue(processor.getTopHalfHours().isEmpty());
         assertTrue(processor.getAllTrafficData().isEmpty());
     }
@@ -107,7 +117,7 @@ class TrafficDataProcessorTest {
         Object result = processor.process(invalidData);
 
         assertNull(result);
-        assertTrue(processor.getDailyCarsCount().isEmpty());
+        assertTrue(processor.getDailyCarsCounts().isEmpty());
     }
 
     @Test
@@ -146,7 +156,7 @@ class TrafficDataProcessorTest {
         processor.process(data1);
         processor.process(data2);
 
-        assertEquals(25, processor.getDailyCarsCount().get(data1.getTimestamp().toLocalDate()));
+        assertEquals(25, processor.getDailyCarsCounts().get(data1.getTimestamp().toLocalDate()));
         assertEquals(2, processor.getAllTrafficData().size());
     }
 
@@ -175,4 +185,172 @@ class TrafficDataProcessorTest {
         assertEquals(20, topHalfHours.get(1).getCarsCount());
         assertEquals(10, topHalfHours.get(2).getCarsCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should find the least traffic period whether or not records arrive in order")
+    void shouldFindLeastTrafficPeriodRegardlessOfArrivalOrder() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2023, 12, 1, 10, 0);
+        int[] counts = {10, 5, 8, 15, 2, 30};
+        for (int i = counts.length - 1; i >= 0; i--) {
+            processor.process(TrafficData.builder()
+                    .timestamp(start.plusMinutes(30L * i))
+                    .carsCount(counts[i])
+                    .build());
+        }
+
+        LeastTrafficPeriod period = processor.getLeastTrafficPeriod().orElseThrow();
+
+        assertEquals(start.plusMinutes(30), period.getStartTimestamp());
+        assertEquals(23, period.getTotalCars());
+        assertEquals(70, processor.getTotalCars());
+    }
+
+    @Test
+    @DisplayName("Should give the same results when items are processed on several threads")
+    void shouldGiveSameResultsAcrossThreads() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2023, 12, 1, 0, 0);
+        List<TrafficData> items = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            items.add(TrafficData.builder().timestamp(start.plusMinutes(30L * i)).carsCount((i * 37) % 101).build());
+        }
+        for (TrafficData item : items) {
+            processor.process(item);
+        }
+
+        TrafficDataProcessor parallel = new TrafficDataProcessor();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = offset; i < items.size(); i += 4) {
+                        parallel.process(items.get(i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(processor.getTotalCars(), parallel.getTotalCars());
+        assertEquals(processor.getDailyCarsCounts(), parallel.getDailyCarsCounts());
+        assertEquals(processor.getTopHalfHours(), parallel.getTopHalfHours());
+        assertEquals(processor.getLeastTrafficPeriod(), parallel.getLeastTrafficPeriod());
+        assertEquals(processor.getAllTrafficData(), parallel.getAllTrafficData());
+    }
+
+    @Test
+    @DisplayName("Should report network-wide results over the records whether or not they name sensors")
+    void shouldKeepRecordResultsWithSensors() throws Exception {
+        TrafficDataProcessor withoutSensors = new TrafficDataProcessor();
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 5, 0);
+        int[] counts = {5, 12, 14, 15, 25, 46, 42, 3};
+        for (int i = 0; i < counts.length; i++) {
+            processor.process(sensorItem(start.plusMinutes(30L * i), counts[i], "A"));
+            processor.process(sensorItem(start.plusMinutes(30L * i), counts[counts.length - 1 - i], "B"));
+            withoutSensors.process(sensorItem(start.plusMinutes(30L * i), counts[i], null));
+            withoutSensors.process(sensorItem(start.plusMinutes(30L * i), counts[counts.length - 1 - i], null));
+        }
+
+        assertTrue(processor.hasSensors());
+        assertEquals(324, processor.getTotalCars());
+        assertEquals(List.of(46, 46, 42), processor.getTopHalfHours().stream().map(TopHalfHour::getCarsCount).toList());
+        assertEquals(withoutSensors.getTopHalfHours(), processor.getTopHalfHours());
+        LeastTrafficPeriod period = processor.getLeastTrafficPeriod().orElseThrow();
+        assertEquals(withoutSensors.getLeastTrafficPeriod().orElseThrow(), period);
+        assertEquals(start, period.getStartTimestamp());
+        assertEquals(20, period.getTotalCars());
+    }
+
+    @Test
+    @DisplayName("Should merge each sensor's records from every thread")
+    void shouldMergeSensorAggregatesAcrossThreads() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = offset; i < 1_000; i += 4) {
+                        processor.process(sensorItem(start.plusMinutes(30L * (i / 10)), 1, "S" + (i % 10)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        SortedMap<String, SensorAggregate> sensors = processor.getSensorAggregates();
+        assertEquals(10, sensors.size());
+        assertEquals("S0", sensors.firstKey());
+        sensors.values().forEach(sensor -> assertEquals(100, sensor.totalCars()));
+        assertEquals(1_000, processor.getTotalCars());
+    }
+
+    @Test
+    @DisplayName("Should report no sensors when no row names one")
+    void shouldReportNoSensorsWithoutSensorIds() throws Exception {
+        processor.process(TrafficData.builder().timestamp(LocalDateTime.of(2021, 12, 1, 5, 0)).carsCount(5).build());
+
+        assertFalse(processor.hasSensors());
+        assertTrue(processor.getSensorAggregates().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should restore its aggregates from a checkpoint")
+    void shouldRestoreFromCheckpoint() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 12, 1, 5, 0);
+        int[] counts = {5, 12, 14, 15, 25, 46, 42, 3};
+        ExecutionContext executionContext = new ExecutionContext();
+        for (int i = 0; i < 5; i++) {
+            processor.process(TrafficData.builder().timestamp(start.plusMinutes(30L * i)).carsCount(counts[i]).build());
+        }
+        processor.update(executionContext);
+
+        TrafficDataProcessor restarted = new TrafficDataProcessor();
+        restarted.open(executionContext);
+        for (int i = 5; i < counts.length; i++) {
+            restarted.process(TrafficData.builder().timestamp(start.plusMinutes(30L * i)).carsCount(counts[i]).build());
+        }
+
+        assertEquals(162, restarted.getTotalCars());
+        assertEquals(162, restarted.getDailyCarsCounts().get(start.toLocalDate()));
+        assertEquals(46, restarted.getTopHalfHours().get(0).getCarsCount());
+        assertEquals(start.plusMinutes(30), restarted.getLeastTrafficPeriod().orElseThrow().getStartTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should only checkpoint when the job repository is persistent")
+    void shouldOnlyCheckpointWithPersistentRepository() throws Exception {
+        TrafficProperties properties = new TrafficProperties();
+        TrafficData item = TrafficData.builder().timestamp(LocalDateTime.of(2021, 12, 1, 5, 0)).carsCount(5).build();
+
+        TrafficDataProcessor inMemory = new TrafficDataProcessor(properties);
+        inMemory.process(item);
+        ExecutionContext inMemoryContext = new ExecutionContext();
+        inMemory.update(inMemoryContext);
+
+        properties.getRepository().setUrl("jdbc:h2:file:./batch/traffic");
+        TrafficDataProcessor persistent = new TrafficDataProcessor(properties);
+        persistent.process(item);
+        ExecutionContext persistentContext = new ExecutionContext();
+        persistent.update(persistentContext);
+
+        assertTrue(inMemoryContext.isEmpty());
+        assertFalse(persistentContext.isEmpty());
+    }
+
+    private static TrafficData sensorItem(LocalDateTime timestamp, int carsCount, String sensorId) {
+        return TrafficData.builder().timestamp(timestamp).carsCount(carsCount).sensorId(sensorId).build();
+    }
+}
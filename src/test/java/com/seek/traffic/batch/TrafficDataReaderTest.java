@@ -70,6 +70,23 @@ class TrafficDataReaderTest {
         }
     }
 
+    @Test
+    @DisplayName("Should read the sensor id when the file has a sensor column")
+    void shouldReadSensorIds() throws Exception {
+        String csvContent = "timestamp,cars_count,sensor_id\n2021-12-01T10:30:00,25,S1\n2021-12-01T11:00:00,7\n";
+        reader.setResource(new ByteArrayResource(csvContent.getBytes()));
+
+        reader.open(executionContext);
+        try {
+            TrafficData first = reader.read();
+            assertEquals("S1", first.getSensorId());
+            assertEquals(25, first.getCarsCount());
+            assertNull(reader.read().getSensorId());
+        } finally {
+            reader.close();
+        }
+    }
+
     @Test
     @DisplayName("Should handle zero car count")
     void shouldHandleZeroCarCount() {
@@ -199,4 +216,15 @@ class TrafficDataReaderTest {
             reader.close();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should take exactly two commas as a row naming its sensor")
+    void shouldDetectSensorColumn() {
+        assertTrue(TrafficDataReader.hasThreeColumns("2021-12-01T05:00:00,5,S1"));
+        assertTrue(TrafficDataReader.hasThreeColumns(",,"));
+        assertFalse(TrafficDataReader.hasThreeColumns("2021-12-01T05:00:00,5"));
+        assertFalse(TrafficDataReader.hasThreeColumns("2021-12-01T05:00:00,5,S1,extra"));
+        assertFalse(TrafficDataReader.hasThreeColumns("2021-12-01T05:00:00"));
+        assertFalse(TrafficDataReader.hasThreeColumns(null));
+    }
+}
@@ -1,22 +1,30 @@
 package com.seek.traffic.batch;
 
+import com.seek.traffic.aggregate.DailyCarsCounts;
+import com.seek.traffic.aggregate.HalfHourSlotIndex;
+import com.seek.traffic.aggregate.LeastTrafficWindow;
+import com.seek.traffic.aggregate.SensorAggregate;
+import com.seek.traffic.config.TrafficProperties;
 import com.seek.traffic.model.TopHalfHour;
 import com.seek.traffic.model.TrafficData;
-import com.seek.traffic.writer.ConsoleWriter;
+import com.seek.traffic.writer.ReportSink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.batch.item.Chunk;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @DisplayName("Traffic Data Writer Tests")
@@ -26,14 +34,14 @@ class TrafficDataWriterTest {
     private TrafficDataProcessor processor;
 
     @Mock
-    private ConsoleWriter consoleWriter;
+    private ReportSink reportSink;
 
     private TrafficDataWriter writer;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        writer = new TrafficDataWriter(processor, consoleWriter);
+        writer = new TrafficDataWriter(processor, reportSink, new TrafficProperties());
     }
 
     @Test
@@ -41,45 +49,29 @@ class TrafficDataWriterTest {
     void shouldWriteCompleteTrafficAnalysis() throws Exception {
         setupMockData();
 
-        Chunk<Object> chunk = new Chunk<>();
+        writer.writeReport();
 
-        writer.write(chunk);
-
-        verify(consoleWriter, times(1)).writeLine("Total number of cars seen:");
-        verify(consoleWriter, times(1)).writeLine("100");
-        verify(consoleWriter, times(1)).writeLine("Daily traffic summary:");
-        verify(consoleWriter, times(1)).writeLine("Top 3 half-hour periods with most cars:");
-        verify(consoleWriter, times(1)).writeLine("1.5-hour period with least cars:");
-    }
-
-    @Test
-    @DisplayName("Should write only once per execution")
-    void shouldWriteOnlyOncePerExecution() throws Exception {
-        setupMockData();
-
-        Chunk<Object> chunk = new Chunk<>();
-
-        writer.write(chunk);
-        writer.write(chunk);
-
-        verify(consoleWriter, times(1)).writeLine("Total number of cars seen:");
+        verify(reportSink, times(1)).writeLine("Total number of cars seen:");
+        verify(reportSink, times(1)).writeLine("100");
+        verify(reportSink, times(1)).writeLine("Daily traffic summary:");
+        verify(reportSink, times(1)).writeLine("Top 3 half-hour periods with most cars:");
+        verify(reportSink, times(1)).writeLine("1.5-hour period with least cars:");
+        verify(reportSink, times(1)).flush();
     }
 
     @Test
     @DisplayName("Should handle empty traffic data")
     void shouldHandleEmptyTrafficData() throws Exception {
-        when(processor.getAllTrafficData()).thenReturn(List.of());
-        when(processor.getDailyCarsCount()).thenReturn(Map.of());
+        stubTrafficData(List.of());
+        when(processor.getDailyCarsCounts()).thenReturn(dailyCounts(Map.of()));
         when(processor.getTopHalfHours()).thenReturn(List.of());
 
-        Chunk<Object> chunk = new Chunk<>();
+        writer.writeReport();
 
-        writer.write(chunk);
-
-        verify(consoleWriter, times(1)).writeLine("0");
-        verify(consoleWriter, times(1)).writeLine("No daily traffic data available");
-        verify(consoleWriter, times(1)).writeLine("No half-hour traffic data available");
-        verify(consoleWriter, times(1)).writeLine("Insufficient data for 1.5-hour period analysis");
+        verify(reportSink, times(1)).writeLine("0");
+        verify(reportSink, times(1)).writeLine("No daily traffic data available");
+        verify(reportSink, times(1)).writeLine("No half-hour traffic data available");
+        verify(reportSink, times(1)).writeLine("Insufficient data for 1.5-hour period analysis");
     }
 
     @Test
@@ -88,20 +80,18 @@ class TrafficDataWriterTest {
         LocalDate testDate = LocalDate.of(2023, 12, 1);
         LocalDateTime testDateTime = LocalDateTime.of(2023, 12, 1, 10, 30);
 
-        when(processor.getAllTrafficData()).thenReturn(List.of(
+        stubTrafficData(List.of(
                 TrafficData.builder().timestamp(testDateTime).carsCount(50).build()
         ));
-        when(processor.getDailyCarsCount()).thenReturn(Map.of(testDate, 50));
+        when(processor.getDailyCarsCounts()).thenReturn(dailyCounts(Map.of(testDate, 50)));
         when(processor.getTopHalfHours()).thenReturn(List.of(
                 TopHalfHour.builder().timestamp(testDateTime).carsCount(50).build()
         ));
 
-        Chunk<Object> chunk = new Chunk<>();
-
-        writer.write(chunk);
+        writer.writeReport();
 
-        verify(consoleWriter, times(1)).writeLine("2023-12-01 50");
-        verify(consoleWriter, times(1)).writeLine("2023-12-01 10:30 50");
+        verify(reportSink, times(1)).writeLine("2023-12-01 50");
+        verify(reportSink, times(1)).writeLine("2023-12-01 10:30 50");
     }
 
     @Test
@@ -114,56 +104,94 @@ class TrafficDataWriterTest {
                 TrafficData.builder().timestamp(LocalDateTime.of(2023, 12, 1, 11, 30)).carsCount(15).build()
         );
 
-        when(processor.getAllTrafficData()).thenReturn(trafficData);
-        when(processor.getDailyCarsCount()).thenReturn(Map.of());
+        stubTrafficData(trafficData);
+        when(processor.getDailyCarsCounts()).thenReturn(dailyCounts(Map.of()));
         when(processor.getTopHalfHours()).thenReturn(List.of());
 
-        Chunk<Object> chunk = new Chunk<>();
+        writer.writeReport();
 
-        writer.write(chunk);
-
-        verify(consoleWriter, times(1)).writeLine("2023-12-01 10:30 23");
+        verify(reportSink, times(1)).writeLine("2023-12-01 10:30 23");
     }
 
     @Test
-    @DisplayName("Should handle writer exception and reset state")
-    void shouldHandleWriterExceptionAndResetState() throws Exception {
-        when(processor.getAllTrafficData()).thenReturn(List.of());
-        doThrow(new RuntimeException("Writer error")).when(consoleWriter).writeLine(anyString());
+    @DisplayName("Should write the quietest and busiest window of each configured length")
+    void shouldWriteWindowExtremesOfEachLength() throws Exception {
+        setupMockData();
 
-        Chunk<Object> chunk = new Chunk<>();
+        writer.writeReport();
 
-        assertThrows(TrafficDataWriter.TrafficDataWriteException.class, () -> {
-            writer.write(chunk);
-        });
+        verify(reportSink, times(1)).writeLine("Quietest and busiest windows of whole half-hours:");
+        verify(reportSink, times(1)).writeLine("1-hour least 2023-12-01 11:00 50");
+        verify(reportSink, times(1)).writeLine("1-hour most 2023-12-01 10:30 80");
+        verify(reportSink, times(1)).writeLine("1.5-hour least 2023-12-01 10:30 100");
+        verify(reportSink, times(1)).writeLine("1.5-hour most 2023-12-01 10:30 100");
+        verify(reportSink, times(1)).writeLine("3-hour least insufficient data");
+        verify(reportSink, times(1)).writeLine("6-hour most insufficient data");
     }
 
     @Test
-    @DisplayName("Should reset writer state when reset is called")
-    void shouldResetWriterState() throws Exception {
+    @DisplayName("Should only write the configured window lengths")
+    void shouldWriteConfiguredWindowLengths() throws Exception {
+        TrafficProperties properties = new TrafficProperties();
+        properties.getReport().setWindowLengths(List.of(Duration.ofMinutes(30)));
+        writer = new TrafficDataWriter(processor, reportSink, properties);
         setupMockData();
 
-        Chunk<Object> chunk = new Chunk<>();
+        writer.writeReport();
 
-        // Write once
-        writer.write(chunk);
-        verify(consoleWriter, times(1)).writeLine("Total number of cars seen:");
+        verify(reportSink, times(1)).writeLine("0.5-hour least 2023-12-01 11:30 20");
+        verify(reportSink, times(1)).writeLine("0.5-hour most 2023-12-01 10:30 50");
+        verify(reportSink, never()).writeLine("1-hour least 2023-12-01 11:00 50");
+    }
 
-        // Reset and write again
-        writer.reset();
-        writer.write(chunk);
-        verify(consoleWriter, times(2)).writeLine("Total number of cars seen:");
+    @Test
+    @DisplayName("Should write a summary of each sensor after the network-wide report")
+    void shouldWritePerSensorReports() throws Exception {
+        setupMockData();
+        LocalDateTime dateTime = LocalDateTime.of(2023, 12, 1, 10, 30);
+        SensorAggregate north = new SensorAggregate(3);
+        SensorAggregate south = new SensorAggregate(3);
+        for (int i = 0; i < 3; i++) {
+            north.accept(dateTime.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC), 10 + i);
+        }
+        south.accept(dateTime.toEpochSecond(ZoneOffset.UTC), 7);
+        when(processor.hasSensors()).thenReturn(true);
+        when(processor.getSensorAggregates()).thenReturn(new TreeMap<>(Map.of("north", north, "south", south)));
+
+        writer.writeReport();
+
+        var order = inOrder(reportSink);
+        order.verify(reportSink).writeLine("Per-sensor traffic summary (2 sensors):");
+        order.verify(reportSink).writeLine("north total 33");
+        order.verify(reportSink).writeLine("north daily 2023-12-01 33");
+        order.verify(reportSink).writeLine("north top 2023-12-01 11:30 12");
+        order.verify(reportSink).writeLine("north 1.5-hour least period 2023-12-01 11:00 33");
+        order.verify(reportSink).writeLine("north 1-hour most 2023-12-01 11:00 23");
+        order.verify(reportSink).writeLine("south total 7");
+        order.verify(reportSink).writeLine("south 1.5-hour least period insufficient data");
+        order.verify(reportSink).flush();
     }
 
     @Test
-    @DisplayName("Should handle null chunk gracefully")
-    void shouldHandleNullChunkGracefully() throws Exception {
+    @DisplayName("Should leave out the per-sensor section when no row names a sensor")
+    void shouldOmitSensorReportsWithoutSensors() throws Exception {
         setupMockData();
 
-        writer.write(new Chunk<>());
+        writer.writeReport();
 
-        verify(consoleWriter, times(1)).writeLine("Total number of cars seen:");
-        verify(consoleWriter, times(1)).writeLine("100");
+        verify(reportSink, never()).writeLine(startsWith("Per-sensor"));
+        verify(processor, never()).getSensorAggregates();
+    }
+
+    @Test
+    @DisplayName("Should wrap report sink failures")
+    void shouldWrapReportSinkFailures() throws Exception {
+        stubTrafficData(List.of());
+        doThrow(new RuntimeException("Writer error")).when(reportSink).writeLine(anyString());
+
+        assertThrows(TrafficDataWriter.TrafficDataWriteException.class, () -> {
+            writer.writeReport();
+        });
     }
 
     @Test
@@ -179,17 +207,16 @@ class TrafficDataWriterTest {
                 date3, 20
         );
 
-        when(processor.getAllTrafficData()).thenReturn(List.of());
-        when(processor.getDailyCarsCount()).thenReturn(unsortedData);
+        stubTrafficData(List.of());
+        when(processor.getDailyCarsCounts()).thenReturn(dailyCounts(unsortedData));
         when(processor.getTopHalfHours()).thenReturn(List.of());
 
-        Chunk<Object> chunk = new Chunk<>();
-        writer.write(chunk);
+        writer.writeReport();
 
         // Verify dates are written in chronological order
-        verify(consoleWriter, times(1)).writeLine("2023-11-30 20");
-        verify(consoleWriter, times(1)).writeLine("2023-12-01 30");
-        verify(consoleWriter, times(1)).writeLine("2023-12-02 50");
+        verify(reportSink, times(1)).writeLine("2023-11-30 20");
+        verify(reportSink, times(1)).writeLine("2023-12-01 30");
+        verify(reportSink, times(1)).writeLine("2023-12-02 50");
     }
 
     private void setupMockData() {
@@ -208,8 +235,28 @@ class TrafficDataWriterTest {
                 TopHalfHour.builder().timestamp(dateTime.plusHours(1)).carsCount(20).build()
         );
 
-        when(processor.getAllTrafficData()).thenReturn(trafficData);
-        when(processor.getDailyCarsCount()).thenReturn(Map.of(date, 100));
+        stubTrafficData(trafficData);
+        when(processor.getDailyCarsCounts()).thenReturn(dailyCounts(Map.of(date, 100)));
         when(processor.getTopHalfHours()).thenReturn(topHalfHours);
     }
+
+    private DailyCarsCounts dailyCounts(Map<LocalDate, Integer> totals) {
+        DailyCarsCounts counts = new DailyCarsCounts();
+        totals.forEach(counts::add);
+        return counts;
+    }
+
+    private void stubTrafficData(List<TrafficData> trafficData) {
+        LeastTrafficWindow window = new LeastTrafficWindow();
+        HalfHourSlotIndex slotIndex = new HalfHourSlotIndex();
+        trafficData.forEach(data -> {
+            long epochSecond = data.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            window.accept(epochSecond, data.getCarsCount());
+            slotIndex.add((int) (epochSecond / 60), data.getCarsCount());
+        });
+
+        when(processor.getTotalCars()).thenReturn(trafficData.stream().mapToLong(TrafficData::getCarsCount).sum());
+        when(processor.getLeastTrafficPeriod()).thenReturn(window.result());
+        when(processor.getSlotIndex()).thenReturn(slotIndex);
+    }
 }
\ No newline at end of file
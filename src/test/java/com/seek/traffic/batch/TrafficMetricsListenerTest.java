@@ -0,0 +1,193 @@
+package com.seek.traffic.batch;
+
+import com.seek.traffic.model.TrafficData;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Metrics Listener Tests")
+class TrafficMetricsListenerTest {
+
+    private static final String STEP = "trafficDataProcessingStep";
+    private static final TrafficData ITEM = TrafficData.builder()
+            .timestamp(LocalDateTime.of(2021, 12, 1, 5, 0))
+            .carsCount(5)
+            .build();
+
+    private SimpleMeterRegistry registry;
+    private TrafficDataProcessor processor;
+    private TrafficMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        processor = new TrafficDataProcessor();
+        listener = new TrafficMetricsListener(registry, processor);
+    }
+
+    @Test
+    @DisplayName("Should count rows read once per chunk from the step execution")
+    void shouldCountRowsReadPerChunk() {
+        StepExecution stepExecution = startedStep(STEP);
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+
+        listener.beforeStep(stepExecution);
+        runChunk(chunk, stepExecution, 100);
+        runChunk(chunk, stepExecution, 40);
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+        listener.afterStep(stepExecution);
+
+        assertEquals(140, registry.get("traffic.rows.read").tag("step", STEP).counter().count());
+        assertEquals(2, registry.get("traffic.chunk.duration").tags("step", STEP, "outcome", "committed")
+                .timer().count());
+        assertEquals(2, registry.get("traffic.chunk.commit").tag("step", STEP).timer().count());
+        assertEquals(2, registry.get("traffic.chunk.write").tag("step", STEP).timer().count());
+        assertEquals(1, registry.get("traffic.step.duration").tags("step", STEP, "status", "COMPLETED")
+                .timer().count());
+        assertTrue(registry.get("traffic.step.throughput").tag("step", STEP).gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Should only time every sampled read and process call")
+    void shouldSampleItemTimings() {
+        StepExecution stepExecution = startedStep(STEP);
+        listener.beforeStep(stepExecution);
+        listener.beforeChunk(new ChunkContext(new StepContext(stepExecution)));
+
+        for (int i = 0; i < 3 * TrafficMetricsListener.SAMPLE_EVERY; i++) {
+            listener.beforeRead();
+            listener.afterRead(ITEM);
+            listener.beforeProcess(ITEM);
+            listener.afterProcess(ITEM, null);
+        }
+
+        assertEquals(3, registry.get("traffic.item.read").tag("step", STEP).timer().count());
+        assertEquals(3, registry.get("traffic.item.process").tag("step", STEP).timer().count());
+    }
+
+    @Test
+    @DisplayName("Should count parse failures, skips and failed chunks")
+    void shouldCountFailures() {
+        StepExecution stepExecution = startedStep(STEP);
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+        listener.beforeStep(stepExecution);
+        listener.beforeChunk(chunk);
+
+        listener.onReadError(new FlatFileParseException("bad line", "x", 3));
+        listener.onSkipInRead(new FlatFileParseException("bad line", "x", 3));
+        listener.onSkipInProcess(ITEM, new IllegalArgumentException());
+        listener.afterChunkError(chunk);
+
+        assertEquals(1, registry.get("traffic.parse.failures")
+                .tags("step", STEP, "exception", "FlatFileParseException").counter().count());
+        assertEquals(1, registry.get("traffic.rows.skipped").tags("step", STEP, "phase", "read").counter().count());
+        assertEquals(1, registry.get("traffic.rows.skipped").tags("step", STEP, "phase", "process").counter().count());
+        assertEquals(1, registry.get("traffic.chunk.duration").tags("step", STEP, "outcome", "failed")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Should count a tasklet step's rows once when it finishes")
+    void shouldCountTaskletRowsOnce() {
+        StepExecution stepExecution = startedStep("mappedIngestionStep");
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+
+        listener.beforeStep(stepExecution);
+        listener.beforeChunk(chunk);
+        stepExecution.setReadCount(500);
+        listener.afterChunk(chunk);
+        listener.afterStep(stepExecution);
+
+        assertEquals(500, registry.get("traffic.rows.read").tag("step", "mappedIngestionStep").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should share one set of meters across partition workers")
+    void shouldShareMetersAcrossPartitions() {
+        StepExecution first = startedStep("partitionWorkerStep:partition0");
+        StepExecution second = startedStep("partitionWorkerStep:partition1");
+
+        listener.beforeStep(first);
+        listener.beforeStep(second);
+        first.setReadCount(10);
+        second.setReadCount(20);
+        listener.afterStep(first);
+        listener.afterStep(second);
+
+        assertEquals(30, registry.get("traffic.rows.read").tag("step", "partitionWorkerStep").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should record the time from start to the first row once")
+    void shouldRecordFirstRowOnce() {
+        listener = new TrafficMetricsListener(registry, processor, System.currentTimeMillis() - 2_000);
+        StepExecution stepExecution = startedStep(STEP);
+        listener.beforeStep(stepExecution);
+
+        runChunk(new ChunkContext(new StepContext(stepExecution)), stepExecution, 10);
+        runChunk(new ChunkContext(new StepContext(stepExecution)), stepExecution, 10);
+
+        Timer firstRow = registry.get("traffic.startup.first-row").timer();
+        assertEquals(1, firstRow.count());
+        assertTrue(firstRow.totalTime(TimeUnit.MILLISECONDS) >= 2_000);
+    }
+
+    @Test
+    @DisplayName("Should take the first chunk of a tasklet step as its first row")
+    void shouldRecordFirstRowOfTaskletStep() {
+        StepExecution stepExecution = startedStep("mappedIngestionStep");
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+
+        listener.beforeStep(stepExecution);
+        listener.beforeChunk(chunk);
+        listener.afterChunk(chunk);
+        assertNull(registry.find("traffic.startup.first-row").timer());
+
+        listener.beforeChunk(chunk);
+        stepExecution.setReadCount(500);
+        listener.afterChunk(chunk);
+
+        assertEquals(1, registry.get("traffic.startup.first-row").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should report the number of records aggregated")
+    void shouldReportRecordsAggregated() throws Exception {
+        processor.process(ITEM);
+        processor.process(ITEM);
+
+        assertEquals(2, registry.get("traffic.records.aggregated").gauge().value());
+    }
+
+    private void runChunk(ChunkContext chunk, StepExecution stepExecution, int rows) {
+        listener.beforeChunk(chunk);
+        for (int i = 0; i < rows; i++) {
+            listener.beforeRead();
+            listener.afterRead(ITEM);
+        }
+        stepExecution.setReadCount(stepExecution.getReadCount() + rows);
+        listener.beforeWrite(new Chunk<>());
+        listener.afterWrite(new Chunk<>());
+        listener.afterChunk(chunk);
+    }
+
+    private static StepExecution startedStep(String name) {
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution(name, 1L);
+        stepExecution.setStartTime(LocalDateTime.now().minusSeconds(1));
+        return stepExecution;
+    }
+}
@@ -0,0 +1,47 @@
+package com.seek.traffic.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Properties Tests")
+class TrafficPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(Config.class);
+
+    @Test
+    @DisplayName("Should bind window lengths that are whole half hours")
+    void shouldBindWholeHalfHourWindowLengths() {
+        contextRunner.withPropertyValues("traffic.report.window-lengths=30m,2h")
+                .run(context -> assertEquals(List.of(Duration.ofMinutes(30), Duration.ofHours(2)),
+                        context.getBean(TrafficProperties.class).getReport().getWindowLengths()));
+    }
+
+    @Test
+    @DisplayName("Should fail at startup on window lengths that are not whole half hours")
+    void shouldRejectPartialSlotWindowLengths() {
+        contextRunner.withPropertyValues("traffic.report.window-lengths=1h,45m")
+                .run(context -> {
+                    assertNotNull(context.getStartupFailure());
+                    Throwable cause = context.getStartupFailure();
+                    while (cause.getCause() != null && !(cause instanceof IllegalArgumentException)) {
+                        cause = cause.getCause();
+                    }
+                    assertInstanceOf(IllegalArgumentException.class, cause);
+                    assertTrue(cause.getMessage().contains("PT45M"), cause.getMessage());
+                });
+        assertThrows(IllegalArgumentException.class,
+                () -> new TrafficProperties().getReport().setWindowLengths(List.of(Duration.ZERO)));
+    }
+
+    @EnableConfigurationProperties(TrafficProperties.class)
+    static class Config {
+    }
+}
@@ -0,0 +1,113 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Mapped Traffic File Ingester Tests")
+class MappedTrafficFileIngesterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should produce the same aggregate for any number of ranges")
+    void shouldProduceSameAggregateForAnyNumberOfRanges() throws Exception {
+        Path file = writeCsv(1_000);
+
+        TrafficAggregate sequential = new MappedTrafficFileIngester(1, 0, 20).ingest(file);
+        for (int parallelism : new int[]{2, 3, 7, 16}) {
+            TrafficAggregate parallel = new MappedTrafficFileIngester(parallelism, 0, 20).ingest(file);
+
+            assertEquals(sequential.size(), parallel.size());
+            assertEquals(sequential.getDailyCarsCounts(), parallel.getDailyCarsCounts());
+            assertEquals(sequential.getTopHalfHours(), parallel.getTopHalfHours());
+            assertEquals(timeline(sequential), timeline(parallel));
+        }
+        assertEquals(1_000, sequential.size());
+    }
+
+    @Test
+    @DisplayName("Should split ranges immediately after newlines")
+    void shouldSplitRangesAfterNewlines() throws Exception {
+        Path file = writeCsv(100);
+        byte[] bytes = Files.readAllBytes(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> ranges = new MappedTrafficFileIngester(5, 0).split(channel);
+
+            assertEquals(5, ranges.size());
+            assertEquals("timestamp,cars_count\n".length(), ranges.get(0)[0]);
+            assertEquals(bytes.length, ranges.get(ranges.size() - 1)[1]);
+            for (int i = 1; i < ranges.size(); i++) {
+                assertEquals(ranges.get(i - 1)[1], ranges.get(i)[0]);
+                assertEquals('\n', bytes[(int) ranges.get(i)[0] - 1]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip malformed lines up to the skip limit")
+    void shouldSkipMalformedLinesUpToSkipLimit() throws Exception {
+        Path file = tempDir.resolve("malformed.csv");
+        Files.writeString(file, "timestamp,cars_count\n2021-12-01T05:00:00,5\nbad,1\n2021-12-01T05:30:00,-3\n2021-12-01T06:00:00,7\n");
+
+        TrafficAggregate aggregate = new MappedTrafficFileIngester(2, 2).ingest(file);
+        assertEquals(2, aggregate.size());
+        assertEquals(12, aggregate.getDailyCarsCounts().get(LocalDate.of(2021, 12, 1)));
+
+        assertThrows(MappedTrafficFileIngester.TrafficIngestionException.class,
+                () -> new MappedTrafficFileIngester(2, 1).ingest(file));
+    }
+
+    @Test
+    @DisplayName("Should ingest non-file resources sequentially")
+    void shouldIngestNonFileResourcesSequentially() throws Exception {
+        ByteArrayResource resource = new ByteArrayResource("timestamp,cars_count\n2021-12-01T05:00:00,5\n".getBytes());
+
+        TrafficAggregate aggregate = new MappedTrafficFileIngester(4, 0).ingest(resource);
+        assertEquals(1, aggregate.size());
+    }
+
+    @Test
+    @DisplayName("Should handle a header-only file")
+    void shouldHandleHeaderOnlyFile() throws Exception {
+        Path file = tempDir.resolve("empty.csv");
+        Files.writeString(file, "timestamp,cars_count\n");
+
+        assertEquals(0, new MappedTrafficFileIngester(4, 0).ingest(file).size());
+    }
+
+    private Path writeCsv(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("timestamp,cars_count\n");
+        LocalDateTime timestamp = LocalDateTime.of(2021, 12, 1, 0, 0);
+        for (int i = 0; i < rows; i++) {
+            csv.append(timestamp.plusMinutes(30L * i)).append(":00,").append((i * 37) % 101).append('\n');
+        }
+        Path file = tempDir.resolve("traffic.csv");
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    private List<String> timeline(TrafficAggregate aggregate) {
+        List<String> records = new ArrayList<>();
+        aggregate.forEachRecord((epochSecond, carsCount) ->
+                records.add(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) + "=" + carsCount));
+        return records;
+    }
+}
@@ -0,0 +1,82 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Multi File Traffic Ingester Tests")
+class MultiFileTrafficIngesterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should merge every file into one aggregate")
+    void shouldMergeEveryFile() throws Exception {
+        Path first = writeCsv("a.csv", LocalDateTime.of(2021, 12, 1, 0, 0), 48, "");
+        Path second = writeCsv("b.csv", LocalDateTime.of(2021, 12, 2, 0, 0), 48, "");
+        Path third = writeCsv("c.csv", LocalDateTime.of(2021, 12, 3, 0, 0), 10, "");
+
+        MultiFileTrafficIngester.Result result = new MultiFileTrafficIngester(executor, 0, 3).ingest(List.of(
+                new FileSystemResource(third), new FileSystemResource(first), new FileSystemResource(second)));
+
+        TrafficAggregate expected = new TrafficAggregate(3);
+        for (Path file : List.of(first, second, third)) {
+            expected.merge(new MappedTrafficFileIngester(1, 0, 3).ingest(file));
+        }
+        assertEquals(3, result.files());
+        assertTrue(result.failures().isEmpty());
+        assertEquals(106, result.aggregate().size());
+        assertEquals(expected.getDailyCarsCounts(), result.aggregate().getDailyCarsCounts());
+        assertEquals(expected.getTopHalfHours(), result.aggregate().getTopHalfHours());
+    }
+
+    @Test
+    @DisplayName("Should leave out files that fail and keep the rest")
+    void shouldIsolateFailingFiles() throws Exception {
+        Path good = writeCsv("a.csv", LocalDateTime.of(2021, 12, 1, 0, 0), 48, "");
+        Path malformed = writeCsv("b.csv", LocalDateTime.of(2021, 12, 2, 0, 0), 48, "bad,line\nworse,line\n");
+        Path missing = tempDir.resolve("c.csv");
+
+        MultiFileTrafficIngester.Result result = new MultiFileTrafficIngester(executor, 1, 3).ingest(List.of(
+                new FileSystemResource(good), new FileSystemResource(malformed), new FileSystemResource(missing)));
+
+        assertEquals(3, result.files());
+        assertEquals(2, result.failures().size());
+        assertTrue(result.failures().get(0).file().contains("b.csv"));
+        assertTrue(result.failures().get(1).file().contains("c.csv"));
+        assertEquals(48, result.aggregate().size());
+        assertEquals(new MappedTrafficFileIngester(1, 0, 3).ingest(good).getDailyCarsCounts(),
+                result.aggregate().getDailyCarsCounts());
+    }
+
+    private Path writeCsv(String name, LocalDateTime start, int rows, String trailer) throws Exception {
+        StringBuilder csv = new StringBuilder("timestamp,cars_count\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(start.plusMinutes(30L * i)).append(":00,").append((i * 7) % 23).append('\n');
+        }
+        csv.append(trailer);
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, csv);
+        return file;
+    }
+}
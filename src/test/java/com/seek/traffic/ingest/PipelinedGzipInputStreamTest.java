@@ -0,0 +1,94 @@
+package com.seek.traffic.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pipelined Gzip Input Stream Tests")
+class PipelinedGzipInputStreamTest {
+
+    @Test
+    @DisplayName("Should decompress across many small buffers")
+    void shouldDecompressAcrossManyBuffers() throws Exception {
+        byte[] content = csv(5_000);
+
+        try (InputStream input = new PipelinedGzipInputStream(new ByteArrayInputStream(gzip(content)), 100, 2)) {
+            assertArrayEquals(content, input.readAllBytes());
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read concatenated gzip members as one stream")
+    void shouldReadConcatenatedMembers() throws Exception {
+        byte[] first = csv(10);
+        byte[] second = "2021-12-02T00:00:00,7\n".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream members = new ByteArrayOutputStream();
+        members.write(gzip(first));
+        members.write(gzip(second));
+
+        try (InputStream input = new PipelinedGzipInputStream(new ByteArrayInputStream(members.toByteArray()))) {
+            byte[] expected = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, expected, first.length, second.length);
+            assertArrayEquals(expected, input.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Should rethrow decompression failures to the reader")
+    void shouldRethrowDecompressionFailures() throws Exception {
+        byte[] truncated = Arrays.copyOf(gzip(csv(1_000)), 200);
+
+        try (InputStream input = new PipelinedGzipInputStream(new ByteArrayInputStream(truncated), 64, 2)) {
+            IOException e = assertThrows(IOException.class, input::readAllBytes);
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop decompressing when closed early")
+    void shouldStopWhenClosedEarly() throws Exception {
+        PipelinedGzipInputStream input = new PipelinedGzipInputStream(
+                new ByteArrayInputStream(gzip(csv(10_000))), 64, 2);
+        assertEquals('t', input.read());
+        input.close();
+
+        assertThrows(IOException.class, input::read);
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("traffic-gunzip-"))
+                .allMatch(thread -> {
+                    try {
+                        thread.join(1_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return !thread.isAlive();
+                }));
+    }
+
+    private static byte[] csv(int rows) {
+        StringBuilder csv = new StringBuilder("timestamp,cars_count\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("2021-12-01T").append(String.format("%02d:%02d", (i / 2) % 24, (i % 2) * 30))
+                    .append(":00,").append(i % 31).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.parser.TrafficCsvParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Column File Converter Tests")
+class TrafficColumnFileConverterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should convert CSV rows into columns, skipping malformed lines")
+    void shouldConvertCsvRows() throws Exception {
+        Path csv = tempDir.resolve("traffic.csv");
+        Files.writeString(csv, "timestamp,cars_count\n2021-12-01T05:00:00,5\nbad,1\n2021-12-01 05:30,7\n");
+        Path target = tempDir.resolve("traffic.tcol");
+
+        long rows = new TrafficColumnFileConverter(1).convert(new FileSystemResource(csv), target);
+
+        TrafficColumnFile file = TrafficColumnFile.open(target);
+        assertEquals(2, rows);
+        assertEquals(2, file.size());
+        assertEquals(LocalDateTime.of(2021, 12, 1, 5, 30).toEpochSecond(ZoneOffset.UTC) / 60, file.epochMinute(1));
+        assertEquals(7, file.carsCount(1));
+    }
+
+    @Test
+    @DisplayName("Should fail without replacing the target once the skip limit is exceeded")
+    void shouldFailWhenSkipLimitExceeded() throws Exception {
+        Path csv = tempDir.resolve("traffic.csv");
+        Files.writeString(csv, "timestamp,cars_count\nbad,1\nworse,2\n");
+        Path target = tempDir.resolve("traffic.tcol");
+
+        MappedTrafficFileIngester.TrafficIngestionException e = assertThrows(
+                MappedTrafficFileIngester.TrafficIngestionException.class,
+                () -> new TrafficColumnFileConverter(1).convert(new FileSystemResource(csv), target));
+        assertInstanceOf(TrafficCsvParser.TrafficCsvParseException.class, e.getCause());
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    @DisplayName("Should reject input naming sensors, which the column file cannot hold")
+    void shouldRejectSensorColumn() throws Exception {
+        Path csv = tempDir.resolve("traffic.csv");
+        Files.writeString(csv, "timestamp,cars_count,sensor_id\n2021-12-01T05:00:00,5,S1\n");
+        Path target = tempDir.resolve("traffic.tcol");
+
+        assertThrows(MappedTrafficFileIngester.TrafficIngestionException.class,
+                () -> new TrafficColumnFileConverter(1).convert(new FileSystemResource(csv), target));
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    @DisplayName("Should convert again only when the CSV changed since the column file was converted")
+    void shouldConvertOnlyWhenStale() throws Exception {
+        Path csv = tempDir.resolve("traffic.csv");
+        Files.writeString(csv, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+        Path target = tempDir.resolve("traffic.tcol");
+        TrafficColumnFileConverter converter = new TrafficColumnFileConverter(0);
+        FileSystemResource resource = new FileSystemResource(csv);
+
+        assertTrue(converter.isStale(resource, target));
+        assertEquals(1, converter.openConverted(resource, target).size());
+        assertFalse(converter.isStale(resource, target));
+
+        // Rewritten with its old modification time kept
+        FileTime modified = Files.getLastModifiedTime(csv);
+        Files.writeString(csv, "timestamp,cars_count\n2021-12-01T05:00:00,5\n2021-12-01T05:30:00,6\n");
+        Files.setLastModifiedTime(csv, modified);
+        assertTrue(converter.isStale(resource, target));
+        assertEquals(2, converter.openConverted(resource, target).size());
+
+        Files.delete(csv);
+        assertFalse(converter.isStale(resource, target));
+    }
+
+    @Test
+    @DisplayName("Should not reuse a column file converted from another, older CSV")
+    void shouldConvertAgainForAnotherInput() throws Exception {
+        Path first = tempDir.resolve("first.csv");
+        Path second = tempDir.resolve("second.csv");
+        Files.writeString(first, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+        Files.writeString(second, "timestamp,cars_count\n2021-12-01T05:00:00,7\n");
+        Files.setLastModifiedTime(second, FileTime.fromMillis(Files.getLastModifiedTime(first).toMillis() - 60_000));
+        Path target = tempDir.resolve("traffic.tcol");
+        TrafficColumnFileConverter converter = new TrafficColumnFileConverter(0);
+        converter.convert(new FileSystemResource(first), target);
+
+        FileSystemResource resource = new FileSystemResource(second);
+        assertTrue(converter.isStale(resource, target));
+        assertEquals(7, converter.openConverted(resource, target).carsCount(0));
+        assertFalse(converter.isStale(resource, target));
+    }
+
+    @Test
+    @DisplayName("Should convert again over a column file it cannot read")
+    void shouldConvertAgainOverUnreadableFile() throws Exception {
+        Path csv = tempDir.resolve("traffic.csv");
+        Files.writeString(csv, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+        Path target = tempDir.resolve("traffic.tcol");
+        Files.write(target, new byte[]{'T', 'R', 'F', 'C', 1, 0, 0, 0});
+        TrafficColumnFileConverter converter = new TrafficColumnFileConverter(0);
+
+        assertTrue(converter.isStale(new FileSystemResource(csv), target));
+        assertEquals(1, converter.openConverted(new FileSystemResource(csv), target).size());
+    }
+}
@@ -0,0 +1,135 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic Column File Tests")
+class TrafficColumnFileTest {
+
+    private static final int START_MINUTE =
+            (int) (LocalDateTime.of(2021, 12, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) / 60);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read back the rows that were written")
+    void shouldReadBackWrittenRows() throws Exception {
+        Path path = writeColumns(100_000);
+
+        TrafficColumnFile file = TrafficColumnFile.open(path);
+
+        assertEquals(100_000, file.size());
+        assertEquals(TrafficColumnFile.HEADER_SIZE + 8 * 100_000L, Files.size(path));
+        assertEquals(START_MINUTE, file.epochMinute(0));
+        assertEquals(START_MINUTE + 30 * 99_999, file.epochMinute(99_999));
+        assertEquals((99_999 * 37) % 101, file.carsCount(99_999));
+        assertThrows(IndexOutOfBoundsException.class, () -> file.carsCount(100_000));
+
+        int[] minutes = new int[3];
+        int[] counts = new int[3];
+        file.read(50_000, minutes, counts, 3);
+        assertArrayEquals(new int[]{START_MINUTE + 1_500_000, START_MINUTE + 1_500_030, START_MINUTE + 1_500_060}, minutes);
+        assertArrayEquals(new int[]{(50_000 * 37) % 101, (50_001 * 37) % 101, (50_002 * 37) % 101}, counts);
+    }
+
+    @Test
+    @DisplayName("Should load the same aggregate as accepting rows one by one")
+    void shouldLoadSameAggregateAsAcceptingRows() throws Exception {
+        TrafficColumnFile file = TrafficColumnFile.open(writeColumns(50_000));
+        TrafficAggregate expected = new TrafficAggregate(20);
+        file.forEach(expected);
+
+        for (int parallelism : new int[]{1, 2, 5}) {
+            TrafficAggregate loaded = file.load(parallelism, 20);
+
+            assertEquals(expected.size(), loaded.size());
+            assertEquals(expected.totalCars(), loaded.totalCars());
+            assertEquals(expected.getDailyCarsCounts(), loaded.getDailyCarsCounts());
+            assertEquals(expected.getTopHalfHours(), loaded.getTopHalfHours());
+            assertEquals(expected.getLeastTrafficWindow().result(), loaded.getLeastTrafficWindow().result());
+            assertEquals(timeline(expected), timeline(loaded));
+        }
+    }
+
+    @Test
+    @DisplayName("Should open a file without rows")
+    void shouldOpenEmptyFile() throws Exception {
+        TrafficColumnFile file = TrafficColumnFile.open(writeColumns(0));
+
+        assertEquals(0, file.size());
+        assertEquals(0, file.load(4, 3).size());
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not complete column files")
+    void shouldRejectInvalidFiles() throws Exception {
+        Path csv = tempDir.resolve("traffic.csv");
+        Files.writeString(csv, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+        assertThrows(TrafficColumnFile.InvalidColumnFileException.class, () -> TrafficColumnFile.open(csv));
+
+        Path columns = writeColumns(10);
+        byte[] bytes = Files.readAllBytes(columns);
+        Path truncated = tempDir.resolve("truncated.tcol");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(TrafficColumnFile.InvalidColumnFileException.class, () -> TrafficColumnFile.open(truncated));
+    }
+
+    @Test
+    @DisplayName("Should record the source the rows were converted from")
+    void shouldRecordSource() throws Exception {
+        Path path = tempDir.resolve("traffic.tcol");
+        TrafficColumnFile.Source source = TrafficColumnFile.Source.of(1234, 5678, "file [traffic.csv]");
+        try (TrafficColumnFileWriter writer = new TrafficColumnFileWriter(path, source)) {
+            writer.append(START_MINUTE, 1);
+        }
+
+        assertEquals(source, TrafficColumnFile.readSource(path));
+        assertEquals(source, TrafficColumnFile.open(path).getSource());
+        assertNotEquals(source, TrafficColumnFile.Source.of(1234, 5678, "file [other.csv]"));
+        assertEquals(TrafficColumnFile.Source.UNKNOWN, TrafficColumnFile.readSource(writeColumns(1)));
+    }
+
+    @Test
+    @DisplayName("Should leave no file behind when a write is discarded")
+    void shouldLeaveNoFileWhenDiscarded() throws Exception {
+        Path path = tempDir.resolve("discarded.tcol");
+        TrafficColumnFileWriter writer = new TrafficColumnFileWriter(path);
+        writer.append(START_MINUTE, 1);
+
+        writer.discard();
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private Path writeColumns(int rows) throws IOException {
+        Path path = tempDir.resolve("traffic.tcol");
+        try (TrafficColumnFileWriter writer = new TrafficColumnFileWriter(path)) {
+            for (int i = 0; i < rows; i++) {
+                writer.append(START_MINUTE + 30 * i, (i * 37) % 101);
+            }
+        }
+        return path;
+    }
+
+    private List<String> timeline(TrafficAggregate aggregate) {
+        List<String> records = new ArrayList<>();
+        aggregate.forEachRecord((epochSecond, carsCount) -> records.add(epochSecond + "=" + carsCount));
+        return records;
+    }
+}
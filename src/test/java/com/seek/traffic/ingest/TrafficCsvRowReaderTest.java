@@ -0,0 +1,63 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.parser.TrafficCsvParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic CSV Row Reader Tests")
+class TrafficCsvRowReaderTest {
+
+    @Test
+    @DisplayName("Should stop on each well-formed row and count the malformed lines skipped")
+    void shouldSkipMalformedLines() throws Exception {
+        TrafficCsvParser parser = parser("2021-12-01T05:00:00,5\nbad,1\n2021-12-01T05:30:00,7\n2021-12-01T06:00:00,x\n");
+        TrafficCsvRowReader reader = new TrafficCsvRowReader(parser, "test", 2);
+
+        List<Integer> counts = new ArrayList<>();
+        while (reader.next()) {
+            counts.add(parser.carsCount());
+        }
+
+        assertEquals(List.of(5, 7), counts);
+        assertEquals(2, reader.skipped());
+    }
+
+    @Test
+    @DisplayName("Should fail with the parse error as cause once the skip limit is exceeded")
+    void shouldFailBeyondSkipLimit() throws Exception {
+        TrafficCsvRowReader reader = new TrafficCsvRowReader(parser("bad,1\nworse,2\n"), "test", 1);
+
+        MappedTrafficFileIngester.TrafficIngestionException e = assertThrows(
+                MappedTrafficFileIngester.TrafficIngestionException.class, () -> {
+                    while (reader.next()) {
+                        // only malformed lines
+                    }
+                });
+        assertInstanceOf(TrafficCsvParser.TrafficCsvParseException.class, e.getCause());
+        assertEquals(2, ((TrafficCsvParser.TrafficCsvParseException) e.getCause()).getLineNumber());
+    }
+
+    @Test
+    @DisplayName("Should apply the skip limit across readers sharing the count")
+    void shouldShareSkipCount() throws Exception {
+        AtomicInteger skipped = new AtomicInteger();
+        TrafficCsvRowReader first = new TrafficCsvRowReader(parser("bad,1\n"), "first", 1, skipped);
+        TrafficCsvRowReader second = new TrafficCsvRowReader(parser("worse,2\n"), "second", 1, skipped);
+
+        assertFalse(first.next());
+        assertThrows(MappedTrafficFileIngester.TrafficIngestionException.class, second::next);
+        assertEquals(2, second.skipped());
+    }
+
+    private static TrafficCsvParser parser(String csv) {
+        return new TrafficCsvParser(new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
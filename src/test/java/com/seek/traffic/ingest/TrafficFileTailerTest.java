@@ -0,0 +1,90 @@
+package com.seek.traffic.ingest;
+
+import com.seek.traffic.aggregate.TrafficAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic File Tailer Tests")
+class TrafficFileTailerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read only the lines appended since the last poll")
+    void shouldReadOnlyAppendedLines() throws Exception {
+        Path file = tempDir.resolve("traffic.csv");
+        Files.writeString(file, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+        TrafficFileTailer tailer = new TrafficFileTailer(file);
+        TrafficAggregate aggregate = new TrafficAggregate();
+
+        assertEquals(1, tailer.poll(aggregate));
+        assertEquals(0, tailer.poll(aggregate));
+
+        append(file, "2021-12-01T05:30:00,7\n2021-12-01T06:00:00,9\n");
+        assertEquals(2, tailer.poll(aggregate));
+
+        assertEquals(3, aggregate.size());
+        assertEquals(21, aggregate.totalCars());
+        assertEquals(Files.size(file), tailer.position());
+    }
+
+    @Test
+    @DisplayName("Should leave a partially written line for the next poll")
+    void shouldWaitForIncompleteLine() throws Exception {
+        Path file = tempDir.resolve("traffic.csv");
+        Files.writeString(file, "timestamp,cars");
+        TrafficFileTailer tailer = new TrafficFileTailer(file);
+        TrafficAggregate aggregate = new TrafficAggregate();
+
+        assertEquals(0, tailer.poll(aggregate));
+        append(file, "_count\n2021-12-01T05:00:00,1");
+        assertEquals(0, tailer.poll(aggregate));
+        append(file, "2\n");
+        assertEquals(1, tailer.poll(aggregate));
+
+        assertEquals(12, aggregate.totalCars());
+    }
+
+    @Test
+    @DisplayName("Should skip malformed lines and keep following the file")
+    void shouldSkipMalformedLines() throws Exception {
+        Path file = tempDir.resolve("traffic.csv");
+        Files.writeString(file, "timestamp,cars_count\nbad,1\n2021-12-01T05:00:00,5\n");
+        TrafficFileTailer tailer = new TrafficFileTailer(file);
+        TrafficAggregate aggregate = new TrafficAggregate();
+
+        assertEquals(1, tailer.poll(aggregate));
+        append(file, "2021-12-01T05:30:00,x\n2021-12-01T06:00:00,6\n");
+        assertEquals(1, tailer.poll(aggregate));
+
+        assertEquals(2, tailer.skippedLines());
+        assertEquals(11, aggregate.totalCars());
+    }
+
+    @Test
+    @DisplayName("Should follow a replaced file from its first line")
+    void shouldFollowReplacedFileFromStart() throws Exception {
+        Path file = tempDir.resolve("traffic.csv");
+        Files.writeString(file, "timestamp,cars_count\n2021-12-01T05:00:00,5\n2021-12-01T05:30:00,6\n");
+        TrafficFileTailer tailer = new TrafficFileTailer(file);
+        TrafficAggregate aggregate = new TrafficAggregate();
+        tailer.poll(aggregate);
+
+        Files.writeString(file, "timestamp,cars_count\n2021-12-02T05:00:00,1\n");
+        assertEquals(1, tailer.poll(aggregate));
+
+        assertEquals(12, aggregate.totalCars());
+    }
+
+    private static void append(Path file, String text) throws Exception {
+        Files.writeString(file, text, StandardOpenOption.APPEND);
+    }
+}
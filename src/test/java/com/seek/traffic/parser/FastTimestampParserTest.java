@@ -0,0 +1,89 @@
+package com.seek.traffic.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fast Timestamp Parser Tests")
+class FastTimestampParserTest {
+
+    private static final String[] SAMPLES = {
+            "2021-12-01T10:30:00",
+            "2021-12-01 10:30:00",
+            "2021-12-01 10:30",
+            "12/01/2021 10:30:00",
+            "12/01/2021 10:30"
+    };
+
+    @Test
+    @DisplayName("Should parse every supported format like the formatters")
+    void shouldParseEverySupportedFormatLikeFormatters() {
+        FastTimestampParser parser = new FastTimestampParser();
+
+        for (String sample : SAMPLES) {
+            assertEquals(TimestampFormats.parse(sample), parser.parse(sample));
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect the format from the first matching row")
+    void shouldDetectFormatFromFirstMatchingRow() {
+        for (int i = 0; i < SAMPLES.length; i++) {
+            FastTimestampParser parser = new FastTimestampParser();
+            assertNull(parser.getDetectedLayout());
+
+            parser.parse(SAMPLES[i]);
+            assertEquals(FastTimestampParser.Layout.values()[i], parser.getDetectedLayout());
+            assertEquals(TimestampFormats.SUPPORTED_FORMATTERS[i].toString(),
+                    java.time.format.DateTimeFormatter.ofPattern(parser.getDetectedLayout().getPattern()).toString());
+
+            // Rows in another layout are still accepted without changing the detected one
+            parser.parse(SAMPLES[(i + 1) % SAMPLES.length]);
+            assertEquals(FastTimestampParser.Layout.values()[i], parser.getDetectedLayout());
+        }
+    }
+
+    @Test
+    @DisplayName("Should defer lenient values to the formatters")
+    void shouldDeferLenientValuesToFormatters() {
+        FastTimestampParser parser = new FastTimestampParser();
+
+        assertEquals(LocalDateTime.of(2021, 2, 28, 5, 30), parser.parse("2021-02-30T05:30:00"));
+        assertEquals(TimestampFormats.parse("02/31/2021 05:30"), parser.parse("02/31/2021 05:30"));
+    }
+
+    @Test
+    @DisplayName("Should reject text matching no supported format")
+    void shouldRejectUnsupportedText() {
+        FastTimestampParser parser = new FastTimestampParser();
+
+        assertThrows(DateTimeParseException.class, () -> parser.parse("invalid-timestamp"));
+        assertThrows(DateTimeParseException.class, () -> parser.parse("2021-12-01T10:30"));
+        assertThrows(DateTimeParseException.class, () -> parser.parse("2021-12-01T25:30:00"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("  "));
+    }
+
+    @Test
+    @DisplayName("Should decode trimmed byte ranges")
+    void shouldDecodeTrimmedByteRanges() {
+        FastTimestampParser parser = new FastTimestampParser();
+        byte[] line = "x,12/01/2021 10:30,5".getBytes();
+
+        assertEquals(LocalDateTime.of(2021, 12, 1, 10, 30).toEpochSecond(java.time.ZoneOffset.UTC),
+                parser.parseEpochSecond(line, 2, 18));
+    }
+
+    @Test
+    @DisplayName("Should compute epoch days like LocalDate")
+    void shouldComputeEpochDaysLikeLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 25); date.isBefore(LocalDate.of(2101, 1, 5)); date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(),
+                    FastTimestampParser.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+    }
+}
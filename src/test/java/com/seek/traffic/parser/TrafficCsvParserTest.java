@@ -0,0 +1,132 @@
+package com.seek.traffic.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Traffic CSV Parser Tests")
+class TrafficCsvParserTest {
+
+    @Test
+    @DisplayName("Should decode rows into epoch seconds and counts")
+    void shouldDecodeRowsIntoPrimitives() throws Exception {
+        TrafficCsvParser parser = parserFor("2021-12-01T05:30:00,12\n");
+
+        assertTrue(parser.next());
+        assertEquals(LocalDateTime.of(2021, 12, 1, 5, 30).toEpochSecond(ZoneOffset.UTC), parser.epochSecond());
+        assertEquals(12, parser.carsCount());
+        assertFalse(parser.next());
+    }
+
+    @Test
+    @DisplayName("Should handle CRLF, blank lines, padding and a missing final newline")
+    void shouldHandleLineEndingVariants() throws Exception {
+        TrafficCsvParser parser = parserFor("2021-12-01T05:30:00,12\r\n\r\n  2021-12-01 06:00 , 7 \n2021-12-01T06:30:00,3");
+
+        assertTrue(parser.next());
+        assertEquals(12, parser.carsCount());
+        assertTrue(parser.next());
+        assertEquals(7, parser.carsCount());
+        assertEquals(LocalDateTime.of(2021, 12, 1, 6, 0).toEpochSecond(ZoneOffset.UTC), parser.epochSecond());
+        assertTrue(parser.next());
+        assertEquals(3, parser.carsCount());
+        assertEquals(4, parser.lineNumber());
+        assertFalse(parser.next());
+    }
+
+    @Test
+    @DisplayName("Should read an optional sensor id, trimmed and unquoted")
+    void shouldReadSensorIds() throws Exception {
+        TrafficCsvParser parser = parserFor("2021-12-01T05:30:00,12, north \n2021-12-01T06:00:00,7,\"south\"\n2021-12-01T06:30:00,3\n");
+
+        assertTrue(parser.next());
+        assertEquals("north", parser.sensorId());
+        assertEquals(12, parser.carsCount());
+        assertTrue(parser.next());
+        assertEquals("south", parser.sensorId());
+        assertEquals(7, parser.carsCount());
+        assertTrue(parser.next());
+        assertEquals("", parser.sensorId());
+        assertEquals(3, parser.carsCount());
+    }
+
+    @Test
+    @DisplayName("Should reuse the sensor id while consecutive rows name the same sensor")
+    void shouldReuseRepeatedSensorIds() throws Exception {
+        TrafficCsvParser parser = parserFor("2021-12-01T05:30:00,12,S1\n2021-12-01T06:00:00,7,S1\n2021-12-01T06:30:00,3,S2\n");
+
+        assertTrue(parser.next());
+        String first = parser.sensorId();
+        assertTrue(parser.next());
+        assertSame(first, parser.sensorId());
+        assertTrue(parser.next());
+        assertEquals("S2", parser.sensorId());
+    }
+
+    @Test
+    @DisplayName("Should grow the buffer for lines longer than it")
+    void shouldGrowBufferForLongLines() throws Exception {
+        String csv = "2021-12-01T05:30:00,12\n2021-12-01T06:00:00,13\n2021-12-01T06:30:00,14\n";
+        TrafficCsvParser parser = new TrafficCsvParser(new ByteArrayInputStream(csv.getBytes()), 4);
+
+        int sum = 0;
+        while (parser.next()) {
+            sum += parser.carsCount();
+        }
+        assertEquals(39, sum);
+    }
+
+    @Test
+    @DisplayName("Should reject negative counts, wrong token counts and garbage counts")
+    void shouldRejectMalformedRows() throws Exception {
+        TrafficCsvParser parser = parserFor("2021-12-01T05:30:00,-1\n2021-12-01T05:30:00\n2021-12-01T05:30:00,1,S1,2\n2021-12-01T05:30:00,x\n2021-12-01T05:30:00,99999999999\n2021-12-01T06:00:00,4\n");
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TrafficCsvParser.TrafficCsvParseException.class, parser::next);
+        }
+        assertTrue(parser.next());
+        assertEquals(4, parser.carsCount());
+        assertEquals(6, parser.lineNumber());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the formatters for values outside the fast path")
+    void shouldFallBackToFormattersOutsideFastPath() throws Exception {
+        TrafficCsvParser parser = parserFor("2021-02-30T05:30:00,1\n2021-12-01T5:30:00,2\n");
+
+        // SMART resolution clamps an out-of-range day-of-month, exactly as the formatter reader does
+        assertTrue(parser.next());
+        assertEquals(LocalDateTime.of(2021, 2, 28, 5, 30).toEpochSecond(ZoneOffset.UTC), parser.epochSecond());
+        assertThrows(TrafficCsvParser.TrafficCsvParseException.class, parser::next);
+    }
+
+    @Test
+    @DisplayName("Should resume at a byte offset recorded by an earlier parser")
+    void shouldResumeAtRecordedByteOffset() throws Exception {
+        String csv = "timestamp,cars_count\n2021-12-01T05:30:00,12\n2021-12-01T06:00:00,7\n2021-12-01T06:30:00,3\n";
+        TrafficCsvParser first = new TrafficCsvParser(new ByteArrayInputStream(csv.getBytes()), 16);
+        first.skipLines(1);
+        assertTrue(first.next());
+        long offset = first.byteOffset();
+        long lineNumber = first.lineNumber();
+
+        TrafficCsvParser resumed = new TrafficCsvParser(new ByteArrayInputStream(csv.getBytes()), 16);
+        resumed.skipTo(offset, lineNumber);
+
+        assertTrue(resumed.next());
+        assertEquals(7, resumed.carsCount());
+        assertEquals(lineNumber + 1, resumed.lineNumber());
+        assertTrue(resumed.next());
+        assertEquals(3, resumed.carsCount());
+        assertFalse(resumed.next());
+    }
+
+    private TrafficCsvParser parserFor(String csv) {
+        return new TrafficCsvParser(new ByteArrayInputStream(csv.getBytes()));
+    }
+}
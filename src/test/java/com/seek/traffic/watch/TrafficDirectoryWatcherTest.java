@@ -0,0 +1,127 @@
+package com.seek.traffic.watch;
+
+import com.seek.traffic.batch.TrafficDataProcessor;
+import com.seek.traffic.batch.TrafficDataWriter;
+import com.seek.traffic.config.TrafficProperties;
+import com.seek.traffic.model.LeastTrafficPeriod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Traffic Directory Watcher Tests")
+class TrafficDirectoryWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private TrafficDataWriter trafficDataWriter;
+
+    private TrafficDataProcessor processor;
+    private TrafficProperties trafficProperties;
+    private TrafficDirectoryWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        trafficProperties = new TrafficProperties();
+        trafficProperties.getWatch().setEnabled(true);
+        processor = new TrafficDataProcessor(trafficProperties);
+        trafficProperties.getWatch().setDirectory(tempDir.toString());
+        trafficProperties.getWatch().setPollInterval(Duration.ofMillis(20));
+        trafficProperties.getWatch().setReportInterval(Duration.ZERO);
+        watcher = new TrafficDirectoryWatcher(trafficProperties, processor, trafficDataWriter);
+    }
+
+    @Test
+    @DisplayName("Should fold only new rows of matching files into the aggregates")
+    void shouldFoldOnlyNewRows() throws Exception {
+        Path first = tempDir.resolve("a.csv");
+        Files.writeString(first, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+        Files.writeString(tempDir.resolve("notes.txt"), "2021-12-01T05:00:00,100\n");
+
+        assertEquals(1, watcher.scan(tempDir));
+        assertEquals(0, watcher.scan(tempDir));
+
+        Files.writeString(first, "2021-12-01T05:30:00,7\n", StandardOpenOption.APPEND);
+        Files.writeString(tempDir.resolve("b.csv"), "timestamp,cars_count\n2021-12-02T05:00:00,3\n");
+        assertEquals(2, watcher.scan(tempDir));
+
+        assertEquals(15, processor.getTotalCars());
+        assertEquals(12, processor.getDailyCarsCounts().get(LocalDate.of(2021, 12, 1)));
+        assertEquals(3, processor.getDailyCarsCounts().get(LocalDate.of(2021, 12, 2)));
+    }
+
+    @Test
+    @DisplayName("Should keep no raw records and take the least period of interleaved files from half-hours")
+    void shouldKeepNoRawRecords() throws Exception {
+        Files.writeString(tempDir.resolve("a.csv"), "timestamp,cars_count\n"
+                + "2021-12-01T06:00:00,20\n2021-12-01T06:30:00,4\n2021-12-01T07:00:00,9\n");
+        Files.writeString(tempDir.resolve("b.csv"), "timestamp,cars_count\n"
+                + "2021-12-01T05:00:00,8\n2021-12-01T05:30:00,6\n");
+
+        assertEquals(5, watcher.scan(tempDir));
+
+        assertEquals(0, processor.getSortedTrafficColumns().size());
+        LeastTrafficPeriod period = processor.getLeastTrafficPeriod().orElseThrow();
+        // 6 + 20 + 4 over 05:30 to 07:00, reported by its middle half-hour
+        assertEquals(LocalDateTime.of(2021, 12, 1, 6, 0), period.getStartTimestamp());
+        assertEquals(30, period.getTotalCars());
+    }
+
+    @Test
+    @DisplayName("Should only be created when watch mode is enabled")
+    void shouldOnlyBeCreatedInWatchMode() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withBean(TrafficProperties.class, TrafficProperties::new)
+                .withBean(TrafficDataProcessor.class, () -> processor)
+                .withBean(TrafficDataWriter.class, () -> trafficDataWriter)
+                .withUserConfiguration(TrafficDirectoryWatcher.class);
+
+        contextRunner.run(context -> assertFalse(context.containsBean("trafficDirectoryWatcher")));
+        contextRunner.withPropertyValues("traffic.watch.enabled=true")
+                .run(context -> assertEquals(1, context.getBeanNamesForType(TrafficDirectoryWatcher.class).length));
+    }
+
+    @Test
+    @DisplayName("Should refresh the report when rows are appended while running")
+    void shouldRefreshReportWhileRunning() throws Exception {
+        Path file = tempDir.resolve("a.csv");
+        Files.writeString(file, "timestamp,cars_count\n2021-12-01T05:00:00,5\n");
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> {
+            try {
+                watcher.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            verify(trafficDataWriter, timeout(5_000).times(1)).writeReport();
+
+            Files.writeString(file, "2021-12-01T05:30:00,7\n", StandardOpenOption.APPEND);
+            verify(trafficDataWriter, timeout(5_000).times(2)).writeReport();
+            assertEquals(12, processor.getTotalCars());
+            assertEquals(LocalDateTime.of(2021, 12, 1, 5, 30), processor.getTopHalfHours().get(0).getTimestamp());
+        } finally {
+            watcher.stop();
+            running.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.seek.traffic.writer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Async Report Sink Tests")
+class AsyncReportSinkTest {
+
+    @Test
+    @DisplayName("Should write every line in order before flush returns")
+    void shouldWriteLinesInOrderBeforeFlushReturns() {
+        RecordingSink delegate = new RecordingSink();
+        AsyncReportSink sink = new AsyncReportSink(delegate, 4);
+
+        for (int i = 0; i < 1000; i++) {
+            sink.writeLine("line " + i);
+        }
+        sink.flush();
+
+        assertEquals(1000, delegate.flushedLines.size());
+        assertEquals("line 0", delegate.flushedLines.get(0));
+        assertEquals("line 999", delegate.flushedLines.get(999));
+        sink.close();
+    }
+
+    @Test
+    @DisplayName("Should write out queued lines on close")
+    void shouldWriteQueuedLinesOnClose() {
+        RecordingSink delegate = new RecordingSink();
+        AsyncReportSink sink = new AsyncReportSink(delegate, 16);
+
+        sink.writeLine("last line");
+        sink.close();
+
+        assertEquals(List.of("last line"), delegate.flushedLines);
+        assertThrows(IllegalStateException.class, () -> sink.writeLine("too late"));
+    }
+
+    @Test
+    @DisplayName("Should rethrow a failure of the writer thread")
+    void shouldRethrowWriterFailure() {
+        ReportSink failing = new ReportSink() {
+            @Override
+            public void writeLine(String line) {
+                throw new IllegalStateException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+        AsyncReportSink sink = new AsyncReportSink(failing, 16);
+
+        sink.writeLine("lost");
+
+        AsyncReportSink.AsyncReportWriteException e =
+                assertThrows(AsyncReportSink.AsyncReportWriteException.class, sink::flush);
+        assertEquals("disk full", e.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a queue without capacity")
+    void shouldRejectQueueWithoutCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncReportSink(new RecordingSink(), 0));
+    }
+
+    /**
+     * Records the lines written, moving them to {@link #flushedLines} on flush.
+     */
+    private static class RecordingSink implements ReportSink {
+
+        private final List<String> pending = new ArrayList<>();
+        final List<String> flushedLines = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void writeLine(String line) {
+            pending.add(line);
+        }
+
+        @Override
+        public void flush() {
+            flushedLines.addAll(pending);
+            pending.clear();
+        }
+    }
+}
@@ -30,6 +30,7 @@ class ConsoleWriterTest {
 		String testLine = "Test output line";
 
 		consoleWriter.writeLine(testLine);
+		consoleWriter.flush();
 
 		String output = outputStream.toString();
 		assertTrue(output.contains(testLine));
@@ -43,6 +44,7 @@ class ConsoleWriterTest {
 
 		consoleWriter.writeLine(line1);
 		consoleWriter.writeLine(line2);
+		consoleWriter.flush();
 
 		String output = outputStream.toString();
 		assertTrue(output.contains(line1));
@@ -70,11 +72,34 @@ class ConsoleWriterTest {
 		String specialLine = "Special chars: @#$%^&*()";
 
 		consoleWriter.writeLine(specialLine);
+		consoleWriter.flush();
 
 		String output = outputStream.toString();
 		assertTrue(output.contains(specialLine));
 	}
 
+	@Test
+	@DisplayName("Should hold lines back until flushed")
+	void shouldHoldLinesBackUntilFlushed() {
+		consoleWriter.writeLine("Buffered line");
+
+		assertEquals("", outputStream.toString());
+
+		consoleWriter.flush();
+
+		assertEquals("Buffered line" + System.lineSeparator(), outputStream.toString());
+	}
+
+	@Test
+	@DisplayName("Should write out lines once the buffer is full")
+	void shouldWriteOutWhenBufferIsFull() {
+		ConsoleWriter smallBuffer = new ConsoleWriter(new PrintStream(outputStream), 16);
+
+		smallBuffer.writeLine("x".repeat(20_000));
+
+		assertFalse(outputStream.toString().isEmpty());
+	}
+
 	void tearDown() {
 		System.setOut(originalOut);
 	}
@@ -0,0 +1,83 @@
+package com.seek.traffic.writer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("File Report Sink Tests")
+class FileReportSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private Path target;
+
+    @BeforeEach
+    void setUp() {
+        target = directory.resolve("report.txt");
+    }
+
+    @Test
+    @DisplayName("Should publish the report on flush")
+    void shouldPublishReportOnFlush() throws IOException {
+        FileReportSink sink = new FileReportSink(target, 1024);
+
+        sink.writeLine("Total number of cars seen:");
+        sink.writeLine("398");
+        assertFalse(Files.exists(target));
+
+        sink.flush();
+
+        assertEquals(List.of("Total number of cars seen:", "398"), Files.readAllLines(target));
+    }
+
+    @Test
+    @DisplayName("Should replace the previous report with the next one")
+    void shouldReplacePreviousReport() throws IOException {
+        FileReportSink sink = new FileReportSink(target, 1024);
+        sink.writeLine("first report");
+        sink.flush();
+
+        sink.writeLine("second report");
+        assertEquals(List.of("first report"), Files.readAllLines(target));
+        sink.flush();
+
+        assertEquals(List.of("second report"), Files.readAllLines(target));
+    }
+
+    @Test
+    @DisplayName("Should write lines larger than the buffer")
+    void shouldWriteLinesLargerThanBuffer() throws IOException {
+        FileReportSink sink = new FileReportSink(target, 16);
+        String longLine = "2021-12-01 07:30 46 ".repeat(50);
+
+        sink.writeLine(longLine);
+        sink.writeLine("é ü");
+        sink.flush();
+
+        assertEquals(List.of(longLine, "é ü"), Files.readAllLines(target, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should discard an unfinished report on close")
+    void shouldDiscardUnfinishedReportOnClose() throws IOException {
+        FileReportSink sink = new FileReportSink(target, 1024);
+        sink.writeLine("complete");
+        sink.flush();
+
+        sink.writeLine("partial");
+        sink.close();
+
+        assertEquals(List.of("complete"), Files.readAllLines(target));
+        assertFalse(Files.exists(directory.resolve("report.txt.tmp")));
+    }
+}